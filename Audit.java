@@ -1,23 +1,23 @@
-import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
-import java.io.FileReader;
 import java.io.IOException;
-import java.io.PrintWriter;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 import ethicalengine.Scenario;
+import ethicalengine.ScenarioBatch;
 import ethicalengine.ScenarioGenerator;
-import ethicalengine.Character;
-import ethicalengine.Character.Gender;
-import ethicalengine.Character.TypeofCharacter;
-import ethicalengine.Animal;
-import ethicalengine.Person;
-import ethicalengine.Person.Profession;
+import ethicalengine.SeedStream;
 
 /**
  * Performs the audit of the scenario and generates a stats file
@@ -30,32 +30,42 @@ public class Audit {
 	final int SCENARIOS_PER_ITERATION = 3;
 	final String AUDIT_TYPE_ALGORITHM = "Unspecified";
 	final String AUDIT_TYPE_USER = "User";
-	final String PREGNANT_PARAM_KEY = "pregnant";
-	final String PET_PARAM_KEY = "pet";
-	final String GREEN_PARAM_KEY = "green";
-	final String RED_PARAM_KEY = "red";
-	final String YOU_PARAM_KEY = "you";
+	final String AUDIT_TYPE_EXACT = "Exact";
 	final String AGE_PARAM_KEY = "age";
+	final int MIN_SCENARIOS_PER_TASK = 1024;
+	final int TASKS_PER_WORKER = 8;
+	final int INTERACTIVE_ROWS = 20;
+	final int ADAPTIVE_BATCH_RUNS = 10000;
+
+	private static final EthicalEngine.Decision[] DECISIONS = EthicalEngine.Decision.values();
 
 	private String auditType;
-	private int runs;
+	private long runs;
 	private Scenario[] scenarios;
 	private boolean exitProgram = false;
 	private boolean isInteractive;
-	private int totalAgeOfSurvivors = 0;
-	private int totalSurvivors = 0;
+	private int parallelism = 1;
+	private SeedStream seeds = new SeedStream();
+	private long generatedScenarios = 0;
+	private boolean isSyncedToDisk = false;
+	private ReportWriter.Format reportFormat = ReportWriter.Format.TEXT;
+	private int crowdSize = 0;
+	private DecisionPolicy policy = null;
+
+	TraitAccumulator traits = new TraitAccumulator();
+
+	TraitRanking ranking = new TraitRanking();
 
-	Map<String, Integer> traitOfAllCharacters = new HashMap<String, Integer>();
-	Map<String, Integer> traitOfSafeCharacters = new HashMap<String, Integer>();
+	TraitIntervals intervals = null;
 
-	ArrayList<Traits> survivalRatios = new ArrayList<Traits>();
+	boolean isExact = false;
 
 	/**
 	 * returns the number of times audit have been run
 	 * 
 	 * @return number of runs
 	 */
-	public int getRuns() {
+	public long getRuns() {
 		return runs;
 	}
 
@@ -64,7 +74,7 @@ public class Audit {
 	 * 
 	 * @param runs the value to which the runs has to incremented
 	 */
-	public void incrementRuns(int runs) {
+	public void incrementRuns(long runs) {
 		this.runs += runs;
 	}
 
@@ -86,6 +96,89 @@ public class Audit {
 		this.isInteractive = isInteractive;
 	}
 
+	/**
+	 * gets the number of workers used for non interactive audits
+	 * 
+	 * @return parallelism of the audit
+	 */
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * sets the number of workers used for non interactive audits
+	 * 
+	 * @param parallelism number of workers
+	 */
+	public void setParallelism(int parallelism) {
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * sets if the stats file is synced to disk after every audit
+	 * 
+	 * @param isSyncedToDisk if appended audits are forced to the disk
+	 */
+	public void setSyncedToDisk(boolean isSyncedToDisk) {
+		this.isSyncedToDisk = isSyncedToDisk;
+	}
+
+	/**
+	 * sets the format of the statistics printed in the console and the stats file
+	 * 
+	 * @param reportFormat format of the report
+	 */
+	public void setReportFormat(ReportWriter.Format reportFormat) {
+		this.reportFormat = reportFormat;
+	}
+
+	/**
+	 * sets the max number of pedestrians of the randomly generated scenarios
+	 * 
+	 * @param crowdSize max number of pedestrians, 0 for the default
+	 */
+	public void setCrowdSize(int crowdSize) {
+		this.crowdSize = crowdSize;
+	}
+
+	/**
+	 * gets the policy deciding the scenarios of non interactive audits
+	 * 
+	 * @return policy of the audit, null for {@link EthicalEngine#decide}
+	 */
+	public DecisionPolicy getPolicy() {
+		return policy;
+	}
+
+	/**
+	 * sets the policy deciding the scenarios of non interactive audits. The audit
+	 * is then named after the policy
+	 * 
+	 * @param policy policy of the audit, null for {@link EthicalEngine#decide}
+	 */
+	public void setPolicy(DecisionPolicy policy) {
+		this.policy = policy;
+	}
+
+	/**
+	 * gets the master seed of the randomly generated scenarios
+	 * 
+	 * @return master seed of the audit
+	 */
+	public long getSeed() {
+		return seeds.getMasterSeed();
+	}
+
+	/**
+	 * sets the master seed of the randomly generated scenarios, so that the audit
+	 * can be reproduced independent of the parallelism
+	 * 
+	 * @param seed master seed of the audit
+	 */
+	public void setSeed(long seed) {
+		this.seeds = new SeedStream(seed);
+	}
+
 	/**
 	 * gets the name of the audit
 	 * 
@@ -124,7 +217,10 @@ public class Audit {
 	 * 
 	 */
 	public void run() {
-		this.setAuditType(isInteractive ? AUDIT_TYPE_USER : AUDIT_TYPE_ALGORITHM);
+		this.setAuditType(isInteractive ? AUDIT_TYPE_USER : getAlgorithmAuditType());
+		byte[] decisions = !isInteractive && policy == null && EthicalEngine.isVectorKernelEnabled()
+				? EthicalEngine.decideAll(ScenarioBatch.of(scenarios))
+				: null;
 		for (int i = 0; i < scenarios.length; i++) {
 			if (isInteractive && (i % SCENARIOS_PER_ITERATION == 0) && i > 0) {
 				this.computerSurvivalRatios();
@@ -135,11 +231,10 @@ public class Audit {
 				}
 			}
 			this.incrementRuns(1);
-			EthicalEngine.Decision decision = isInteractive ? getUserDecision(scenarios[i]) : EthicalEngine.decide(scenarios[i]);
+			EthicalEngine.Decision decision = isInteractive ? getUserDecision(scenarios[i])
+					: decisions != null ? DECISIONS[decisions[i]] : decide(policy, scenarios[i], i);
 
-			this.addTraitBasedOnCharacters(scenarios[i].getPassengers(), decision == EthicalEngine.Decision.PASSENGERS);
-			this.addTraitBasedOnCharacters(scenarios[i].getPedestrians(), decision == EthicalEngine.Decision.PEDESTRIANS);
-			this.addParamBasedOnScene(scenarios[i], decision);
+			this.traits.addScenario(scenarios[i], decision);
 		}
 
 		this.computerSurvivalRatios();
@@ -147,103 +242,251 @@ public class Audit {
 	}
 
 	/**
-	 * injects the characteristic into the hashmap based on the survival
+	 * conducts audit by splitting the scenarios across a pool of workers. Every
+	 * worker accumulates the traits of its range privately and the results are
+	 * merged at the end, so the statistics equal the ones of {@link #run()}
 	 * 
-	 * @param key    key of the param
-	 * @param isSafe is going to be saved
+	 * @param parallelism number of workers
 	 */
-	private void injectIntoParam(String key, boolean isSafe) {
-		if (isSafe) {
-			traitOfSafeCharacters.put(key,
-					traitOfSafeCharacters.get(key) != null ? traitOfSafeCharacters.get(key) + 1 : 1);
+	public void runParallel(int parallelism) {
+		if (isInteractive || parallelism <= 1) {
+			run();
+			return;
 		}
-		traitOfAllCharacters.put(key, traitOfAllCharacters.get(key) != null ? traitOfAllCharacters.get(key) + 1 : 1);
+		this.setAuditType(getAlgorithmAuditType());
+		this.traits.merge(invokeAuditTask(scenarios, 0, scenarios.length, parallelism, policies())[0]);
+		this.incrementRuns(scenarios.length);
+
+		this.computerSurvivalRatios();
+		printStatistic();
 	}
 
 	/**
-	 * extracts the various parameters of a character
+	 * conducts audit on randomly generated scenarios without storing them. Every
+	 * scenario is decided and counted as soon as it is generated, so the memory
+	 * used does not depend on the number of runs
 	 * 
-	 * @param characters traits on characters
-	 * @param isSafe     is the character going to be saved
+	 * @param runs number of scenarios to be generated
 	 */
-	private void addTraitBasedOnCharacters(Character[] characters, boolean isSafe) {
-
-		for (Character character : characters) {
-			Person person = null;
-			Animal animal = null;
+	private void runStreaming(long runs) {
+		generate(runs);
 
-			if (character.getTypeOfCharacter() == TypeofCharacter.PERSON) {
-				person = new Person(((Person) character));
-				// bodytype
-				this.injectIntoParam(person.getBodyType().toString(), isSafe);
+		this.computerSurvivalRatios();
+		printStatistic();
+	}
 
-				// Gender]
-				if (person.getGender() != Gender.UNKNOWN) {
-					this.injectIntoParam(person.getGender().toString(), isSafe);
-				}
+	/**
+	 * decides and counts the next scenarios of the seed stream, continuing after
+	 * the scenarios generated before
+	 * 
+	 * @param runs number of scenarios to be generated
+	 */
+	private void generate(long runs) {
+		if (parallelism > 1) {
+			this.traits.merge(invokeAuditTask(null, generatedScenarios, runs, parallelism, policies())[0]);
+		} else {
+			ScenarioGenerator sceneGenerator = createGenerator(seeds, crowdSize);
+			for (long i = 0; i < runs; i++) {
+				Scenario scene = sceneGenerator.generate(generatedScenarios + i);
+				this.traits.addScenario(scene, decide(policy, scene, generatedScenarios + i));
+			}
+		}
+		this.generatedScenarios += runs;
+		this.incrementRuns(runs);
+	}
 
-				// Person
-				this.injectIntoParam(TypeofCharacter.PERSON.toString(), isSafe);
+	/**
+	 * conducts the audits of several policies in a single pass over the
+	 * scenarios of the first audit. The traits of every scenario are extracted
+	 * once and added to the accumulator of every policy with its decision, so
+	 * the statistics of each audit equal the ones of running it alone. Stored
+	 * scenarios are audited when the first audit has them, otherwise runs
+	 * scenarios are generated with its seed and crowd size
+	 * 
+	 * @param audits non interactive audits, one per policy
+	 * @param runs   number of scenarios to be generated
+	 */
+	public static void runTogether(Audit[] audits, long runs) {
+		Audit first = audits[0];
+		long from = first.scenarios == null ? first.generatedScenarios : 0;
+		long count = first.scenarios == null ? runs : first.scenarios.length;
+		DecisionPolicy[] policies = new DecisionPolicy[audits.length];
+		for (int k = 0; k < audits.length; k++) {
+			policies[k] = audits[k].policy;
+		}
 
-				// profession
-				if (person.getProfession() != Profession.NONE)
-					this.injectIntoParam(person.getProfession().toString(), isSafe);
+		TraitAccumulator[] traits = first.parallelism > 1
+				? first.invokeAuditTask(first.scenarios, from, count, first.parallelism, policies)
+				: accumulate(first.scenarios, first.seeds, first.crowdSize, policies, from, from + count);
+		if (first.scenarios == null) {
+			first.generatedScenarios += count;
+		}
+		for (int k = 0; k < audits.length; k++) {
+			audits[k].setAuditType(audits[k].getAlgorithmAuditType());
+			audits[k].traits.merge(traits[k]);
+			audits[k].incrementRuns(count);
+			audits[k].computerSurvivalRatios();
+			audits[k].printStatistic();
+		}
+	}
 
-				// pregnant
-				if (person.isPregnant()) {
-					this.injectIntoParam(PREGNANT_PARAM_KEY, isSafe);
-				}
+	/**
+	 * gets the type of a non interactive audit
+	 * 
+	 * @return name of the policy, or the type of the algorithm audit
+	 */
+	private String getAlgorithmAuditType() {
+		return policy == null ? AUDIT_TYPE_ALGORITHM : policy.getName();
+	}
 
-				// age
-				if (isSafe) {
-					totalAgeOfSurvivors += person.getAge();
-					totalSurvivors++;
-				}
+	/**
+	 * gets the policies decided by the audit tasks of this audit
+	 * 
+	 * @return policy of the audit
+	 */
+	private DecisionPolicy[] policies() {
+		return new DecisionPolicy[] { policy };
+	}
 
-				// agecategory
-				this.injectIntoParam(person.getAgeCategory().toString(), isSafe);
+	/**
+	 * decides whom to save with a policy
+	 * 
+	 * @param policy   policy of an audit, null for {@link EthicalEngine#decide}
+	 * @param scenario scenario to be decided
+	 * @param index    position of the scenario in the audit
+	 * @return Decision of whom to be saved
+	 */
+	private static EthicalEngine.Decision decide(DecisionPolicy policy, Scenario scenario, long index) {
+		return policy == null ? EthicalEngine.decide(scenario) : policy.decide(scenario, index);
+	}
 
+	/**
+	 * decides a range of scenarios with every policy and accumulates their
+	 * traits, one accumulator per policy. With several policies the traits of a
+	 * scenario are extracted once for all of them
+	 * 
+	 * @param scenarios scenarios of the audit, null to generate them
+	 * @param seeds     seed stream of the generated scenarios
+	 * @param crowdSize max number of pedestrians, 0 for the default
+	 * @param policies  policies of the audits
+	 * @param from      first scenario of the range
+	 * @param to        end of the range (exclusive)
+	 * @return traits of the range for every policy
+	 */
+	private static TraitAccumulator[] accumulate(Scenario[] scenarios, SeedStream seeds, int crowdSize,
+			DecisionPolicy[] policies, long from, long to) {
+		TraitAccumulator[] traits = new TraitAccumulator[policies.length];
+		for (int k = 0; k < policies.length; k++) {
+			traits[k] = new TraitAccumulator();
+		}
+		ScenarioGenerator sceneGenerator = scenarios == null ? createGenerator(seeds, crowdSize) : null;
+		ScenarioTraits sceneTraits = policies.length > 1 ? new ScenarioTraits() : null;
+		for (long i = from; i < to; i++) {
+			Scenario scene = scenarios == null ? sceneGenerator.generate(i) : scenarios[(int) i];
+			if (sceneTraits == null) {
+				traits[0].addScenario(scene, decide(policies[0], scene, i));
 			} else {
-				animal = new Animal(((Animal) character));
+				sceneTraits.extract(scene);
+				for (int k = 0; k < policies.length; k++) {
+					sceneTraits.addTo(traits[k], decide(policies[k], scene, i));
+				}
+			}
+		}
+		return traits;
+	}
 
-				// Animal
-				this.injectIntoParam(TypeofCharacter.ANIMAL.toString(), isSafe);
+	/**
+	 * runs an audit task over all the scenarios in a pool of workers
+	 * 
+	 * @param scenarios   scenarios of the audit, null to generate them
+	 * @param from        index of the first scenario
+	 * @param count       number of scenarios
+	 * @param parallelism number of workers
+	 * @param policies    policies of the audits
+	 * @return merged traits of all the scenarios for every policy
+	 */
+	private TraitAccumulator[] invokeAuditTask(Scenario[] scenarios, long from, long count, int parallelism,
+			DecisionPolicy[] policies) {
+		long threshold = Math.max(MIN_SCENARIOS_PER_TASK, count / (parallelism * TASKS_PER_WORKER));
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			return pool.invoke(new AuditTask(scenarios, seeds, crowdSize, policies, from, from + count, threshold));
+		} finally {
+			pool.shutdown();
+		}
+	}
 
-				// Species
-				this.injectIntoParam(animal.getSpecies().toString(), isSafe);
+	/**
+	 * Decides a range of scenarios with every policy and accumulates their
+	 * traits, splitting the range while it is larger than the threshold. Without
+	 * stored scenarios the range is generated on the fly
+	 */
+	private static class AuditTask extends RecursiveTask<TraitAccumulator[]> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Scenario[] scenarios;
+		private final SeedStream seeds;
+		private final int crowdSize;
+		private final DecisionPolicy[] policies;
+		private final long from;
+		private final long to;
+		private final long threshold;
+
+		/**
+		 * creates a task for the scenarios in [from, to)
+		 * 
+		 * @param scenarios scenarios of the audit, null to generate them
+		 * @param seeds     seed stream of the generated scenarios
+		 * @param crowdSize max number of pedestrians, 0 for the default
+		 * @param policies  policies of the audits
+		 * @param from      first scenario of the range
+		 * @param to        end of the range (exclusive)
+		 * @param threshold max number of scenarios decided without splitting
+		 */
+		AuditTask(Scenario[] scenarios, SeedStream seeds, int crowdSize, DecisionPolicy[] policies, long from,
+				long to, long threshold) {
+			this.scenarios = scenarios;
+			this.seeds = seeds;
+			this.crowdSize = crowdSize;
+			this.policies = policies;
+			this.from = from;
+			this.to = to;
+			this.threshold = threshold;
+		}
 
-				// Pet
-				if (animal.isPet()) {
-					this.injectIntoParam(PET_PARAM_KEY, isSafe);
-				}
+		@Override
+		protected TraitAccumulator[] compute() {
+			if (to - from <= threshold) {
+				return accumulate(scenarios, seeds, crowdSize, policies, from, to);
 			}
-
+			long middle = (from + to) >>> 1;
+			AuditTask left = new AuditTask(scenarios, seeds, crowdSize, policies, from, middle, threshold);
+			left.fork();
+			TraitAccumulator[] traits = new AuditTask(scenarios, seeds, crowdSize, policies, middle, to, threshold)
+					.compute();
+			TraitAccumulator[] leftTraits = left.join();
+			for (int k = 0; k < leftTraits.length; k++) {
+				leftTraits[k].merge(traits[k]);
+			}
+			return leftTraits;
 		}
 	}
 
 	/**
-	 * extracts the various parameters of a scene
+	 * creates a generator of the scenarios of a seed stream
 	 * 
-	 * @param scene    traits of the scene
-	 * @param decision whom to save
+	 * @param seeds     seed stream of the generated scenarios
+	 * @param crowdSize max number of pedestrians, 0 for the default
+	 * @return scenario generator
 	 */
-	private void addParamBasedOnScene(Scenario scene, EthicalEngine.Decision decision) {
-		// you
-		if (scene.hasYouInCar() || scene.hasYouInLane()) {
-			boolean isSafe = (scene.hasYouInCar() && decision == EthicalEngine.Decision.PASSENGERS)
-					|| (scene.hasYouInLane() && decision == EthicalEngine.Decision.PEDESTRIANS);
-			this.injectIntoParam(YOU_PARAM_KEY, isSafe);
+	private static ScenarioGenerator createGenerator(SeedStream seeds, int crowdSize) {
+		ScenarioGenerator sceneGenerator = new ScenarioGenerator(seeds);
+		if (crowdSize > 0) {
+			// the max count of the generator is exclusive
+			sceneGenerator.setPedestrianCountMax(crowdSize + 1);
 		}
-
-		// legality
-		String key = scene.isLegalCrossing() ? GREEN_PARAM_KEY : RED_PARAM_KEY;
-		int survivorCount = decision == EthicalEngine.Decision.PASSENGERS ? scene.getPassengerCount() : scene.getPedestrianCount();
-		int totalCount = scene.getPassengerCount() + scene.getPedestrianCount();
-		traitOfSafeCharacters.put(key,
-				traitOfSafeCharacters.get(key) != null ? traitOfSafeCharacters.get(key) + survivorCount
-						: survivorCount);
-		traitOfAllCharacters.put(key,
-				traitOfAllCharacters.get(key) != null ? traitOfAllCharacters.get(key) + totalCount : totalCount);
+		return sceneGenerator;
 	}
 
 	/**
@@ -254,7 +497,7 @@ public class Audit {
 	 */
 	private EthicalEngine.Decision getUserDecision(Scenario scene) {
 		EthicalEngine.Decision userDecision = EthicalEngine.Decision.PASSENGERS;
-		System.out.println(scene);
+		System.out.println(scene.toString(INTERACTIVE_ROWS));
 		System.out.println("Who should be saved? (passenger(s) [1] or pedestrian(s) [2])");
 		String decision = EthicalEngine.KEY_BOARD.nextLine();
 		if (decision.equals("1") || decision.equals("passenger") || decision.equals("passengers")) {
@@ -272,9 +515,9 @@ public class Audit {
 	 */
 	private void startAudit(int runs) {
 		Scenario[] scenarios = new Scenario[runs];
+		ScenarioGenerator sceneGenerator = createGenerator(seeds, crowdSize);
 		for (int i = 0; i < runs; i++) {
-			ScenarioGenerator sceneGenerator = new ScenarioGenerator();
-			scenarios[i] = sceneGenerator.generate();
+			scenarios[i] = sceneGenerator.generate(generatedScenarios++);
 		}
 		this.scenarios = scenarios;
 		run();
@@ -292,45 +535,71 @@ public class Audit {
 	}
 
 	/**
-	 * runs the audit with the specified number of runs
+	 * runs the audit with the specified number of runs. Non interactive audits
+	 * are streamed, so the number of runs is not bounded by the memory
 	 * 
 	 * @param runs number of times the audit runs
 	 */
-	public void run(int runs) {
-		this.setAuditType(isInteractive ? AUDIT_TYPE_USER : AUDIT_TYPE_ALGORITHM);
+	public void run(long runs) {
+		this.setAuditType(isInteractive ? AUDIT_TYPE_USER : getAlgorithmAuditType());
 		if (isInteractive) {
 			while (!this.exitProgram) {
 				startAudit(SCENARIOS_PER_ITERATION);
 				checkIfUserWantsToContinue();
 			}
 		} else {
-			startAudit(runs);
+			runStreaming(runs);
+		}
+
+	}
+
+	/**
+	 * conducts audit on random scenarios in batches until the 95% interval of
+	 * every survival ratio is within its target half-width. The scenarios are the
+	 * ones of the seed stream, so the statistics equal the ones of a fixed audit
+	 * with the number of runs it stopped at
+	 * 
+	 * @param maxRuns         max number of scenarios to be generated
+	 * @param halfWidth       target half-width of the traits without their own
+	 * @param traitHalfWidths target half-width of some traits, by name
+	 */
+	public void runAdaptive(long maxRuns, double halfWidth, Map<String, Double> traitHalfWidths) {
+		this.setAuditType(getAlgorithmAuditType());
+		this.intervals = new TraitIntervals();
+		while (this.getRuns() < maxRuns) {
+			generate(Math.min(ADAPTIVE_BATCH_RUNS, maxRuns - this.getRuns()));
+			intervals.addBatch(traits);
+			if (intervals.isPrecise(traits, halfWidth, traitHalfWidths)) {
+				break;
+			}
 		}
 
+		this.computerSurvivalRatios();
+		printStatistic();
 	}
 
 	/**
-	 * Computes the survival ratio for the trait
+	 * conducts the exact audit of the default algorithm on the random scenarios
+	 * of the crowd size, with the expected survival ratios instead of sampled
+	 * ones. The audit has no runs
 	 * 
-	 * @param key   trait name
-	 * @param value trait occurrence
-	 * @return trait of the scene
+	 * @see ExactAudit
 	 */
-	private Traits getSurvivalRatioOfTrait(String key, float value) {
-		float survivalRatio = (this.traitOfSafeCharacters.get(key) == null ? 0
-				: this.traitOfSafeCharacters.get(key).floatValue()) / value;
-		return new Traits(key, survivalRatio);
+	public void runExact() {
+		this.setAuditType(AUDIT_TYPE_EXACT);
+		this.isExact = true;
+		ExactAudit.accumulate(createGenerator(seeds, crowdSize), traits);
+
+		this.computerSurvivalRatios();
+		printStatistic();
 	}
 
 	/**
-	 * computes the survival ratio for all the attributes
+	 * brings the ranking of the survival ratios up to date, repositioning only
+	 * the traits changed since the last statistics
 	 */
 	private void computerSurvivalRatios() {
-		this.survivalRatios.clear();
-		for (Map.Entry<String, Integer> entry : this.traitOfAllCharacters.entrySet()) {
-			this.survivalRatios.add(getSurvivalRatioOfTrait(entry.getKey(), entry.getValue()));
-		}
-		Collections.sort(this.survivalRatios, Traits.sortByRatios);
+		this.ranking.update(this.traits);
 	}
 
 	/**
@@ -338,25 +607,27 @@ public class Audit {
 	 */
 	@Override
 	public String toString() {
-		String bar = "======================================\n";
-		String banner = String.format("%s# %s Audit\n%s", bar, this.getAuditType(), bar);
-		String metadata = "- % " + String.format("SAVED AFTER %d RUNS\n", this.getRuns());
-
-		String traits = "";
-		for (Traits trait : survivalRatios)
-			traits += trait;
-
-		float avgAge = (float) this.totalAgeOfSurvivors / (float) this.totalSurvivors;
-		traits += String.format("--\naverage age: %.1f", avgAge);
-
-		return banner + metadata + traits;
+		StringBuilder report = new StringBuilder();
+		try {
+			new ReportWriter(report, ReportWriter.Format.TEXT).write(this);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return report.toString();
 	}
 
 	/**
 	 * prints stats in the console
 	 */
 	public void printStatistic() {
-		System.out.println(this);
+		try {
+			Writer out = new BufferedWriter(new OutputStreamWriter(System.out));
+			new ReportWriter(out, reportFormat).write(this);
+			out.append(System.lineSeparator());
+			out.flush();
+		} catch (IOException e) {
+			System.out.println(e.getLocalizedMessage());
+		}
 	}
 
 	/**
@@ -365,10 +636,8 @@ public class Audit {
 	 * @param filepath path of the file where the audit results will be stored
 	 */
 	public void printToFile(String filepath) {
-		String oldData;
 		try {
-			oldData = restoreData(filepath);
-			saveDataOffline(filepath, oldData);
+			appendToFile(filepath);
 		} catch (FileNotFoundException e) {
 			System.out.println(e.getLocalizedMessage());
 		} catch (IOException e) {
@@ -377,47 +646,54 @@ public class Audit {
 	}
 
 	/**
-	 * appends the stats in a file along with old data
+	 * appends the stats at the end of a file. Text audits are separated by an
+	 * empty line, so only the last byte of the old data is read, and only the new
+	 * audit is written
 	 * 
-	 * @param filepath filepath path of the file where the audit results will be
-	 *                 stored
-	 * @param oldData  data present in old file
-	 * @throws IOException
-	 */
-	private void saveDataOffline(String filepath, String oldData) throws IOException {
-		EthicalEngine.moralMachineWriter = new PrintWriter(new FileOutputStream(filepath));
-		EthicalEngine.moralMachineWriter.println((oldData.equals("") ? oldData : oldData + "\n") + this);
-		EthicalEngine.moralMachineWriter.close();
-	}
-
-	/**
-	 * gets the old data of the stats file
-	 * 
-	 * @param filepath filepath path of the file where the audit results will be
-	 *                 stored
-	 * @return data of the old file
+	 * @param filepath path of the file where the audit results will be stored
 	 * @throws IOException
-	 * @throws Exception
 	 */
-	private String restoreData(String filepath) throws IOException {
-		String oldData = "";
+	private void appendToFile(String filepath) throws IOException {
 		File moralMachinesStats = new File(filepath);
-		if (moralMachinesStats.exists()) {
-			EthicalEngine.moralMachinesBufferReader = new BufferedReader(new FileReader(filepath));
-			String line;
-			while ((line = EthicalEngine.moralMachinesBufferReader.readLine()) != null) {
-				oldData += line + "\n";
+		if (!moralMachinesStats.exists() && filepath.contains("/")
+				&& !new File(moralMachinesStats.getParent()).isDirectory()) {
+			String exeptionMsg = "ERROR: could not print results. Target directory does not exist.";
+			throw new FileNotFoundException(exeptionMsg);
+		}
+
+		try (FileChannel channel = FileChannel.open(moralMachinesStats.toPath(), StandardOpenOption.CREATE,
+				StandardOpenOption.APPEND)) {
+			String separator = "";
+			long size = channel.size();
+			if (size > 0) {
+				try (FileChannel reader = FileChannel.open(moralMachinesStats.toPath(), StandardOpenOption.READ)) {
+					ByteBuffer lastByte = ByteBuffer.allocate(1);
+					reader.read(lastByte, size - 1);
+					boolean isLineEnded = lastByte.get(0) == '\n';
+					if (reportFormat == ReportWriter.Format.TEXT) {
+						// the old data always ends with a line break before the empty line
+						separator = isLineEnded ? "\n" : "\n\n";
+					} else {
+						separator = isLineEnded ? "" : "\n";
+					}
+				}
 			}
-		} else if (filepath.contains("/")) {
-			File moralMachinesStatsParentDict = new File(moralMachinesStats.getParent());
 
-			if (!moralMachinesStatsParentDict.isDirectory()) {
-				String exeptionMsg = "ERROR: could not print results. Target directory does not exist.";
-				throw new FileNotFoundException(exeptionMsg);
+			// only the new audit is written, in append mode so that audits of
+			// processes sharing the file are not overwritten
+			Writer out = new BufferedWriter(Channels.newWriter(channel, Charset.defaultCharset()));
+			ReportWriter writer = new ReportWriter(out, reportFormat);
+			if (size == 0) {
+				writer.writeHeader();
+			}
+			out.append(separator);
+			writer.write(this);
+			out.append(System.lineSeparator());
+			out.flush();
+			if (isSyncedToDisk) {
+				channel.force(false);
 			}
 		}
-
-		return oldData;
 	}
 
 }
@@ -0,0 +1,807 @@
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps every stored audit as a structured record, so the survival ratios can
+ * be followed over time without parsing the results log. Records are appended
+ * to segment files, a new segment is started once the last one is full. A
+ * small index holds one entry per segment with its number of records, its time
+ * range and the audit types in it, so a query only reads the segments it needs.
+ * Full segments are merged into larger ones in the background
+ *
+ * @author Sharodh Keelamanakudi Ragupathi(1148618)
+ */
+public class AuditHistory {
+
+	/**
+	 * An audit read back from the history
+	 */
+	public static class Record {
+
+		private final long timestamp;
+		private final String auditType;
+		private final long runs;
+		private final long totalAgeOfSurvivors;
+		private final long totalSurvivors;
+		private final String[] traits;
+		private final long[] countOfAllCharacters;
+		private final long[] countOfSafeCharacters;
+
+		/**
+		 * creates a record
+		 *
+		 * @param timestamp             time the audit was stored in milliseconds
+		 * @param auditType             type of the audit
+		 * @param runs                  number of runs of the audit
+		 * @param totalAgeOfSurvivors   sum of ages of the saved persons
+		 * @param totalSurvivors        number of saved persons
+		 * @param traits                names of the traits
+		 * @param countOfAllCharacters  number of characters of every trait
+		 * @param countOfSafeCharacters number of saved characters of every trait
+		 */
+		Record(long timestamp, String auditType, long runs, long totalAgeOfSurvivors, long totalSurvivors,
+				String[] traits, long[] countOfAllCharacters, long[] countOfSafeCharacters) {
+			this.timestamp = timestamp;
+			this.auditType = auditType;
+			this.runs = runs;
+			this.totalAgeOfSurvivors = totalAgeOfSurvivors;
+			this.totalSurvivors = totalSurvivors;
+			this.traits = traits;
+			this.countOfAllCharacters = countOfAllCharacters;
+			this.countOfSafeCharacters = countOfSafeCharacters;
+		}
+
+		/**
+		 * gets the time the audit was stored
+		 *
+		 * @return milliseconds since the epoch
+		 */
+		public long getTimestamp() {
+			return timestamp;
+		}
+
+		/**
+		 * gets the type of the audit
+		 *
+		 * @return audit type
+		 */
+		public String getAuditType() {
+			return auditType;
+		}
+
+		/**
+		 * gets the number of runs of the audit
+		 *
+		 * @return number of runs
+		 */
+		public long getRuns() {
+			return runs;
+		}
+
+		/**
+		 * gets the names of the traits seen in the audit
+		 *
+		 * @return trait names
+		 */
+		public String[] getTraits() {
+			return traits.clone();
+		}
+
+		/**
+		 * gets the survival ratio of a trait
+		 *
+		 * @param trait name of the trait
+		 * @return survival ratio, NaN if the trait was not seen
+		 */
+		public float getSurvivalRatio(String trait) {
+			for (int i = 0; i < traits.length; i++) {
+				if (traits[i].equals(trait)) {
+					return (float) countOfSafeCharacters[i] / (float) countOfAllCharacters[i];
+				}
+			}
+			return Float.NaN;
+		}
+
+		/**
+		 * gets the average age of the saved persons
+		 *
+		 * @return average age
+		 */
+		public float getAverageAge() {
+			return (float) totalAgeOfSurvivors / (float) totalSurvivors;
+		}
+	}
+
+	/**
+	 * Entry of the index describing a segment
+	 */
+	private static class Segment {
+
+		private final int id;
+		private int typeMask;
+		private long recordCount;
+		private long size;
+		private long firstTimestamp;
+		private long lastTimestamp;
+
+		/**
+		 * creates an entry of a segment
+		 *
+		 * @param id             id of the segment, which names its file
+		 * @param typeMask       bits of the audit types in the segment
+		 * @param recordCount    number of records in the segment
+		 * @param size           bytes of the segment holding its records
+		 * @param firstTimestamp time of the earliest record in milliseconds
+		 * @param lastTimestamp  time of the latest record in milliseconds
+		 */
+		Segment(int id, int typeMask, long recordCount, long size, long firstTimestamp, long lastTimestamp) {
+			this.id = id;
+			this.typeMask = typeMask;
+			this.recordCount = recordCount;
+			this.size = size;
+			this.firstTimestamp = firstTimestamp;
+			this.lastTimestamp = lastTimestamp;
+		}
+
+		/**
+		 * checks if the segment may hold records matching a query
+		 *
+		 * @param typeMask bits of the audit type of the query
+		 * @param from     first time of the query in milliseconds
+		 * @param to       last time of the query in milliseconds
+		 * @return if the segment has to be read
+		 */
+		boolean isMatching(int typeMask, long from, long to) {
+			return (this.typeMask & typeMask) != 0 && firstTimestamp <= to && lastTimestamp >= from;
+		}
+	}
+
+	static final int SEGMENT_MAGIC = 0x4D4D4853;
+	static final int INDEX_MAGIC = 0x4D4D4849;
+	static final int VERSION = 1;
+	static final int HEADER_SIZE = 8;
+	static final int INDEX_ENTRY_SIZE = 40;
+	static final int RECORDS_PER_SEGMENT = 256;
+	static final int RECORDS_PER_COMPACTED_SEGMENT = 4096;
+	static final String INDEX_FILE_NAME = "history.idx";
+	static final String LOCK_FILE_NAME = "history.lock";
+	static final String SEGMENT_FILE_FORMAT = "segment-%08d.dat";
+	static final String TEMP_FILE_PREFIX = "segment-";
+	static final String TEMP_FILE_SUFFIX = ".tmp";
+	static final String AVERAGE_AGE_COLUMN = "average age";
+
+	private final File directory;
+	private final int recordsPerSegment;
+	private final int recordsPerCompactedSegment;
+
+	private Thread compaction;
+
+	/**
+	 * opens the history in a directory
+	 *
+	 * @param directory directory of the history
+	 * @throws FileNotFoundException
+	 */
+	public AuditHistory(File directory) throws FileNotFoundException {
+		this(directory, RECORDS_PER_SEGMENT, RECORDS_PER_COMPACTED_SEGMENT);
+	}
+
+	/**
+	 * opens the history in a directory with the given segment sizes
+	 *
+	 * @param directory                  directory of the history
+	 * @param recordsPerSegment          records after which a new segment is
+	 *                                   started
+	 * @param recordsPerCompactedSegment records of a merged segment
+	 * @throws FileNotFoundException
+	 */
+	AuditHistory(File directory, int recordsPerSegment, int recordsPerCompactedSegment)
+			throws FileNotFoundException {
+		if (!directory.isDirectory()) {
+			String exeptionMsg = "ERROR: could not open history. Target directory does not exist.";
+			throw new FileNotFoundException(exeptionMsg);
+		}
+		this.directory = directory;
+		this.recordsPerSegment = recordsPerSegment;
+		this.recordsPerCompactedSegment = recordsPerCompactedSegment;
+	}
+
+	/**
+	 * appends an audit to the history and starts a compaction in the background
+	 * when there are enough full segments to merge
+	 *
+	 * @param audit          audit to be stored
+	 * @param isSyncedToDisk if the record is forced to the disk
+	 * @throws IOException
+	 */
+	public void append(Audit audit, boolean isSyncedToDisk) throws IOException {
+		append(System.currentTimeMillis(), audit.getAuditType(), audit.getRuns(), audit.traits, isSyncedToDisk);
+	}
+
+	/**
+	 * appends an audit to the history. Only the record and the index entry of
+	 * the last segment are written
+	 *
+	 * @param timestamp      time the audit is stored in milliseconds
+	 * @param auditType      type of the audit
+	 * @param runs           number of runs of the audit
+	 * @param traits         traits of the audit
+	 * @param isSyncedToDisk if the record is forced to the disk
+	 * @throws IOException
+	 */
+	void append(long timestamp, String auditType, long runs, TraitAccumulator traits, boolean isSyncedToDisk)
+			throws IOException {
+		ByteBuffer record = ByteBuffer.wrap(encode(timestamp, auditType, runs, traits));
+		boolean isCompactable;
+		synchronized (this) {
+			FileLock lock = lock();
+			try {
+				ArrayList<Segment> segments = readIndex();
+				Segment last = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+				if (last == null || last.recordCount >= recordsPerSegment) {
+					last = new Segment(getNextSegmentId(segments), 0, 0, HEADER_SIZE, timestamp, timestamp);
+					segments.add(last);
+					createSegment(getSegmentFile(last.id));
+				}
+
+				try (FileChannel channel = FileChannel.open(getSegmentFile(last.id).toPath(),
+						StandardOpenOption.WRITE)) {
+					// bytes after the size in the index are left by an interrupted append
+					channel.truncate(last.size);
+					channel.position(last.size);
+					while (record.hasRemaining()) {
+						channel.write(record);
+					}
+					if (isSyncedToDisk) {
+						channel.force(false);
+					}
+					last.size = channel.position();
+				}
+
+				last.typeMask |= getTypeMask(auditType);
+				last.recordCount++;
+				last.firstTimestamp = Math.min(last.firstTimestamp, timestamp);
+				last.lastTimestamp = Math.max(last.lastTimestamp, timestamp);
+				writeIndexEntry(segments.size() - 1, last, isSyncedToDisk);
+				isCompactable = !findCompactableSegments(segments).isEmpty();
+			} finally {
+				unlock(lock);
+			}
+		}
+		if (isCompactable) {
+			compactInBackground();
+		}
+	}
+
+	/**
+	 * reads the audits of the history in the order they were stored
+	 *
+	 * @param auditType type of the audits, null for all types
+	 * @param from      first time of the audits in milliseconds
+	 * @param to        last time of the audits in milliseconds
+	 * @param last      max number of audits, counted from the latest one
+	 * @return audits matching the query
+	 * @throws IOException
+	 */
+	public List<Record> query(String auditType, long from, long to, long last) throws IOException {
+		ArrayList<Record> records = new ArrayList<Record>();
+		int typeMask = auditType == null ? -1 : getTypeMask(auditType);
+		synchronized (this) {
+			FileLock lock = lock();
+			try {
+				ArrayList<Segment> segments = readIndex();
+
+				// segments are read from the latest one, until they hold enough audits
+				ArrayList<ArrayList<Record>> segmentRecords = new ArrayList<ArrayList<Record>>();
+				long recordCount = 0;
+				for (int i = segments.size() - 1; i >= 0 && recordCount < last; i--) {
+					Segment segment = segments.get(i);
+					if (segment.isMatching(typeMask, from, to)) {
+						ArrayList<Record> matching = new ArrayList<Record>();
+						readSegment(getSegmentFile(segment.id), segment.size, auditType, from, to, matching);
+						segmentRecords.add(matching);
+						recordCount += matching.size();
+					}
+				}
+				for (int i = segmentRecords.size() - 1; i >= 0; i--) {
+					records.addAll(segmentRecords.get(i));
+				}
+			} finally {
+				unlock(lock);
+			}
+		}
+		int skipped = (int) Math.max(0, records.size() - last);
+		return new ArrayList<Record>(records.subList(skipped, records.size()));
+	}
+
+	/**
+	 * prints the survival ratios of the audits as a time series, one audit per
+	 * line and one column per trait
+	 *
+	 * @param records audits to be printed
+	 * @param traits  traits to be printed, empty for all the traits seen
+	 * @param out     stream to print to
+	 */
+	public static void printSeries(List<Record> records, List<String> traits, PrintStream out) {
+		ArrayList<String> columns = new ArrayList<String>(traits);
+		if (columns.isEmpty()) {
+			Map<String, Boolean> isSeen = new HashMap<String, Boolean>();
+			for (Record record : records) {
+				for (String trait : record.traits) {
+					if (isSeen.put(trait, Boolean.TRUE) == null) {
+						columns.add(trait);
+					}
+				}
+			}
+			columns.add(AVERAGE_AGE_COLUMN);
+		}
+
+		StringBuilder line = new StringBuilder("time,type,runs");
+		for (String column : columns) {
+			line.append(',').append(column);
+		}
+		out.println(line);
+		for (Record record : records) {
+			line.setLength(0);
+			line.append(Instant.ofEpochMilli(record.timestamp)).append(',').append(record.auditType).append(',')
+					.append(record.runs);
+			for (String column : columns) {
+				float value = column.equals(AVERAGE_AGE_COLUMN) ? record.getAverageAge()
+						: record.getSurvivalRatio(column);
+				line.append(',');
+				if (!Float.isNaN(value)) {
+					line.append(String.format("%.3f", value));
+				}
+			}
+			out.println(line);
+		}
+	}
+
+	/**
+	 * starts merging full segments on a background thread, unless a merge is
+	 * already running
+	 */
+	public synchronized void compactInBackground() {
+		if (compaction != null && compaction.isAlive()) {
+			return;
+		}
+		compaction = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					compact();
+				} catch (IOException e) {
+					System.out.println("WARNING: could not compact history. " + e.getLocalizedMessage());
+				}
+			}
+		}, "audit-history-compaction");
+		compaction.start();
+	}
+
+	/**
+	 * waits until the compaction running in the background is done
+	 *
+	 * @throws InterruptedException
+	 */
+	public void awaitCompaction() throws InterruptedException {
+		Thread running;
+		synchronized (this) {
+			running = compaction;
+		}
+		if (running != null) {
+			running.join();
+		}
+	}
+
+	/**
+	 * merges consecutive full segments into segments of about
+	 * {@link #RECORDS_PER_COMPACTED_SEGMENT} records. The records are copied
+	 * without holding the lock, only the swap of the index is done under the
+	 * lock, so appends and queries are not blocked by the copy
+	 *
+	 * @throws IOException
+	 */
+	public void compact() throws IOException {
+		ArrayList<Segment> segments;
+		synchronized (this) {
+			FileLock lock = lock();
+			try {
+				segments = readIndex();
+			} finally {
+				unlock(lock);
+			}
+		}
+
+		List<List<Segment>> groups = findCompactableSegments(segments);
+		File[] merged = new File[groups.size()];
+		for (int i = 0; i < groups.size(); i++) {
+			merged[i] = File.createTempFile(TEMP_FILE_PREFIX, TEMP_FILE_SUFFIX, directory);
+			createSegment(merged[i]);
+			try (FileChannel out = FileChannel.open(merged[i].toPath(), StandardOpenOption.WRITE)) {
+				out.position(HEADER_SIZE);
+				for (Segment segment : groups.get(i)) {
+					try (FileChannel in = FileChannel.open(getSegmentFile(segment.id).toPath(),
+							StandardOpenOption.READ)) {
+						for (long position = HEADER_SIZE; position < segment.size;) {
+							position += in.transferTo(position, segment.size - position, out);
+						}
+					}
+				}
+				out.force(false);
+			}
+		}
+
+		synchronized (this) {
+			FileLock lock = lock();
+			try {
+				ArrayList<Segment> current = readIndex();
+				ArrayList<File> replaced = new ArrayList<File>();
+				for (int i = 0; i < groups.size(); i++) {
+					List<Segment> group = groups.get(i);
+					int first = indexOf(current, group);
+					if (first < 0) {
+						// another process merged these segments in the meantime
+						Files.delete(merged[i].toPath());
+						continue;
+					}
+
+					Segment compacted = new Segment(getNextSegmentId(current), 0, 0, HEADER_SIZE, Long.MAX_VALUE,
+							Long.MIN_VALUE);
+					for (Segment segment : group) {
+						compacted.typeMask |= segment.typeMask;
+						compacted.recordCount += segment.recordCount;
+						compacted.size += segment.size - HEADER_SIZE;
+						compacted.firstTimestamp = Math.min(compacted.firstTimestamp, segment.firstTimestamp);
+						compacted.lastTimestamp = Math.max(compacted.lastTimestamp, segment.lastTimestamp);
+						replaced.add(getSegmentFile(segment.id));
+					}
+					Files.move(merged[i].toPath(), getSegmentFile(compacted.id).toPath(),
+							StandardCopyOption.REPLACE_EXISTING);
+					current.subList(first, first + group.size()).clear();
+					current.add(first, compacted);
+				}
+				writeIndex(current);
+				for (File file : replaced) {
+					Files.delete(file.toPath());
+				}
+			} finally {
+				unlock(lock);
+			}
+		}
+	}
+
+	/**
+	 * finds runs of consecutive full segments which together hold enough records
+	 * for a merged segment. The last segment is still being appended to and is
+	 * never merged
+	 *
+	 * @param segments entries of the index
+	 * @return groups of segments to be merged
+	 */
+	private List<List<Segment>> findCompactableSegments(List<Segment> segments) {
+		ArrayList<List<Segment>> groups = new ArrayList<List<Segment>>();
+		int first = 0;
+		long recordCount = 0;
+		for (int i = 0; i < segments.size() - 1; i++) {
+			Segment segment = segments.get(i);
+			if (segment.recordCount >= recordsPerCompactedSegment) {
+				first = i + 1;
+				recordCount = 0;
+				continue;
+			}
+			recordCount += segment.recordCount;
+			if (recordCount >= recordsPerCompactedSegment) {
+				if (i > first) {
+					groups.add(new ArrayList<Segment>(segments.subList(first, i + 1)));
+				}
+				first = i + 1;
+				recordCount = 0;
+			}
+		}
+		return groups;
+	}
+
+	/**
+	 * finds the position of a group of segments in the index
+	 *
+	 * @param segments entries of the index
+	 * @param group    consecutive segments
+	 * @return position of the first segment, -1 if the group is not in the index
+	 */
+	private static int indexOf(List<Segment> segments, List<Segment> group) {
+		for (int i = 0; i + group.size() <= segments.size(); i++) {
+			if (segments.get(i).id == group.get(0).id) {
+				for (int j = 1; j < group.size(); j++) {
+					if (segments.get(i + j).id != group.get(j).id) {
+						return -1;
+					}
+				}
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * gets the id for a new segment
+	 *
+	 * @param segments entries of the index
+	 * @return id larger than the ids of the index
+	 */
+	private static int getNextSegmentId(List<Segment> segments) {
+		int id = 0;
+		for (Segment segment : segments) {
+			id = Math.max(id, segment.id + 1);
+		}
+		return id;
+	}
+
+	/**
+	 * gets the bit of an audit type in the type mask of a segment. Types with
+	 * the same bit are told apart when the records are read
+	 *
+	 * @param auditType type of an audit
+	 * @return bit of the type
+	 */
+	private static int getTypeMask(String auditType) {
+		return 1 << (auditType.hashCode() & 31);
+	}
+
+	/**
+	 * gets the file of a segment
+	 *
+	 * @param id id of the segment
+	 * @return segment file
+	 */
+	private File getSegmentFile(int id) {
+		return new File(directory, String.format(SEGMENT_FILE_FORMAT, id));
+	}
+
+	/**
+	 * locks the file locked by every change and read of the history, so the
+	 * history can be shared by several processes
+	 *
+	 * @return lock of the lock file, released with {@link #unlock(FileLock)}
+	 * @throws IOException
+	 */
+	private FileLock lock() throws IOException {
+		FileChannel lockChannel = FileChannel.open(new File(directory, LOCK_FILE_NAME).toPath(),
+				StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+		try {
+			return lockChannel.lock();
+		} catch (IOException | RuntimeException e) {
+			lockChannel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * releases a lock of the lock file and closes its channel
+	 *
+	 * @param lock lock of the lock file
+	 * @throws IOException
+	 */
+	private void unlock(FileLock lock) throws IOException {
+		try {
+			lock.release();
+		} finally {
+			lock.channel().close();
+		}
+	}
+
+	/**
+	 * reads the entries of the index
+	 *
+	 * @return entries of the index, empty for a new history
+	 * @throws IOException
+	 */
+	private ArrayList<Segment> readIndex() throws IOException {
+		ArrayList<Segment> segments = new ArrayList<Segment>();
+		File file = new File(directory, INDEX_FILE_NAME);
+		if (file.length() < HEADER_SIZE) {
+			return segments;
+		}
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			long entries = (file.length() - HEADER_SIZE) / INDEX_ENTRY_SIZE;
+			readHeader(in, INDEX_MAGIC, file);
+			for (long i = 0; i < entries; i++) {
+				segments.add(new Segment(in.readInt(), in.readInt(), in.readLong(), in.readLong(), in.readLong(),
+						in.readLong()));
+			}
+		}
+		return segments;
+	}
+
+	/**
+	 * writes the entry of a segment in place
+	 *
+	 * @param position       position of the entry in the index
+	 * @param segment        entry of the segment
+	 * @param isSyncedToDisk if the entry is forced to the disk
+	 * @throws IOException
+	 */
+	private void writeIndexEntry(int position, Segment segment, boolean isSyncedToDisk) throws IOException {
+		try (FileChannel channel = FileChannel.open(new File(directory, INDEX_FILE_NAME).toPath(),
+				StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+			ByteBuffer entry = ByteBuffer.allocate(INDEX_ENTRY_SIZE);
+			putIndexEntry(entry, segment);
+			entry.flip();
+			if (channel.size() == 0) {
+				ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(INDEX_MAGIC).putInt(VERSION);
+				header.flip();
+				channel.write(header);
+			}
+			long offset = HEADER_SIZE + (long) position * INDEX_ENTRY_SIZE;
+			while (entry.hasRemaining()) {
+				offset += channel.write(entry, offset);
+			}
+			if (isSyncedToDisk) {
+				channel.force(false);
+			}
+		}
+	}
+
+	/**
+	 * replaces the index, so that readers see either the old or the new entries
+	 *
+	 * @param segments entries of the index
+	 * @throws IOException
+	 */
+	private void writeIndex(List<Segment> segments) throws IOException {
+		File temp = File.createTempFile(INDEX_FILE_NAME, TEMP_FILE_SUFFIX, directory);
+		ByteBuffer index = ByteBuffer.allocate(HEADER_SIZE + segments.size() * INDEX_ENTRY_SIZE);
+		index.putInt(INDEX_MAGIC).putInt(VERSION);
+		for (Segment segment : segments) {
+			putIndexEntry(index, segment);
+		}
+		index.flip();
+		try (FileChannel channel = FileChannel.open(temp.toPath(), StandardOpenOption.WRITE)) {
+			while (index.hasRemaining()) {
+				channel.write(index);
+			}
+			channel.force(false);
+		}
+		Files.move(temp.toPath(), new File(directory, INDEX_FILE_NAME).toPath(), StandardCopyOption.REPLACE_EXISTING,
+				StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * puts the entry of a segment in a buffer
+	 *
+	 * @param buffer  buffer of the index
+	 * @param segment entry of the segment
+	 */
+	private static void putIndexEntry(ByteBuffer buffer, Segment segment) {
+		buffer.putInt(segment.id).putInt(segment.typeMask).putLong(segment.recordCount).putLong(segment.size)
+				.putLong(segment.firstTimestamp).putLong(segment.lastTimestamp);
+	}
+
+	/**
+	 * creates an empty segment, replacing a file left by an interrupted
+	 * compaction
+	 *
+	 * @param file segment file
+	 * @throws IOException
+	 */
+	private static void createSegment(File file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(SEGMENT_MAGIC).putInt(VERSION);
+			header.flip();
+			while (header.hasRemaining()) {
+				channel.write(header);
+			}
+		}
+	}
+
+	/**
+	 * reads and checks the header of a history file
+	 *
+	 * @param in    stream of the file
+	 * @param magic expected magic number
+	 * @param file  file being read
+	 * @throws IOException
+	 */
+	private static void readHeader(DataInputStream in, int magic, File file) throws IOException {
+		if (in.readInt() != magic || in.readInt() != VERSION) {
+			throw new IOException("ERROR: " + file + " is not a valid history file.");
+		}
+	}
+
+	/**
+	 * encodes an audit as a record prefixed by its length
+	 *
+	 * @param timestamp time the audit is stored in milliseconds
+	 * @param auditType type of the audit
+	 * @param runs      number of runs of the audit
+	 * @param traits    traits of the audit
+	 * @return bytes of the record
+	 * @throws IOException
+	 */
+	private static byte[] encode(long timestamp, String auditType, long runs, TraitAccumulator traits)
+			throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream record = new DataOutputStream(bytes);
+		record.writeInt(0);
+		record.writeLong(timestamp);
+		record.writeUTF(auditType);
+		record.writeLong(runs);
+		record.writeLong(traits.getTotalAgeOfSurvivors());
+		record.writeLong(traits.getTotalSurvivors());
+		record.writeInt(traits.getTraitCount());
+		for (int i = 0; i < traits.getTraitCount(); i++) {
+			int ordinal = traits.getTraitAt(i);
+			record.writeUTF(traits.getName(ordinal));
+			record.writeLong(traits.getCountOfAllCharacters(ordinal));
+			record.writeLong(traits.getCountOfSafeCharacters(ordinal));
+		}
+		record.flush();
+		byte[] encoded = bytes.toByteArray();
+		ByteBuffer.wrap(encoded).putInt(encoded.length - Integer.BYTES);
+		return encoded;
+	}
+
+	/**
+	 * reads the records of a segment matching a query. Only the bytes written
+	 * before the last update of the index are read
+	 *
+	 * @param file      segment file
+	 * @param size      bytes of the segment holding its records
+	 * @param auditType type of the audits, null for all types
+	 * @param from      first time of the audits in milliseconds
+	 * @param to        last time of the audits in milliseconds
+	 * @param records   list the matching records are added to
+	 * @throws IOException
+	 */
+	private static void readSegment(File file, long size, String auditType, long from, long to,
+			List<Record> records) throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			readHeader(in, SEGMENT_MAGIC, file);
+			for (long position = HEADER_SIZE; position < size;) {
+				byte[] bytes = new byte[in.readInt()];
+				in.readFully(bytes);
+				position += Integer.BYTES + bytes.length;
+
+				DataInputStream record = new DataInputStream(new ByteArrayInputStream(bytes));
+				long timestamp = record.readLong();
+				String type = record.readUTF();
+				if (timestamp < from || timestamp > to || (auditType != null && !auditType.equals(type))) {
+					continue;
+				}
+				long runs = record.readLong();
+				long totalAgeOfSurvivors = record.readLong();
+				long totalSurvivors = record.readLong();
+				int traitCount = record.readInt();
+				String[] traits = new String[traitCount];
+				long[] countOfAllCharacters = new long[traitCount];
+				long[] countOfSafeCharacters = new long[traitCount];
+				for (int i = 0; i < traitCount; i++) {
+					traits[i] = record.readUTF();
+					countOfAllCharacters[i] = record.readLong();
+					countOfSafeCharacters[i] = record.readLong();
+				}
+				records.add(new Record(timestamp, type, runs, totalAgeOfSurvivors, totalSurvivors, traits,
+						countOfAllCharacters, countOfSafeCharacters));
+			}
+		}
+	}
+}
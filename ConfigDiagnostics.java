@@ -0,0 +1,201 @@
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.util.Arrays;
+
+/**
+ * Problems found while parsing a config file. Every problem is kept as a line,
+ * a column and a code in primitive arrays, so recording one costs no
+ * exception, no message and no console write. The problems are reported once
+ * parsing is done, either as the usual warnings or as a file with a summary of
+ * the counts
+ *
+ * @author Sharodh Keelamanakudi Ragupathi(1148618)
+ */
+public class ConfigDiagnostics {
+
+	public enum Code {
+		INVALID_DATA_FORMAT("WARNING: invalid data format in config file in line %d"),
+		INVALID_CHARACTERISTIC("WARNING: invalid characteristic in config file in line %d"),
+		INVALID_NUMBER_FORMAT("WARNING: invalid number format in config file in line %d");
+
+		private final String message;
+
+		/**
+		 * creates a code with the warning printed for it
+		 *
+		 * @param message warning with a placeholder for the line number
+		 */
+		Code(String message) {
+			this.message = message;
+		}
+
+		/**
+		 * gets the warning of a problem
+		 *
+		 * @param line line of the problem
+		 * @return warning
+		 */
+		public String getMessage(long line) {
+			return String.format(message, line);
+		}
+
+		/**
+		 * @return String representation of code in lower case
+		 */
+		@Override
+		public String toString() {
+			return this.name().toLowerCase();
+		}
+	}
+
+	/**
+	 * column of problems about a whole row
+	 */
+	public static final int ROW = 0;
+
+	static final String[] COLUMN_NAMES = { "row", "class", "gender", "age", "bodyType", "profession", "pregnant",
+			"isYou", "species", "isPet", "role" };
+
+	private static final Code[] CODES = Code.values();
+
+	private long[] lines = new long[16];
+	private byte[] columns = new byte[16];
+	private byte[] codes = new byte[16];
+	private int count = 0;
+
+	private final long[] groupCounts = new long[CODES.length * COLUMN_NAMES.length];
+
+	/**
+	 * records a problem
+	 *
+	 * @param line   line of the problem
+	 * @param column column of the problem, starting at 1, or {@link #ROW}
+	 * @param code   kind of problem
+	 */
+	public void add(long line, int column, Code code) {
+		if (count == lines.length) {
+			lines = Arrays.copyOf(lines, count * 2);
+			columns = Arrays.copyOf(columns, count * 2);
+			codes = Arrays.copyOf(codes, count * 2);
+		}
+		lines[count] = line;
+		columns[count] = (byte) column;
+		codes[count++] = (byte) code.ordinal();
+		groupCounts[code.ordinal() * COLUMN_NAMES.length + column]++;
+	}
+
+	/**
+	 * appends the problems of another config part which follows this one
+	 *
+	 * @param other      problems of the following part
+	 * @param lineOffset number of lines before the following part
+	 */
+	public void append(ConfigDiagnostics other, long lineOffset) {
+		for (int i = 0; i < other.count; i++) {
+			add(other.lines[i] + lineOffset, other.columns[i], CODES[other.codes[i]]);
+		}
+	}
+
+	/**
+	 * gets the number of problems
+	 *
+	 * @return number of problems
+	 */
+	public int getCount() {
+		return count;
+	}
+
+	/**
+	 * gets the number of problems of a kind in a column
+	 *
+	 * @param code   kind of problem
+	 * @param column column of the problems
+	 * @return number of problems
+	 */
+	public long getCount(Code code, int column) {
+		return groupCounts[code.ordinal() * COLUMN_NAMES.length + column];
+	}
+
+	/**
+	 * gets the line of a problem
+	 *
+	 * @param index position of the problem
+	 * @return line of the problem
+	 */
+	public long getLine(int index) {
+		return lines[index];
+	}
+
+	/**
+	 * gets the column of a problem
+	 *
+	 * @param index position of the problem
+	 * @return column of the problem
+	 */
+	public int getColumn(int index) {
+		return columns[index];
+	}
+
+	/**
+	 * gets the kind of a problem
+	 *
+	 * @param index position of the problem
+	 * @return kind of problem
+	 */
+	public Code getCode(int index) {
+		return CODES[codes[index]];
+	}
+
+	/**
+	 * prints a warning for every problem, in the order they were found
+	 *
+	 * @param out stream to print to
+	 */
+	public void printWarnings(PrintStream out) {
+		PrintWriter writer = new PrintWriter(new BufferedWriter(new OutputStreamWriter(out)));
+		for (int i = 0; i < count; i++) {
+			writer.println(getCode(i).getMessage(lines[i]));
+		}
+		writer.flush();
+	}
+
+	/**
+	 * prints the number of problems grouped by kind and column
+	 *
+	 * @param out  stream to print to
+	 * @param path file the problems were written to
+	 */
+	public void printSummary(PrintStream out, String path) {
+		if (count == 0) {
+			return;
+		}
+		out.println(String.format("WARNING: %d problems in config file, see %s", count, path));
+		for (Code code : CODES) {
+			for (int column = 0; column < COLUMN_NAMES.length; column++) {
+				long groupCount = getCount(code, column);
+				if (groupCount > 0) {
+					out.println(String.format("\t%-24s%-12s%d", code, COLUMN_NAMES[column], groupCount));
+				}
+			}
+		}
+	}
+
+	/**
+	 * writes every problem to a file as line, column and code
+	 *
+	 * @param path file to write to
+	 * @throws IOException
+	 */
+	public void write(String path) throws IOException {
+		try (PrintWriter writer = new PrintWriter(new BufferedWriter(new FileWriter(path)))) {
+			writer.println("line,column,code");
+			for (int i = 0; i < count; i++) {
+				writer.println(lines[i] + "," + COLUMN_NAMES[columns[i]] + "," + getCode(i));
+			}
+		}
+	}
+}
@@ -0,0 +1,801 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import ethicalengine.Animal;
+import ethicalengine.Animal.Species;
+import ethicalengine.Character;
+import ethicalengine.Character.BodyType;
+import ethicalengine.Character.Gender;
+import ethicalengine.Person;
+import ethicalengine.Person.Profession;
+import ethicalengine.Scenario;
+
+/**
+ * Parses config files into scenarios. The file is memory mapped and the bytes
+ * of every line are scanned in place, the fields are matched against the
+ * traits byte by byte, so no String or Map is built for a line. Files larger
+ * than a mapping are parsed in consecutive windows which always start at the
+ * beginning of a line
+ *
+ * @author Sharodh Keelamanakudi Ragupathi(1148618)
+ */
+public final class ConfigParser {
+
+	static final int DEFAULT_WINDOW_SIZE = 1 << 30;
+	static final int FIELD_COUNT = 10;
+	static final long MIN_CHUNK_SIZE = 8 << 20;
+	static final int CHUNKS_PER_WORKER = 4;
+	static final int SEARCH_WINDOW_SIZE = 1 << 16;
+	final long startingLineIndex = 2;
+
+	private static final Charset CHARSET = Charset.defaultCharset();
+
+	private static final byte[] SCENARIO = bytesOf("scenario");
+	private static final byte[] GREEN = bytesOf("green");
+	private static final byte[] PERSON = bytesOf("person");
+	private static final byte[] PASSENGER = bytesOf("passenger");
+	private static final byte[] PEDESTRIAN = bytesOf("pedestrian");
+	private static final byte[] TRUE = bytesOf("true");
+
+	private static final Gender[] GENDERS = Gender.values();
+	private static final BodyType[] BODY_TYPES = BodyType.values();
+	private static final Profession[] PROFESSIONS = Profession.values();
+	private static final Species[] SPECIES = Species.values();
+	private static final byte[][] GENDER_NAMES = namesOf(GENDERS);
+	private static final byte[][] BODY_TYPE_NAMES = namesOf(BODY_TYPES);
+	private static final byte[][] PROFESSION_NAMES = namesOf(PROFESSIONS);
+	private static final byte[][] SPECIES_NAMES = namesOf(SPECIES);
+
+	private final int[] fieldStarts = new int[FIELD_COUNT + 1];
+	private final int[] fieldEnds = new int[FIELD_COUNT + 1];
+
+	private final ArrayList<Scenario> scenarios = new ArrayList<Scenario>();
+	private final ArrayList<Character> pedestrians = new ArrayList<Character>();
+	private final ArrayList<Character> passengers = new ArrayList<Character>();
+	private Scenario scene;
+
+	private ByteBuffer buffer;
+	private boolean isHeader;
+	private long lineCount = 0;
+
+	private final ConfigDiagnostics diagnostics = new ConfigDiagnostics();
+
+	/**
+	 * creates a parser for a part of a config file
+	 *
+	 * @param hasHeader if the part starts with the header of the file
+	 */
+	private ConfigParser(boolean hasHeader) {
+		this.isHeader = hasHeader;
+	}
+
+	/**
+	 * parses a config file
+	 *
+	 * @param file config file
+	 * @return array of scenarios
+	 * @throws IOException
+	 */
+	public static Scenario[] parse(File file) throws IOException {
+		return parse(file, 1);
+	}
+
+	/**
+	 * parses a config file, splitting large files among worker threads, and
+	 * prints the warnings
+	 *
+	 * @param file        config file
+	 * @param parallelism number of worker threads
+	 * @return array of scenarios
+	 * @throws IOException
+	 */
+	public static Scenario[] parse(File file, int parallelism) throws IOException {
+		ConfigDiagnostics diagnostics = new ConfigDiagnostics();
+		Scenario[] scenarios = parse(file, parallelism, diagnostics);
+		diagnostics.printWarnings(System.out);
+		return scenarios;
+	}
+
+	/**
+	 * parses a config file, splitting large files among worker threads
+	 *
+	 * @param file        config file
+	 * @param parallelism number of worker threads
+	 * @param diagnostics collects the problems found in the file
+	 * @return array of scenarios
+	 * @throws IOException
+	 */
+	public static Scenario[] parse(File file, int parallelism, ConfigDiagnostics diagnostics) throws IOException {
+		return parse(file, parallelism, DEFAULT_WINDOW_SIZE, MIN_CHUNK_SIZE, diagnostics);
+	}
+
+	/**
+	 * parses a config file. The file is cut into chunks which start at a
+	 * scenario row, so that every chunk holds whole scenarios and can be parsed
+	 * on its own. The chunks are parsed in parallel and merged in file order,
+	 * shifting the line numbers of the problems by the lines of the chunks before
+	 *
+	 * @param file         config file
+	 * @param parallelism  number of worker threads
+	 * @param windowSize   maximum number of bytes mapped at a time
+	 * @param minChunkSize minimum number of bytes of a chunk
+	 * @param diagnostics  collects the problems found in the file
+	 * @return array of scenarios
+	 * @throws IOException
+	 */
+	static Scenario[] parse(File file, int parallelism, int windowSize, long minChunkSize,
+			ConfigDiagnostics diagnostics) throws IOException {
+		ConfigParser parser;
+		try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+				FileChannel channel = randomAccessFile.getChannel()) {
+			long[] chunks = getChunks(channel, parallelism, minChunkSize);
+			if (chunks.length == 2) {
+				parser = new ConfigParser(true);
+				parser.parseRange(channel, chunks[0], chunks[1], windowSize);
+			} else {
+				ForkJoinPool pool = new ForkJoinPool(parallelism);
+				try {
+					parser = pool.invoke(new ParseTask(channel, chunks, 0, chunks.length - 1, windowSize));
+				} catch (UncheckedIOException e) {
+					throw e.getCause();
+				} finally {
+					pool.shutdown();
+				}
+			}
+		}
+		diagnostics.append(parser.diagnostics, parser.startingLineIndex);
+		return parser.getScenarios();
+	}
+
+	/**
+	 * parses the content of a config file and prints the warnings
+	 *
+	 * @param content bytes of the config file, from position to limit
+	 * @return array of scenarios
+	 */
+	public static Scenario[] parse(ByteBuffer content) {
+		ConfigParser parser = new ConfigParser(true);
+		parser.parseLines(content, true);
+		ConfigDiagnostics diagnostics = new ConfigDiagnostics();
+		diagnostics.append(parser.diagnostics, parser.startingLineIndex);
+		diagnostics.printWarnings(System.out);
+		return parser.getScenarios();
+	}
+
+	/**
+	 * parses a range of a config file, mapping at most a window of bytes at a
+	 * time. The range ends at the end of a line
+	 *
+	 * @param channel    config file
+	 * @param from       position of the first byte
+	 * @param to         position after the last byte
+	 * @param windowSize maximum number of bytes mapped at a time
+	 * @throws IOException
+	 */
+	private void parseRange(FileChannel channel, long from, long to, int windowSize) throws IOException {
+		long position = from;
+		while (position < to) {
+			long length = Math.min(to - position, windowSize);
+			boolean isLastWindow = position + length == to;
+			int consumed = parseLines(channel.map(FileChannel.MapMode.READ_ONLY, position, length), isLastWindow);
+			if (consumed == 0) {
+				// a line does not fit in the window
+				if (windowSize == Integer.MAX_VALUE) {
+					throw new IOException("ERROR: a line of the config file is too long");
+				}
+				windowSize = (int) Math.min(2L * windowSize, Integer.MAX_VALUE);
+			}
+			position += consumed;
+		}
+	}
+
+	/**
+	 * cuts a config file into chunks. Every chunk but the first starts at a
+	 * scenario row, the first one holds the header and at least the first
+	 * scenario row
+	 *
+	 * @param channel      config file
+	 * @param parallelism  number of worker threads
+	 * @param minChunkSize minimum number of bytes of a chunk
+	 * @return start of every chunk followed by the size of the file
+	 * @throws IOException
+	 */
+	private static long[] getChunks(FileChannel channel, int parallelism, long minChunkSize) throws IOException {
+		long size = channel.size();
+		long chunkSize = Math.max(minChunkSize, size / ((long) parallelism * CHUNKS_PER_WORKER));
+		if (parallelism <= 1 || size <= chunkSize) {
+			return new long[] { 0, size };
+		}
+
+		long[] chunks = new long[(int) ((size + chunkSize - 1) / chunkSize) + 1];
+		int chunkCount = 1;
+		long firstScenarioRow = findScenarioRow(channel, 1, size);
+		for (long position = chunkSize; position < size; position += chunkSize) {
+			long chunk = findScenarioRow(channel, Math.max(position, firstScenarioRow + 1), size);
+			if (chunk > chunks[chunkCount - 1] && chunk < size) {
+				chunks[chunkCount++] = chunk;
+			}
+		}
+		chunks[chunkCount++] = size;
+		return Arrays.copyOf(chunks, chunkCount);
+	}
+
+	/**
+	 * finds the first scenario row which starts at or after a position
+	 *
+	 * @param channel config file
+	 * @param from    position to start searching at, after the first byte
+	 * @param size    size of the file
+	 * @return start of the scenario row, the size of the file if there is none
+	 * @throws IOException
+	 */
+	private static long findScenarioRow(FileChannel channel, long from, long size) throws IOException {
+		long candidate = from;
+		while (candidate < size) {
+			// map the byte before the candidate to tell if it starts a line
+			long position = candidate - 1;
+			int length = (int) Math.min(size - position, SEARCH_WINDOW_SIZE);
+			ByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+			int end = position + length == size ? length : length - SCENARIO.length - 1;
+			for (int i = 1; i < end; i++) {
+				if (isLineStart(window, i) && isScenarioRow(window, i)) {
+					return position + i;
+				}
+			}
+			candidate = position + end;
+		}
+		return size;
+	}
+
+	/**
+	 * checks if a position of a buffer is the start of a line
+	 *
+	 * @param window bytes of the file
+	 * @param i      position after the first byte of the buffer
+	 * @return if a line starts at the position
+	 */
+	private static boolean isLineStart(ByteBuffer window, int i) {
+		byte previous = window.get(i - 1);
+		return previous == '\n' || (previous == '\r' && (i == window.limit() || window.get(i) != '\n'));
+	}
+
+	/**
+	 * checks if a line starts with the scenario row type
+	 *
+	 * @param window bytes of the file
+	 * @param i      start of the line
+	 * @return if the line is a scenario row
+	 */
+	private static boolean isScenarioRow(ByteBuffer window, int i) {
+		int end = i + SCENARIO.length;
+		if (end > window.limit()) {
+			return false;
+		}
+		for (int j = 0; j < SCENARIO.length; j++) {
+			if (window.get(i + j) != SCENARIO[j]) {
+				return false;
+			}
+		}
+		if (end == window.limit()) {
+			return true;
+		}
+		byte next = window.get(end);
+		return next == ':' || next == ',' || next == '\n' || next == '\r';
+	}
+
+	/**
+	 * appends the scenarios and problems of the parser of the following chunk
+	 *
+	 * @param other parser of the following chunk
+	 */
+	private void merge(ConfigParser other) {
+		this.finishScene();
+		other.finishScene();
+		diagnostics.append(other.diagnostics, lineCount);
+		lineCount += other.lineCount;
+		scenarios.addAll(other.scenarios);
+	}
+
+	/**
+	 * gets the parsed scenarios
+	 *
+	 * @return array of scenarios
+	 */
+	private Scenario[] getScenarios() {
+		finishScene();
+		return scenarios.toArray(new Scenario[scenarios.size()]);
+	}
+
+	/**
+	 * parses the complete lines of a buffer. Lines end with a line feed, a
+	 * carriage return or a carriage return followed by a line feed, like the
+	 * lines of a BufferedReader
+	 *
+	 * @param content      bytes to be parsed, from position to limit
+	 * @param isEndOfInput if the last line ends with the buffer
+	 * @return number of bytes consumed by the complete lines
+	 */
+	private int parseLines(ByteBuffer content, boolean isEndOfInput) {
+		this.buffer = content;
+		int start = content.position();
+		int limit = content.limit();
+		int lineStart = start;
+		int i = start;
+		while (i < limit) {
+			byte b = content.get(i);
+			if (b != '\n' && b != '\r') {
+				i++;
+				continue;
+			}
+			int next = i + 1;
+			if (b == '\r') {
+				if (next == limit && !isEndOfInput) {
+					// the line feed may be in the next window
+					break;
+				}
+				if (next < limit && content.get(next) == '\n') {
+					next++;
+				}
+			}
+			parseLine(lineStart, i);
+			lineStart = next;
+			i = next;
+		}
+		if (isEndOfInput && lineStart < limit) {
+			parseLine(lineStart, limit);
+			lineStart = limit;
+		}
+		return lineStart - start;
+	}
+
+	/**
+	 * parses a line of the config file
+	 *
+	 * @param start position of the first byte of the line
+	 * @param end   position after the last byte of the line
+	 */
+	private void parseLine(int start, int end) {
+		if (isHeader) {
+			isHeader = false;
+			return;
+		}
+
+		int fieldCount = splitFields(start, end);
+
+		int rowTypeEnd = indexOf(':', fieldStarts[0], fieldEnds[0]);
+		if (equals(fieldStarts[0], rowTypeEnd, SCENARIO)) {
+			if (scene != null) {
+				addSceneToScenarios();
+			}
+			scene = new Scenario();
+			int legalityStart = rowTypeEnd + 1;
+			scene.setLegalCrossing(legalityStart <= fieldEnds[0]
+					&& equals(legalityStart, indexOf(':', legalityStart, fieldEnds[0]), GREEN));
+		} else if (fieldCount != FIELD_COUNT) {
+			warn(ConfigDiagnostics.ROW, ConfigDiagnostics.Code.INVALID_DATA_FORMAT);
+		} else {
+			addCharacter();
+		}
+		lineCount++;
+	}
+
+	/**
+	 * finds the fields of a line. At most one field more than expected is
+	 * recorded, which is enough to tell that the line has too many
+	 *
+	 * @param start position of the first byte of the line
+	 * @param end   position after the last byte of the line
+	 * @return number of fields
+	 */
+	private int splitFields(int start, int end) {
+		int fieldCount = 0;
+		int fieldStart = start;
+		for (int i = start; i < end; i++) {
+			if (buffer.get(i) == ',') {
+				if (fieldCount <= FIELD_COUNT) {
+					fieldStarts[fieldCount] = fieldStart;
+					fieldEnds[fieldCount] = i;
+				}
+				fieldCount++;
+				fieldStart = i + 1;
+			}
+		}
+		if (fieldCount <= FIELD_COUNT) {
+			fieldStarts[fieldCount] = fieldStart;
+			fieldEnds[fieldCount] = end;
+		}
+		return fieldCount + 1;
+	}
+
+	/**
+	 * creates the character of a line and adds it to the scene
+	 */
+	private void addCharacter() {
+		Character character = isField(0, PERSON) ? getPerson() : getAnimal();
+
+		EthicalEngine.Decision decision = getDecision(9);
+		boolean hasYou = !isEmpty(6);
+		if (decision == EthicalEngine.Decision.PASSENGERS) {
+			passengers.add(character);
+			if (hasYou) {
+				scene.setYouInCar(scene.hasYouInCar() ? true : getBoolean(6));
+			}
+		} else {
+			pedestrians.add(character);
+			if (hasYou) {
+				scene.setYouInLane(scene.hasYouInLane() ? true : getBoolean(6));
+			}
+		}
+	}
+
+	/**
+	 * gets a Person with the characteristics specified in the line
+	 *
+	 * @return Person object with specified traits
+	 */
+	private Person getPerson() {
+		Person person = new Person();
+		person.setBodyType(getEnum(3, BODY_TYPE_NAMES, BODY_TYPES, BodyType.UNSPECIFIED));
+		setBasicCharacteristics(person);
+
+		if (!isEmpty(4)) {
+			person.setProfession(getEnum(4, PROFESSION_NAMES, PROFESSIONS, Profession.UNKNOWN));
+		}
+
+		if (!isEmpty(5)) {
+			person.setPregnant(getBoolean(5));
+		}
+
+		if (!isEmpty(6)) {
+			person.setAsYou(getBoolean(6));
+		}
+
+		return person;
+	}
+
+	/**
+	 * gets a Animal with the characteristics specified in the line
+	 *
+	 * @return Animal object with specified traits
+	 */
+	private Animal getAnimal() {
+		Animal animal = new Animal();
+		setBasicCharacteristics(animal);
+
+		if (!isEmpty(7)) {
+			animal.setSpecies(getSpecies(7));
+		}
+
+		if (!isEmpty(8)) {
+			animal.setPet(getBoolean(8));
+		}
+
+		return animal;
+	}
+
+	/**
+	 * sets gender and age for a character
+	 *
+	 * @param character character for which the basic characteristics has to be
+	 *                  set
+	 */
+	private void setBasicCharacteristics(Character character) {
+		character.setGender(getEnum(1, GENDER_NAMES, GENDERS, Gender.UNKNOWN));
+		character.setAge(getAge(2));
+	}
+
+	/**
+	 * gets the decision of a field
+	 *
+	 * @param field index of the field
+	 * @return type of decision
+	 */
+	private EthicalEngine.Decision getDecision(int field) {
+		if (isField(field, PASSENGER)) {
+			return EthicalEngine.Decision.PASSENGERS;
+		} else if (isField(field, PEDESTRIAN)) {
+			return EthicalEngine.Decision.PEDESTRIANS;
+		}
+		warn(field + 1, ConfigDiagnostics.Code.INVALID_CHARACTERISTIC);
+		return EthicalEngine.Decision.PASSENGERS;
+	}
+
+	/**
+	 * gets the enum constant whose name matches a field
+	 *
+	 * @param field        index of the field
+	 * @param names        names of the constants
+	 * @param values       constants
+	 * @param defaultValue constant used when no name matches
+	 * @return matching constant
+	 */
+	private <T extends Enum<T>> T getEnum(int field, byte[][] names, T[] values, T defaultValue) {
+		for (int i = 0; i < names.length; i++) {
+			if (isField(field, names[i])) {
+				return values[i];
+			}
+		}
+		warn(field + 1, ConfigDiagnostics.Code.INVALID_CHARACTERISTIC);
+		return defaultValue;
+	}
+
+	/**
+	 * gets the age of a field with the rules of Integer.parseInt
+	 *
+	 * @param field index of the field
+	 * @return age, 0 when the field is not a number
+	 */
+	private int getAge(int field) {
+		int start = fieldStarts[field];
+		int end = fieldEnds[field];
+		boolean isNegative = false;
+		if (start < end && (buffer.get(start) == '-' || buffer.get(start) == '+')) {
+			isNegative = buffer.get(start) == '-';
+			start++;
+		}
+		long age = 0;
+		for (int i = start; i < end; i++) {
+			byte b = buffer.get(i);
+			if (b < 0) {
+				// Integer.parseInt also accepts digits outside of ASCII
+				return getAgeFromString(field);
+			}
+			if (b < '0' || b > '9' || age > Integer.MAX_VALUE + 1L) {
+				return invalidAge(field);
+			}
+			age = age * 10 + (b - '0');
+		}
+		if (start == end) {
+			return invalidAge(field);
+		}
+		age = isNegative ? -age : age;
+		return age < Integer.MIN_VALUE || age > Integer.MAX_VALUE ? invalidAge(field) : (int) age;
+	}
+
+	/**
+	 * gets the age of a field through Integer.parseInt
+	 *
+	 * @param field index of the field
+	 * @return age, 0 when the field is not a number
+	 */
+	private int getAgeFromString(int field) {
+		try {
+			return Integer.parseInt(getString(field));
+		} catch (NumberFormatException e) {
+			return invalidAge(field);
+		}
+	}
+
+	/**
+	 * records an invalid age
+	 *
+	 * @param field index of the field
+	 * @return default age
+	 */
+	private int invalidAge(int field) {
+		warn(field + 1, ConfigDiagnostics.Code.INVALID_NUMBER_FORMAT);
+		return 0;
+	}
+
+	/**
+	 * gets a boolean field with the rules of Boolean.parseBoolean
+	 *
+	 * @param field index of the field
+	 * @return if the field is true, ignoring case
+	 */
+	private boolean getBoolean(int field) {
+		int start = fieldStarts[field];
+		if (fieldEnds[field] - start != TRUE.length) {
+			return false;
+		}
+		for (int i = 0; i < TRUE.length; i++) {
+			if ((buffer.get(start + i) | 0x20) != TRUE[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * gets the species of a field. Known species share the name of the constant
+	 *
+	 * @param field index of the field
+	 * @return species
+	 */
+	private String getSpecies(int field) {
+		for (int i = 0; i < SPECIES_NAMES.length; i++) {
+			if (isField(field, SPECIES_NAMES[i])) {
+				return SPECIES[i].toString();
+			}
+		}
+		return getString(field);
+	}
+
+	/**
+	 * decodes a field
+	 *
+	 * @param field index of the field
+	 * @return content of the field
+	 */
+	private String getString(int field) {
+		byte[] bytes = new byte[fieldEnds[field] - fieldStarts[field]];
+		buffer.get(fieldStarts[field], bytes);
+		return new String(bytes, CHARSET);
+	}
+
+	/**
+	 * checks if a field is empty
+	 *
+	 * @param field index of the field
+	 * @return if the field has no content
+	 */
+	private boolean isEmpty(int field) {
+		return fieldStarts[field] == fieldEnds[field];
+	}
+
+	/**
+	 * checks if a field has the given content
+	 *
+	 * @param field index of the field
+	 * @param name  expected content
+	 * @return if the field matches
+	 */
+	private boolean isField(int field, byte[] name) {
+		return equals(fieldStarts[field], fieldEnds[field], name);
+	}
+
+	/**
+	 * checks if a range of the buffer has the given content
+	 *
+	 * @param start position of the first byte
+	 * @param end   position after the last byte
+	 * @param name  expected content
+	 * @return if the range matches
+	 */
+	private boolean equals(int start, int end, byte[] name) {
+		if (end - start != name.length) {
+			return false;
+		}
+		for (int i = 0; i < name.length; i++) {
+			if (buffer.get(start + i) != name[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * finds a byte in a range of the buffer
+	 *
+	 * @param b     byte to be found
+	 * @param start position of the first byte
+	 * @param end   position after the last byte
+	 * @return position of the byte, end if not found
+	 */
+	private int indexOf(char b, int start, int end) {
+		for (int i = start; i < end; i++) {
+			if (buffer.get(i) == b) {
+				return i;
+			}
+		}
+		return end;
+	}
+
+	/**
+	 * records a problem of the current line
+	 *
+	 * @param column column of the problem
+	 * @param code   kind of problem
+	 */
+	private void warn(int column, ConfigDiagnostics.Code code) {
+		diagnostics.add(lineCount, column, code);
+	}
+
+	/**
+	 * adds the scene being built to the scenarios
+	 */
+	private void finishScene() {
+		if (scene != null) {
+			addSceneToScenarios();
+			scene = null;
+		}
+	}
+
+	/**
+	 * Adds the scene to the scenarios by setting the passengers and pedestrians
+	 */
+	private void addSceneToScenarios() {
+		scene.setPassengers(passengers.toArray(new Character[passengers.size()]));
+		scene.setPedestrians(pedestrians.toArray(new Character[pedestrians.size()]));
+		passengers.clear();
+		pedestrians.clear();
+		scenarios.add(scene);
+	}
+
+	/**
+	 * encodes a token the same way the config file is decoded
+	 *
+	 * @param token token
+	 * @return bytes of the token
+	 */
+	private static byte[] bytesOf(String token) {
+		return token.getBytes(CHARSET);
+	}
+
+	/**
+	 * encodes the names of enum constants
+	 *
+	 * @param values enum constants
+	 * @return bytes of the names indexed by the ordinal of the constants
+	 */
+	private static byte[][] namesOf(Enum<?>[] values) {
+		byte[][] names = new byte[values.length][];
+		for (int i = 0; i < values.length; i++) {
+			names[i] = bytesOf(values[i].toString());
+		}
+		return names;
+	}
+
+	/**
+	 * Parses a range of chunks, splitting the range until a single chunk is left.
+	 * The parser of the left half takes over the scenarios and warnings of the
+	 * right half
+	 */
+	private static class ParseTask extends RecursiveTask<ConfigParser> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final FileChannel channel;
+		private final long[] chunks;
+		private final int from;
+		private final int to;
+		private final int windowSize;
+
+		/**
+		 * creates a task for the chunks from index from to index to (exclusive)
+		 *
+		 * @param channel    config file
+		 * @param chunks     start of every chunk followed by the size of the file
+		 * @param from       first chunk
+		 * @param to         end of the chunks (exclusive)
+		 * @param windowSize maximum number of bytes mapped at a time
+		 */
+		ParseTask(FileChannel channel, long[] chunks, int from, int to, int windowSize) {
+			this.channel = channel;
+			this.chunks = chunks;
+			this.from = from;
+			this.to = to;
+			this.windowSize = windowSize;
+		}
+
+		@Override
+		protected ConfigParser compute() {
+			if (to - from == 1) {
+				ConfigParser parser = new ConfigParser(from == 0);
+				try {
+					parser.parseRange(channel, chunks[from], chunks[to], windowSize);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+				return parser;
+			}
+			int middle = (from + to) >>> 1;
+			ParseTask left = new ParseTask(channel, chunks, from, middle, windowSize);
+			ParseTask right = new ParseTask(channel, chunks, middle, to, windowSize);
+			left.fork();
+			ConfigParser rightParser = right.compute();
+			ConfigParser leftParser = left.join();
+			leftParser.merge(rightParser);
+			return leftParser;
+		}
+	}
+}
@@ -0,0 +1,79 @@
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+import ethicalengine.Animal;
+import ethicalengine.Character;
+import ethicalengine.Character.TypeofCharacter;
+import ethicalengine.Person;
+import ethicalengine.Scenario;
+
+/**
+ * Writes scenarios in the config file format read by {@link ConfigParser}.
+ * The config format has no column for you in car and you in lane, they are
+ * derived from the isYou column when the file is parsed. A scenario with you on
+ * a side but no person marked as you on that side gets its first animal of
+ * that side marked instead, which sets the flag the same way
+ *
+ * @author Sharodh Keelamanakudi Ragupathi(1148618)
+ */
+public final class ConfigWriter {
+
+	static final String CONFIG_HEADER = "class,gender,age,bodyType,profession,pregnant,isYou,species,isPet,role";
+
+	private ConfigWriter() {
+	}
+
+	/**
+	 * writes scenarios to a config file
+	 *
+	 * @param scenarios scenarios to be written
+	 * @param file      config file
+	 * @throws IOException
+	 */
+	public static void write(Scenario[] scenarios, File file) throws IOException {
+		try (PrintWriter writer = new PrintWriter(new BufferedWriter(new FileWriter(file)))) {
+			writer.println(CONFIG_HEADER);
+			for (Scenario scenario : scenarios) {
+				writer.println("scenario:" + (scenario.isLegalCrossing() ? "green" : "red") + ",,,,,,,,,");
+				writeCharacters(writer, scenario.getPassengers(), "passenger", scenario.hasYouInCar());
+				writeCharacters(writer, scenario.getPedestrians(), "pedestrian", scenario.hasYouInLane());
+			}
+		}
+	}
+
+	/**
+	 * writes the characters of a side of a scenario
+	 *
+	 * @param writer     output of the config file
+	 * @param characters characters of the side
+	 * @param role       value of the role column
+	 * @param hasYou     if you is on this side
+	 */
+	private static void writeCharacters(PrintWriter writer, Character[] characters, String role, boolean hasYou) {
+		boolean isYouMarked = false;
+		for (Character character : characters) {
+			isYouMarked |= character.getTypeOfCharacter() == TypeofCharacter.PERSON && ((Person) character).isYou();
+		}
+
+		for (Character character : characters) {
+			StringBuilder line = new StringBuilder();
+			if (character.getTypeOfCharacter() == TypeofCharacter.PERSON) {
+				Person person = (Person) character;
+				line.append("person,").append(person.getGender()).append(',').append(person.getAge()).append(',')
+						.append(person.getBodyType()).append(',').append(person.getProfession()).append(',')
+						.append(person.isPregnant()).append(',').append(person.isYou()).append(",,,");
+			} else {
+				Animal animal = (Animal) character;
+				boolean isYou = hasYou && !isYouMarked;
+				isYouMarked |= isYou;
+				line.append("animal,").append(animal.getGender()).append(',').append(animal.getAge()).append(",,,,")
+						.append(isYou ? "true" : "").append(',').append(animal.getSpecies()).append(',')
+						.append(animal.isPet()).append(',');
+			}
+			writer.println(line.append(role));
+		}
+	}
+}
@@ -0,0 +1,157 @@
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import ethicalengine.ScenarioFingerprint;
+
+/**
+ * Bounded cache of the decisions of scenarios, keyed by their order
+ * insensitive fingerprint, which includes the scoring table they were decided
+ * with, so the decisions of another table are never returned. The cache is
+ * split into segments by the hash of the fingerprint, every segment is a least
+ * recently used map guarded by its own lock, so the workers of a parallel
+ * audit rarely wait on each other
+ *
+ * @author Sharodh Keelamanakudi Ragupathi(1148618)
+ */
+public class DecisionCache {
+
+	static final int MAX_SEGMENTS = 16;
+	static final int MIN_ENTRIES_PER_SEGMENT = 64;
+
+	private final Segment[] segments;
+	private final int capacity;
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+
+	/**
+	 * creates a cache
+	 *
+	 * @param capacity max number of decisions kept
+	 */
+	public DecisionCache(int capacity) {
+		int segmentCount = 1;
+		while (segmentCount < MAX_SEGMENTS && capacity / (segmentCount * 2) >= MIN_ENTRIES_PER_SEGMENT) {
+			segmentCount *= 2;
+		}
+		this.segments = new Segment[segmentCount];
+		for (int i = 0; i < segmentCount; i++) {
+			segments[i] = new Segment(capacity / segmentCount + (i < capacity % segmentCount ? 1 : 0));
+		}
+		this.capacity = capacity;
+	}
+
+	/**
+	 * gets the cached decision of a scenario
+	 *
+	 * @param fingerprint fingerprint of the scenario
+	 * @return decision, null if it is not cached
+	 */
+	public EthicalEngine.Decision get(ScenarioFingerprint fingerprint) {
+		Segment segment = segmentOf(fingerprint);
+		EthicalEngine.Decision decision;
+		synchronized (segment) {
+			decision = segment.get(fingerprint);
+		}
+		if (decision == null) {
+			misses.increment();
+		} else {
+			hits.increment();
+		}
+		return decision;
+	}
+
+	/**
+	 * caches the decision of a scenario, evicting the least recently used
+	 * decision of its segment when the segment is full. The fingerprint is
+	 * copied, so a reused fingerprint can be passed
+	 *
+	 * @param fingerprint fingerprint of the scenario
+	 * @param decision    decision of the scenario
+	 */
+	public void put(ScenarioFingerprint fingerprint, EthicalEngine.Decision decision) {
+		Segment segment = segmentOf(fingerprint);
+		ScenarioFingerprint key = fingerprint.copy();
+		synchronized (segment) {
+			segment.put(key, decision);
+		}
+	}
+
+	/**
+	 * gets the max number of decisions kept
+	 *
+	 * @return capacity of the cache
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * gets the number of decisions kept
+	 *
+	 * @return number of cached decisions
+	 */
+	public int size() {
+		int size = 0;
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				size += segment.size();
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * gets the number of lookups which found a decision
+	 *
+	 * @return number of hits
+	 */
+	public long getHits() {
+		return hits.sum();
+	}
+
+	/**
+	 * gets the number of lookups which found no decision
+	 *
+	 * @return number of misses
+	 */
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	/**
+	 * gets the segment holding a fingerprint
+	 *
+	 * @param fingerprint fingerprint of a scenario
+	 * @return segment of the fingerprint
+	 */
+	private Segment segmentOf(ScenarioFingerprint fingerprint) {
+		int hash = fingerprint.hashCode();
+		return segments[(hash ^ (hash >>> 16)) & (segments.length - 1)];
+	}
+
+	/**
+	 * Least recently used map of a part of the cache
+	 */
+	private static class Segment extends LinkedHashMap<ScenarioFingerprint, EthicalEngine.Decision> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int capacity;
+
+		/**
+		 * creates a segment
+		 *
+		 * @param capacity max number of decisions of the segment
+		 */
+		Segment(int capacity) {
+			super(16, 0.75f, true);
+			this.capacity = capacity;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<ScenarioFingerprint, EthicalEngine.Decision> eldest) {
+			return size() > capacity;
+		}
+	}
+}
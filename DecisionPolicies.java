@@ -0,0 +1,93 @@
+import ethicalengine.Scenario;
+import ethicalengine.SeedStream;
+
+/**
+ * Policies that can be compared in a multi-policy audit
+ *
+ * @author Sharodh Keelamanakudi Ragupathi(1148618)
+ */
+public final class DecisionPolicies {
+
+	static final String UTILITARIAN_NAME = "utilitarian";
+	static final String LEGALITY_NAME = "legality";
+	static final String RANDOM_NAME = "random";
+	static final long COIN_STREAM_INDEX = -1;
+
+	/**
+	 * saves the side with the higher importance, the decision of
+	 * {@link EthicalEngine#decide(Scenario)}
+	 */
+	public static final DecisionPolicy UTILITARIAN = new DecisionPolicy() {
+		@Override
+		public String getName() {
+			return UTILITARIAN_NAME;
+		}
+
+		@Override
+		public EthicalEngine.Decision decide(Scenario scenario, long index) {
+			return EthicalEngine.decide(scenario);
+		}
+	};
+
+	/**
+	 * saves the pedestrians when they cross legally and the passengers otherwise
+	 */
+	public static final DecisionPolicy LEGALITY = new DecisionPolicy() {
+		@Override
+		public String getName() {
+			return LEGALITY_NAME;
+		}
+
+		@Override
+		public EthicalEngine.Decision decide(Scenario scenario, long index) {
+			return scenario.isLegalCrossing() ? EthicalEngine.Decision.PEDESTRIANS : EthicalEngine.Decision.PASSENGERS;
+		}
+	};
+
+	private DecisionPolicies() {
+	}
+
+	/**
+	 * creates a baseline which tosses a coin for every scenario. The coin is
+	 * derived from the seed and the position of the scenario in the audit, so
+	 * the coins are independent of each other and a scenario gets the same
+	 * decision in every run with the seed and on any worker
+	 *
+	 * @param seed seed of the coin tosses
+	 * @return random policy
+	 */
+	public static DecisionPolicy random(long seed) {
+		// the coins have a stream of their own, the scenarios use the stream of the seed
+		SeedStream coins = new SeedStream(new SeedStream(seed).seedAt(COIN_STREAM_INDEX));
+		return new DecisionPolicy() {
+			@Override
+			public String getName() {
+				return RANDOM_NAME;
+			}
+
+			@Override
+			public EthicalEngine.Decision decide(Scenario scenario, long index) {
+				return coins.seedAt(index) < 0 ? EthicalEngine.Decision.PEDESTRIANS
+						: EthicalEngine.Decision.PASSENGERS;
+			}
+		};
+	}
+
+	/**
+	 * gets a policy by its name
+	 *
+	 * @param name name of the policy
+	 * @param seed seed of the random policy
+	 * @return policy, null if there is no policy with the name
+	 */
+	public static DecisionPolicy getPolicy(String name, long seed) {
+		if (name.equals(UTILITARIAN_NAME)) {
+			return UTILITARIAN;
+		} else if (name.equals(LEGALITY_NAME)) {
+			return LEGALITY;
+		} else if (name.equals(RANDOM_NAME)) {
+			return random(seed);
+		}
+		return null;
+	}
+}
@@ -0,0 +1,26 @@
+import ethicalengine.Scenario;
+
+/**
+ * Policy deciding whom to save in a scenario. Policies are shared by the
+ * workers of a parallel audit, so they must not keep state between decisions
+ *
+ * @author Sharodh Keelamanakudi Ragupathi(1148618)
+ */
+public interface DecisionPolicy {
+
+	/**
+	 * gets the name of the policy, used as the type of its audit
+	 *
+	 * @return name of the policy
+	 */
+	String getName();
+
+	/**
+	 * decides whom to save for a given scenario
+	 *
+	 * @param scenario gets the scenario for which decision has to be made
+	 * @param index    position of the scenario in the audit
+	 * @return Decision of whom to be saved
+	 */
+	EthicalEngine.Decision decide(Scenario scenario, long index);
+}
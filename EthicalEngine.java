@@ -1,22 +1,25 @@
+import ethicalengine.LiveScenario;
 import ethicalengine.Scenario;
+import ethicalengine.ScenarioBatch;
+import ethicalengine.ScenarioCorpus;
+import ethicalengine.ScenarioFingerprint;
+import ethicalengine.ScoringTable;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Scanner;
 
-import ethicalengine.Animal;
 import ethicalengine.Character;
-import ethicalengine.Character.BodyType;
-import ethicalengine.Character.Gender;
-import ethicalengine.Character.TypeofCharacter;
-import ethicalengine.Person;
-import ethicalengine.Person.Profession;
 
 /**
  * Runs Moral Machines in different modes. Stores the core logic for saving
@@ -27,7 +30,7 @@ import ethicalengine.Person.Profession;
 public class EthicalEngine {
 
 	enum FlagTypes {
-		INTERACTIVE, CONFIG, HELP, PATH, RESULTS;
+		INTERACTIVE, CONFIG, HELP, PATH, RESULTS, PARALLEL, RUNS, SEED, VECTOR, DIAGNOSTICS, FSYNC, HISTORY, FORMAT, CROWD, CACHE, POLICIES, WEIGHTS, EXACT, PRECISION;
 
 		@Override
 		public String toString() {
@@ -44,21 +47,57 @@ public class EthicalEngine {
 		}
 	}
 
-	final int IS_NOT_LEGAL_PENALTY = -2;
+	static final String VECTOR_MODULE_NAME = "jdk.incubator.vector";
+	static final String VECTOR_KERNEL_CLASS_NAME = "VectorDecideKernel";
+	static final String CONVERT_COMMAND = "convert";
+	static final String NO_INDEX_FLAG = "--no-index";
+	static final String HISTORY_COMMAND = "history";
+	static final String HISTORY_TYPE_FLAG = "--type";
+	static final String HISTORY_SINCE_FLAG = "--since";
+	static final String HISTORY_UNTIL_FLAG = "--until";
+	static final String HISTORY_LAST_FLAG = "--last";
+	static final String HISTORY_TRAIT_FLAG = "--trait";
+	static final String SWEEP_COMMAND = "sweep";
+	static final String SWEEP_GRID_FLAG = "--grid";
+	static final String SWEEP_VECTORS_FLAG = "--vectors";
+	static final String SWEEP_PARALLEL_FLAG = "-p";
 	final String WELCOME_FILE_NAME = "welcome.ascii";
-	final String DECIDE_STATS_FILE_NAME = "results.log";
-	final String USER_LOG_FILE_NAME = "user.log";
-	final int startingLineIndex = 2;
+	final String DECIDE_STATS_FILE_NAME = "results";
+	final String USER_LOG_FILE_NAME = "user";
 	final int DEFAULT_RUNS = 100;
+	final long MAX_ADAPTIVE_RUNS = 1000000000L;
 
-	static PrintWriter moralMachineWriter;
 	static BufferedReader moralMachinesBufferReader;
 
 	static final Scanner KEY_BOARD = new Scanner(System.in);
 
+	private static boolean isVectorKernelEnabled = false;
+	private static MethodHandle vectorKernel = null;
+
+	private static DecisionCache decisionCache = null;
+	private static final ThreadLocal<ScenarioFingerprint> FINGERPRINTS = new ThreadLocal<ScenarioFingerprint>() {
+		@Override
+		protected ScenarioFingerprint initialValue() {
+			return new ScenarioFingerprint();
+		}
+	};
+
 	private String resultsPath;
+	private String diagnosticsPath;
+	private AuditHistory history;
+	private ReportWriter.Format reportFormat;
 	private boolean isInteractive;
+	private boolean isExact;
 	private boolean userConsentForStoring;
+	private boolean isSyncedToDisk;
+	private int parallelism;
+	private long runs;
+	private boolean isRunsSet;
+	private int crowdSize;
+	private Long seed;
+	private String[] policyNames;
+	private double halfWidth;
+	private Map<String, Double> traitHalfWidths;
 
 	Audit audit;
 
@@ -68,7 +107,18 @@ public class EthicalEngine {
 	EthicalEngine() {
 		this.resultsPath = "";
 		this.isInteractive = false;
+		this.isExact = false;
 		this.userConsentForStoring = false;
+		this.isSyncedToDisk = false;
+		this.reportFormat = ReportWriter.Format.TEXT;
+		this.parallelism = 1;
+		this.runs = DEFAULT_RUNS;
+		this.isRunsSet = false;
+		this.crowdSize = 0;
+		this.seed = null;
+		this.policyNames = null;
+		this.halfWidth = Double.POSITIVE_INFINITY;
+		this.traitHalfWidths = null;
 	}
 
 	/**
@@ -79,6 +129,17 @@ public class EthicalEngine {
 	 * @return cumulative importance value of characters
 	 */
 	public int getImportance(Character[] characters) {
+		return sumImportance(characters);
+	}
+
+	/**
+	 * adds the importance value of the characters passed in
+	 * 
+	 * @param characters accepts array of characters for which importance has to be
+	 *                   found
+	 * @return cumulative importance value of characters
+	 */
+	private static int sumImportance(Character[] characters) {
 		int importance = 0;
 
 		for (Character character : characters) {
@@ -95,339 +156,163 @@ public class EthicalEngine {
 	 * @return Decision of whom to be saved
 	 */
 	public static Decision decide(Scenario scenario) {
-		EthicalEngine operator = new EthicalEngine();
-
-		int pedImportance = operator.getImportance(scenario.getPedestrians());
-		pedImportance += scenario.isLegalCrossing() ? 0
-				: (scenario.getPedestrianCount() * operator.IS_NOT_LEGAL_PENALTY);
-
-		int passengerImportance = operator.getImportance(scenario.getPassengers());
-
-		return pedImportance > passengerImportance ? Decision.PEDESTRIANS : Decision.PASSENGERS;
-	}
-
-	/**
-	 * checks if a scenario has valid number of elements
-	 * 
-	 * @param scenario   The line parts of scenario for which validity has to be
-	 *                   checked
-	 * @param lineNumber line number of the scenario from config file
-	 * @throws InvalidDataFormatException
-	 */
-	private void isValidScenario(String[] scenario, int lineNumber) throws InvalidDataFormatException {
-		if (scenario.length != 10) {
-			throw new InvalidDataFormatException(
-					String.format("WARNING: invalid data format in config file in line %d", lineNumber));
+		if (scenario instanceof LiveScenario) {
+			return decide((LiveScenario) scenario);
+		}
+		DecisionCache cache = decisionCache;
+		if (cache == null) {
+			return score(scenario);
 		}
+		// the fingerprint of the thread is reused, it is only copied by the cache on a miss
+		ScenarioFingerprint fingerprint = FINGERPRINTS.get().set(scenario);
+		Decision decision = cache.get(fingerprint);
+		if (decision == null) {
+			decision = score(scenario);
+			cache.put(fingerprint, decision);
+		}
+		return decision;
 	}
 
 	/**
-	 * gets the gender from raw string
+	 * decides whom to save for a given scenario from the importance of its
+	 * characters
 	 * 
-	 * @param _gender    String value of gender
-	 * @param lineNumber line number of the scenario from config file
-	 * @return type of gender
+	 * @param scenario gets the scenario for which decision has to be made
+	 * @return Decision of whom to be saved
 	 */
-	private Gender getGenderFromConfig(String _gender, int lineNumber) {
-		try {
-			for (Gender gender : Gender.values()) {
-				if (gender.toString().equals(_gender)) {
-					return gender;
-				}
-			}
-			throw new InvalidCharacteristicException(
-					String.format("WARNING: invalid characteristic in config file in line %d", lineNumber));
-		} catch (InvalidCharacteristicException e) {
-			System.out.println(e.getLocalizedMessage());
-			return Gender.UNKNOWN;
-		}
+	private static Decision score(Scenario scenario) {
+		return decide(sumImportance(scenario.getPedestrians()), scenario.getPedestrianCount(),
+				scenario.isLegalCrossing(), sumImportance(scenario.getPassengers()));
 	}
 
 	/**
-	 * @param age        Age in string
-	 * @param lineNumber line number of the scenario from config file
-	 * @return age in integer
-	 * @throws NumberFormatException
+	 * decides whom to save for a live scenario from the importance totals it
+	 * keeps, without visiting its characters
+	 * 
+	 * @param scenario gets the scenario for which decision has to be made
+	 * @return Decision of whom to be saved
 	 */
-	private int getAgeFromConfig(String age, int lineNumber) throws NumberFormatException {
-		try {
-			return Integer.parseInt(age);
-		} catch (NumberFormatException e) {
-			System.out.println(String.format("WARNING: invalid number format in config file in line %d", lineNumber));
-			return 0;
-		}
+	public static Decision decide(LiveScenario scenario) {
+		return decide(scenario.getPedestrianImportance(), scenario.getPedestrianCount(),
+				scenario.isLegalCrossing(), scenario.getPassengerImportance());
 	}
 
 	/**
-	 * gets the bodytype from raw string
+	 * decides whom to save from the importance of both sides
 	 * 
-	 * @param _bodyType  String value of bodytype
-	 * @param lineNumber line number of the scenario from config file
-	 * @return type of bodytype
+	 * @param pedImportance       total importance of the pedestrians
+	 * @param pedestrianCount     number of pedestrians
+	 * @param isLegalCrossing     legality of the scene
+	 * @param passengerImportance total importance of the passengers
+	 * @return Decision of whom to be saved
 	 */
-	private BodyType getBodytypeFromConfig(String _bodyType, int lineNumber) {
-		try {
-			for (BodyType bodyType : BodyType.values()) {
-				if (bodyType.toString().equals(_bodyType)) {
-					return bodyType;
-				}
-			}
-			throw new InvalidCharacteristicException(
-					String.format("WARNING: invalid characteristic in config file in line %d", lineNumber));
-		} catch (InvalidCharacteristicException e) {
-			System.out.println(e.getLocalizedMessage());
-			return BodyType.UNSPECIFIED;
-		}
+	private static Decision decide(int pedImportance, int pedestrianCount, boolean isLegalCrossing,
+			int passengerImportance) {
+		pedImportance += isLegalCrossing ? 0
+				: (pedestrianCount * ScoringTable.getActive().getIllegalCrossingPenalty());
+
+		return pedImportance > passengerImportance ? Decision.PEDESTRIANS : Decision.PASSENGERS;
 	}
 
 	/**
-	 * gets the profession from raw string
+	 * decides whom to save for every scenario of a batch
 	 * 
-	 * @param _profession String value of profession
-	 * @param lineNumber  line number of the scenario from config file
-	 * @return type of profession
+	 * @param batch scenarios for which decisions have to be made
+	 * @return ordinal of the Decision of every scenario
 	 */
-	private Profession getProfessionFromConfig(String _profession, int lineNumber) {
-		try {
-			for (Profession profession : Profession.values()) {
-				if (profession.toString().equals(_profession)) {
-					return profession;
-				}
+	public static byte[] decideAll(ScenarioBatch batch) {
+		if (isVectorKernelEnabled) {
+			try {
+				return (byte[]) vectorKernel.invokeExact(batch);
+			} catch (Throwable e) {
+				throw new IllegalStateException(e);
 			}
-			throw new InvalidCharacteristicException(
-					String.format("WARNING: invalid characteristic in config file in line %d", lineNumber));
-		} catch (InvalidCharacteristicException e) {
-			System.out.println(e.getLocalizedMessage());
-			return Profession.UNKNOWN;
 		}
-	}
 
-	/**
-	 * @param _decision  string value of decision
-	 * @param lineNumber line number of the scenario from config file
-	 * @return type of decision
-	 */
-	private Decision getDecisionFromConfig(String _decision, int lineNumber) {
-		try {
-			if (_decision.equals("passenger"))
-				return Decision.PASSENGERS;
-			else if (_decision.equals("pedestrian")) {
-				return Decision.PEDESTRIANS;
+		byte[] decisions = new byte[batch.getScenarioCount()];
+		int[] offsets = batch.getScenarioOffsets();
+		byte[] sides = batch.getSideColumn();
+		boolean[] isLegalCrossing = batch.getLegalCrossingColumn();
+		int illegalCrossingPenalty = ScoringTable.getActive().getIllegalCrossingPenalty();
+
+		for (int i = 0; i < decisions.length; i++) {
+			int pedImportance = 0;
+			int passengerImportance = 0;
+			int pedestrianCount = 0;
+			for (int c = offsets[i]; c < offsets[i + 1]; c++) {
+				int importance = batch.getImportance(c);
+				if (sides[c] == ScenarioBatch.SIDE_PEDESTRIAN) {
+					pedImportance += importance;
+					pedestrianCount++;
+				} else {
+					passengerImportance += importance;
+				}
 			}
-			throw new InvalidCharacteristicException(
-					String.format("WARNING: invalid characteristic in config file in line %d", lineNumber));
-		} catch (InvalidCharacteristicException e) {
-			System.out.println(e.getLocalizedMessage());
-			return Decision.PASSENGERS;
-		}
-	}
+			pedImportance += isLegalCrossing[i] ? 0 : pedestrianCount * illegalCrossingPenalty;
 
-	/**
-	 * sets bodytype, gender and age for a character
-	 * 
-	 * @param character     character for which the basic characteristics has to be
-	 *                      sent
-	 * @param linePartsInfo traits from the config file
-	 * @param lineNumber    line number of the scenario from config file
-	 */
-	private void setBasicCharacteristics(Character character, Map<String, String> linePartsInfo, int lineNumber) {
-		if (character.getTypeOfCharacter() == TypeofCharacter.PERSON) {
-			character.setBodyType(getBodytypeFromConfig(linePartsInfo.get("bodyType"), lineNumber));
-		}
-		character.setGender(getGenderFromConfig(linePartsInfo.get("gender"), lineNumber));
-		character.setAge(this.getAgeFromConfig(linePartsInfo.get("age"), lineNumber));
-	}
-
-	/**
-	 * Converts character arraylist to array
-	 * 
-	 * @param list Arraylist of characters
-	 * @return Character array
-	 */
-	private Character[] getCharacterArray(ArrayList<Character> list) {
-		Character[] characters = new Character[list.size()];
-		for (int i = 0; i < list.size(); i++) {
-			characters[i] = list.get(i);
+			decisions[i] = (byte) (pedImportance > passengerImportance ? Decision.PEDESTRIANS : Decision.PASSENGERS)
+					.ordinal();
 		}
-		return characters;
+		return decisions;
 	}
 
 	/**
-	 * Converts Scenario arraylist to array
+	 * checks if the Vector API module is present in this JVM
 	 * 
-	 * @param list Arraylist of scenarios
-	 * @return scenario array
+	 * @return if the vector kernel can be used
 	 */
-	private Scenario[] getScenarioArray(ArrayList<Scenario> list) {
-		Scenario[] scenarios = new Scenario[list.size()];
-		for (int i = 0; i < list.size(); i++) {
-			scenarios[i] = list.get(i);
-		}
-		return scenarios;
+	public static boolean isVectorKernelAvailable() {
+		return ModuleLayer.boot().findModule(VECTOR_MODULE_NAME).isPresent();
 	}
 
 	/**
-	 * gets a Person with the characteristics specified in configline
+	 * checks if decideAll uses the vector kernel
 	 * 
-	 * @param linePartsInfo traits from the config file
-	 * @param lineIndex     line number of the scenario from config file
-	 * @return Person object with specified traits
+	 * @return if the vector kernel is enabled
 	 */
-	private Person getPerson(Map<String, String> linePartsInfo, int lineIndex) {
-		Person person = new Person();
-		setBasicCharacteristics(person, linePartsInfo, lineIndex);
-
-		if (!linePartsInfo.get("profession").equals("")) {
-			person.setProfession(getProfessionFromConfig(linePartsInfo.get("profession"), lineIndex));
-		}
-
-		if (!linePartsInfo.get("pregnant").equals("")) {
-			person.setPregnant(Boolean.parseBoolean(linePartsInfo.get("pregnant")));
-		}
-
-		if (!linePartsInfo.get("isYou").equals("")) {
-			person.setAsYou(Boolean.parseBoolean(linePartsInfo.get("isYou")));
-		}
-
-		return person;
+	public static boolean isVectorKernelEnabled() {
+		return isVectorKernelEnabled;
 	}
 
 	/**
-	 * gets a Animal with the characteristics specified in configline
+	 * enables the vector kernel of decideAll. It stays disabled when the Vector
+	 * API module is not present, and the scalar kernel is used instead. The
+	 * kernel is compiled apart against the incubating module, so it is only
+	 * looked up once it is enabled
 	 * 
-	 * @param linePartsInfo traits from the config file
-	 * @param lineIndex     line number of the scenario from config file
-	 * @return Animal object with specified traits
+	 * @param enabled if the vector kernel should be used
+	 * @return if the vector kernel is enabled
 	 */
-	private Animal getAnimal(Map<String, String> linePartsInfo, int lineIndex) {
-		Animal animal = new Animal();
-		setBasicCharacteristics(animal, linePartsInfo, lineIndex);
-
-		if (!linePartsInfo.get("species").equals("")) {
-			animal.setSpecies(linePartsInfo.get("species"));
-		}
-
-		if (!linePartsInfo.get("isPet").equals("")) {
-			animal.setPet(Boolean.parseBoolean(linePartsInfo.get("isPet")));
+	public static synchronized boolean setVectorKernelEnabled(boolean enabled) {
+		if (enabled && vectorKernel == null && isVectorKernelAvailable()) {
+			try {
+				vectorKernel = MethodHandles.lookup().findStatic(Class.forName(VECTOR_KERNEL_CLASS_NAME), "decideAll",
+						MethodType.methodType(byte[].class, ScenarioBatch.class));
+			} catch (ReflectiveOperationException e) {
+				throw new IllegalStateException(e);
+			}
 		}
-
-		return animal;
+		isVectorKernelEnabled = enabled && vectorKernel != null;
+		return isVectorKernelEnabled;
 	}
 
 	/**
-	 * Adds the scene to the scenario arraylist by setting the passengers and
-	 * pesdestrians
+	 * gets the cache of the decisions of decide
 	 * 
-	 * @param scene       The scene which has to be added to scenarios
-	 * @param scenarios   The arraylist to which the scenes has to be added
-	 * @param pedestrians the pedestrians of the scene
-	 * @param passengers  the passengers of the scene
+	 * @return decision cache, null if decisions are not cached
 	 */
-	private void addSceneToScenarios(Scenario scene, ArrayList<Scenario> scenarios, ArrayList<Character> pedestrians,
-			ArrayList<Character> passengers) {
-		scene.setPassengers(getCharacterArray(passengers));
-		scene.setPedestrians(getCharacterArray(pedestrians));
-		passengers.clear();
-		pedestrians.clear();
-		scenarios.add(scene);
+	public static DecisionCache getDecisionCache() {
+		return decisionCache;
 	}
 
 	/**
-	 * gets a Map of different parts in a config line
+	 * sets the cache of the decisions of decide. Scenarios with the same
+	 * characters on each side, in any order, share a cached decision
 	 * 
-	 * @param line      Config line
-	 * @param lineIndex line number of the scenario from config file
-	 * @return traits Map<Attribute, Value> from the config file
-	 * @throws InvalidDataFormatException
+	 * @param cache decision cache, null to decide every scenario from scratch
 	 */
-	private Map<String, String> getMapOfLineParts(String line, int lineIndex) throws InvalidDataFormatException {
-		String[] lineParts = line.split(",", -1);
-		String[] rowTypeParts = lineParts[0].split(":", -1);
-
-		Map<String, String> lineData = new HashMap<String, String>();
-
-		if (rowTypeParts[0].equals("scenario")) {
-			lineData.put("rowType", rowTypeParts[0]);
-			lineData.put("legality", rowTypeParts[1]);
-			return lineData;
-		}
-
-		this.isValidScenario(lineParts, lineIndex);
-
-		lineData.put("rowType", lineParts[0]);
-		lineData.put("gender", lineParts[1]);
-		lineData.put("age", lineParts[2]);
-		lineData.put("bodyType", lineParts[3]);
-		lineData.put("profession", lineParts[4]);
-		lineData.put("pregnant", lineParts[5]);
-		lineData.put("isYou", lineParts[6]);
-		lineData.put("species", lineParts[7]);
-		lineData.put("isPet", lineParts[8]);
-		lineData.put("decision", lineParts[9]);
-
-		return lineData;
-	}
-
-	/**
-	 * Constructs a scenario array from various parts of a config file
-	 * 
-	 * @return array of scenarios
-	 * @throws IOException
-	 */
-	private Scenario[] readDataFromConfigUtil() throws IOException {
-
-		// Remove Headers
-		moralMachinesBufferReader.readLine();
-
-		// Set line number
-		int lineIndex = startingLineIndex;
-
-		// Create scene by reading the file
-		Scenario scene = null;
-		ArrayList<Scenario> scenarios = new ArrayList<Scenario>();
-		ArrayList<Character> pedestrians = new ArrayList<Character>();
-		ArrayList<Character> passengers = new ArrayList<Character>();
-
-		String line;
-		while ((line = moralMachinesBufferReader.readLine()) != null) {
-			try {
-				Map<String, String> linePartsInfo = getMapOfLineParts(line, lineIndex);
-
-				if (linePartsInfo.get("rowType").equals("scenario")) {
-					if (scene != null) {
-						addSceneToScenarios(scene, scenarios, pedestrians, passengers);
-					}
-					scene = new Scenario();
-					scene.setLegalCrossing(linePartsInfo.get("legality").equals("green") ? true : false);
-				} else {
-					Character character;
-					character = linePartsInfo.get("rowType").equals("person") ? getPerson(linePartsInfo, lineIndex)
-							: getAnimal(linePartsInfo, lineIndex);
-
-					Decision decision = getDecisionFromConfig(linePartsInfo.get("decision"), lineIndex);
-					if (decision == Decision.PASSENGERS) {
-						passengers.add(character);
-						if (!linePartsInfo.get("isYou").equals("")) {
-							scene.setYouInCar(
-									scene.hasYouInCar() ? true : Boolean.parseBoolean(linePartsInfo.get("isYou")));
-						}
-					} else {
-
-						pedestrians.add(character);
-						if (!linePartsInfo.get("isYou").equals("")) {
-							scene.setYouInLane(
-									scene.hasYouInLane() ? true : Boolean.parseBoolean(linePartsInfo.get("isYou")));
-						}
-					}
-
-				}
-			} catch (InvalidDataFormatException e) {
-				System.out.println(e.getLocalizedMessage());
-			}
-			lineIndex++;
-		}
-		addSceneToScenarios(scene, scenarios, pedestrians, passengers);
-		return getScenarioArray(scenarios);
+	public static void setDecisionCache(DecisionCache cache) {
+		decisionCache = cache;
 	}
 
 	/**
@@ -478,25 +363,209 @@ public class EthicalEngine {
 		} while (!validConsent);
 	}
 
+	/**
+	 * reads the scenarios of a config file or of a binary scenario corpus, and
+	 * reports the problems of a config file
+	 * 
+	 * @param file config file or scenario corpus
+	 * @return scenarios of the file
+	 * @throws IOException
+	 */
+	private Scenario[] readScenarios(File file) throws IOException {
+		if (ScenarioCorpus.isCorpus(file)) {
+			try (ScenarioCorpus corpus = ScenarioCorpus.open(file)) {
+				return corpus.readAll().toScenarios();
+			}
+		}
+
+		ConfigDiagnostics diagnostics = new ConfigDiagnostics();
+		Scenario[] scenarios = ConfigParser.parse(file, parallelism, diagnostics);
+		if (diagnosticsPath == null) {
+			diagnostics.printWarnings(System.out);
+		} else {
+			diagnostics.write(diagnosticsPath);
+			diagnostics.printSummary(System.out, diagnosticsPath);
+		}
+		return scenarios;
+	}
+
+	/**
+	 * converts a config file to a binary scenario corpus, or a corpus back to a
+	 * config file
+	 * 
+	 * @param args convert command, input path, output path and optionally the
+	 *             no index flag
+	 * @throws IOException
+	 */
+	private void convert(String[] args) throws IOException {
+		if (args.length < 3 || args.length > 4 || (args.length == 4 && !args[3].equals(NO_INDEX_FLAG))) {
+			printHelpMessage();
+			System.exit(0);
+		}
+		File input = new File(getPath(args[1]));
+		File output = new File(args[2]);
+
+		Scenario[] scenarios = readScenarios(input);
+		if (ScenarioCorpus.isCorpus(input)) {
+			ConfigWriter.write(scenarios, output);
+		} else {
+			ScenarioCorpus.write(ScenarioBatch.of(scenarios), output, args.length == 3);
+		}
+		System.out.println(String.format("Converted %d scenarios to %s", scenarios.length, output));
+	}
+
+	/**
+	 * prints the survival ratios of the stored audits as a time series
+	 * 
+	 * @param args history command, history directory and the query flags
+	 * @throws IOException
+	 * @throws InvalidInputException
+	 */
+	private void queryHistory(String[] args) throws IOException, InvalidInputException {
+		if (args.length < 2 || args.length % 2 != 0) {
+			printHelpMessage();
+			System.exit(0);
+		}
+		AuditHistory history = new AuditHistory(new File(args[1]));
+		String auditType = null;
+		long from = Long.MIN_VALUE;
+		long to = Long.MAX_VALUE;
+		long last = Long.MAX_VALUE;
+		ArrayList<String> traits = new ArrayList<String>();
+		for (int i = 2; i < args.length; i += 2) {
+			if (args[i].equals(HISTORY_TYPE_FLAG)) {
+				auditType = args[i + 1];
+			} else if (args[i].equals(HISTORY_SINCE_FLAG)) {
+				from = getTimestamp(args[i + 1]);
+			} else if (args[i].equals(HISTORY_UNTIL_FLAG)) {
+				to = getTimestamp(args[i + 1]);
+			} else if (args[i].equals(HISTORY_LAST_FLAG)) {
+				last = getLast(args[i + 1]);
+			} else if (args[i].equals(HISTORY_TRAIT_FLAG)) {
+				traits.add(args[i + 1]);
+			} else {
+				printHelpMessage();
+				System.exit(0);
+			}
+		}
+		AuditHistory.printSeries(history.query(auditType, from, to, last), traits, System.out);
+	}
+
+	/**
+	 * audits a corpus with a grid or a list of weight vectors and writes the
+	 * survival ratios of every vector to a CSV file. Without a grid or a list
+	 * the default weights are audited
+	 * 
+	 * @param args sweep command, input path, output path and the sweep flags
+	 * @throws IOException
+	 * @throws InvalidInputException
+	 */
+	private void sweep(String[] args) throws IOException, InvalidInputException {
+		if (args.length < 3 || args.length % 2 != 1) {
+			printHelpMessage();
+			System.exit(0);
+		}
+		File input = new File(getPath(args[1]));
+		File output = new File(args[2]);
+		ArrayList<String> ranges = new ArrayList<String>();
+		File vectorsFile = null;
+		int workers = Runtime.getRuntime().availableProcessors();
+		for (int i = 3; i < args.length; i += 2) {
+			if (args[i].equals(SWEEP_GRID_FLAG)) {
+				ranges.add(args[i + 1]);
+			} else if (args[i].equals(SWEEP_VECTORS_FLAG)) {
+				vectorsFile = new File(args[i + 1]);
+				if (!vectorsFile.isFile()) {
+					throw new FileNotFoundException("ERROR: could not find weight vectors file.");
+				}
+			} else if (args[i].equals(SWEEP_PARALLEL_FLAG)) {
+				setParallelism(args[i + 1]);
+				workers = parallelism;
+			} else {
+				printHelpMessage();
+				System.exit(0);
+			}
+		}
+
+		int[][] vectors;
+		try {
+			if (vectorsFile != null && !ranges.isEmpty()) {
+				throw new IllegalArgumentException("ERROR: sweep takes either a grid or a vectors file.");
+			} else if (vectorsFile != null) {
+				vectors = WeightSweep.readVectors(vectorsFile);
+			} else {
+				vectors = WeightSweep.grid(ranges);
+			}
+		} catch (IllegalArgumentException e) {
+			throw new InvalidInputException(e.getLocalizedMessage());
+		}
+		Scenario[] scenarios = readScenarios(input);
+		WeightSweep.run(scenarios, vectors, workers, output);
+		System.out.println(String.format("Swept %d weight vectors over %d scenarios to %s", vectors.length,
+				scenarios.length, output));
+	}
+
+	/**
+	 * gets the time of a history query
+	 * 
+	 * @param value time as an ISO-8601 instant
+	 * @return milliseconds since the epoch
+	 * @throws InvalidInputException
+	 */
+	private long getTimestamp(String value) throws InvalidInputException {
+		try {
+			return Instant.parse(value).toEpochMilli();
+		} catch (DateTimeParseException e) {
+			throw new InvalidInputException("ERROR: time must be an instant like 2020-01-31T12:00:00Z.");
+		}
+	}
+
+	/**
+	 * gets the number of latest audits of a history query
+	 * 
+	 * @param value number of audits as string
+	 * @return number of audits
+	 * @throws InvalidInputException
+	 */
+	private long getLast(String value) throws InvalidInputException {
+		long last;
+		try {
+			last = Long.parseLong(value);
+		} catch (NumberFormatException e) {
+			last = 0;
+		}
+		if (last < 1) {
+			throw new InvalidInputException("ERROR: number of audits must be a positive number.");
+		}
+		return last;
+	}
+
 	/**
 	 * Reads the data from config file
 	 * 
 	 * @param filepath the file path of the config file
 	 * @throws IOException
-	 * @throws Exception
+	 * @throws InterruptedException
 	 */
-	private void readDataFromConfig(String filepath) throws IOException {
+	private void readDataFromConfig(String filepath) throws IOException, InterruptedException {
 		File configFile = new File(filepath);
 		if (configFile.exists()) {
-			moralMachinesBufferReader = new BufferedReader(new FileReader(configFile));
-			audit = new Audit(readDataFromConfigUtil());
+			Scenario[] scenarios = readScenarios(configFile);
+			if (policyNames != null && !isInteractive) {
+				runPolicies(scenarios);
+				printDecisionCacheStatistic();
+				quitFromApp();
+			}
+			audit = new Audit(scenarios);
+			audit.setReportFormat(reportFormat);
 			if (isInteractive) {
 				this.audit.setIsInteractive(isInteractive);
 				printWelcomeScreen();
 				getUserConsent();
 			}
-			audit.run();
+			audit.runParallel(parallelism);
 			storeAndPrint();
+			printDecisionCacheStatistic();
 			quitFromApp();
 		} else {
 			String exeptionMsg = "ERROR: could not find config file.";
@@ -509,9 +578,12 @@ public class EthicalEngine {
 	 * 
 	 * @throws IOException
 	 */
-	private void quitFromApp() throws IOException {
+	private void quitFromApp() throws IOException, InterruptedException {
 		System.out.println("That's all. Press Enter to quit.");
 		System.in.read();
+		if (history != null) {
+			history.awaitCompaction();
+		}
 		System.exit(0);
 	}
 
@@ -520,10 +592,53 @@ public class EthicalEngine {
 	 * 
 	 */
 	public void runRandomScenarios() {
+		if (policyNames != null && !isInteractive) {
+			runPolicies(null);
+			printDecisionCacheStatistic();
+			return;
+		}
 		audit = new Audit();
+		audit.setReportFormat(reportFormat);
 		audit.setIsInteractive(isInteractive);
-		audit.run(DEFAULT_RUNS);
+		audit.setParallelism(parallelism);
+		audit.setCrowdSize(crowdSize);
+		if (seed != null) {
+			audit.setSeed(seed);
+		}
+		if (isExact) {
+			audit.runExact();
+		} else if (traitHalfWidths != null) {
+			audit.runAdaptive(isRunsSet ? runs : MAX_ADAPTIVE_RUNS, halfWidth, traitHalfWidths);
+		} else {
+			audit.run(runs);
+		}
 		storeAndPrint();
+		printDecisionCacheStatistic();
+	}
+
+	/**
+	 * audits every policy in a single pass over the scenarios, and stores and
+	 * prints the audit of each policy
+	 * 
+	 * @param scenarios scenarios of the config file, null for random scenarios
+	 */
+	private void runPolicies(Scenario[] scenarios) {
+		Audit[] audits = new Audit[policyNames.length];
+		for (int k = 0; k < audits.length; k++) {
+			audits[k] = scenarios == null ? new Audit() : new Audit(scenarios);
+			audits[k].setReportFormat(reportFormat);
+			audits[k].setParallelism(parallelism);
+			audits[k].setCrowdSize(crowdSize);
+			if (seed != null) {
+				audits[k].setSeed(seed);
+			}
+			audits[k].setPolicy(DecisionPolicies.getPolicy(policyNames[k], audits[0].getSeed()));
+		}
+		Audit.runTogether(audits, runs);
+		for (Audit policyAudit : audits) {
+			audit = policyAudit;
+			storeAndPrint();
+		}
 	}
 
 	/**
@@ -531,8 +646,30 @@ public class EthicalEngine {
 	 * 
 	 */
 	private void storeAndPrint() {
-		if (userConsentForStoring || !isInteractive)
-			audit.printToFile(this.resultsPath + (isInteractive ? USER_LOG_FILE_NAME : DECIDE_STATS_FILE_NAME));
+		audit.setSyncedToDisk(isSyncedToDisk);
+		if (userConsentForStoring || !isInteractive) {
+			// every format has a file of its own, named after its extension
+			audit.printToFile(this.resultsPath + (isInteractive ? USER_LOG_FILE_NAME : DECIDE_STATS_FILE_NAME) + "."
+					+ reportFormat.getExtension());
+			if (history != null) {
+				try {
+					history.append(audit, isSyncedToDisk);
+				} catch (IOException e) {
+					System.out.println(e.getLocalizedMessage());
+				}
+			}
+		}
+	}
+
+	/**
+	 * prints the hits and misses of the decision cache, if decisions are cached
+	 */
+	private void printDecisionCacheStatistic() {
+		if (decisionCache != null && !isInteractive) {
+			System.err.println(String.format("Decision cache: %d hits, %d misses, %d of %d entries used",
+					decisionCache.getHits(), decisionCache.getMisses(), decisionCache.size(),
+					decisionCache.getCapacity()));
+		}
 	}
 
 	/**
@@ -542,10 +679,35 @@ public class EthicalEngine {
 		System.out.println("Ethical Engine - COMP90041 - Final Project\n");
 		System.out.println("Usage: java EthicalEngine [arguments]\n");
 		System.out.println("Arguments:");
-		System.out.println(String.format("\t%-20sOptional: path to config file", "-c or --config"));
+		System.out.println(String.format("\t%-20sOptional: path to config file or binary corpus", "-c or --config"));
 		System.out.println(String.format("\t%-20sPrint Help (this message) and exit", "-h or --help"));
 		System.out.println(String.format("\t%-20sOptional: path to results log file", "-r or --results"));
 		System.out.println(String.format("\t%-20sOptional: launches interactive mode", "-i or --interactive"));
+		System.out.println(String.format("\t%-20sOptional: number of worker threads for parsing and auditing", "-p or --parallel"));
+		System.out.println(String.format("\t%-20sOptional: number of random scenarios to audit", "-n or --runs"));
+		System.out.println(String.format("\t%-20sOptional: seed of the random scenarios", "-s or --seed"));
+		System.out.println(String.format("\t%-20sOptional: decide config scenarios with the Vector API", "-v or --vector"));
+		System.out.println(String.format("\t%-20sOptional: path to write the config file warnings to", "-d or --diagnostics"));
+		System.out.println(String.format("\t%-20sOptional: sync the results log to disk after writing", "--fsync"));
+		System.out.println(String.format("\t%-20sOptional: directory of the audit history to store the audit in", "--history"));
+		System.out.println(String.format("\t%-20sOptional: format of the statistics, text, json or csv", "-f or --format"));
+		System.out.println(String.format("\t%-20sOptional: max number of pedestrians of the random scenarios", "--crowd"));
+		System.out.println(String.format("\t%-20sOptional: number of decisions to cache for repeated scenarios", "--cache"));
+		System.out.println(String.format("\t%-20sOptional: audit several policies in one pass, comma separated: %s, %s or %s",
+				"--policies", DecisionPolicies.UTILITARIAN_NAME, DecisionPolicies.LEGALITY_NAME,
+				DecisionPolicies.RANDOM_NAME));
+		System.out.println(String.format("\t%-20sOptional: weights file, or comma separated weights like pregnant=4", "-w or --weights"));
+		System.out.println(String.format("\t%-20sOptional: exact expected survival ratios of the random scenarios instead of runs", "--exact"));
+		System.out.println(String.format("\t%-20sOptional: run until the 95%% intervals are this narrow, like 0.01,president=0.02, -n caps the runs", "--precision"));
+		System.out.println("\nConvert a config file to a binary corpus, or a binary corpus to a config file:");
+		System.out.println(String.format("\tjava EthicalEngine %s <input> <output> [%s]", CONVERT_COMMAND, NO_INDEX_FLAG));
+		System.out.println("\nPrint the survival ratios of the audits in a history over time:");
+		System.out.println(String.format("\tjava EthicalEngine %s <directory> [%s <type>] [%s <time>] [%s <time>] [%s <n>] [%s <trait>]...",
+				HISTORY_COMMAND, HISTORY_TYPE_FLAG, HISTORY_SINCE_FLAG, HISTORY_UNTIL_FLAG, HISTORY_LAST_FLAG,
+				HISTORY_TRAIT_FLAG));
+		System.out.println("\nAudit a corpus with a grid or a file of weight vectors, like --grid pregnant=0:10:2:");
+		System.out.println(String.format("\tjava EthicalEngine %s <input> <output.csv> [%s <key=from:to[:step]>]... [%s <file>] [%s <n>]",
+				SWEEP_COMMAND, SWEEP_GRID_FLAG, SWEEP_VECTORS_FLAG, SWEEP_PARALLEL_FLAG));
 	}
 
 	/**
@@ -564,6 +726,34 @@ public class EthicalEngine {
 			type = FlagTypes.CONFIG;
 		} else if (flag.equals("-r") || flag.equals("--results")) {
 			type = FlagTypes.RESULTS;
+		} else if (flag.equals("-p") || flag.equals("--parallel")) {
+			type = FlagTypes.PARALLEL;
+		} else if (flag.equals("-n") || flag.equals("--runs")) {
+			type = FlagTypes.RUNS;
+		} else if (flag.equals("-s") || flag.equals("--seed")) {
+			type = FlagTypes.SEED;
+		} else if (flag.equals("-v") || flag.equals("--vector")) {
+			type = FlagTypes.VECTOR;
+		} else if (flag.equals("-d") || flag.equals("--diagnostics")) {
+			type = FlagTypes.DIAGNOSTICS;
+		} else if (flag.equals("--fsync")) {
+			type = FlagTypes.FSYNC;
+		} else if (flag.equals("--history")) {
+			type = FlagTypes.HISTORY;
+		} else if (flag.equals("-f") || flag.equals("--format")) {
+			type = FlagTypes.FORMAT;
+		} else if (flag.equals("--crowd")) {
+			type = FlagTypes.CROWD;
+		} else if (flag.equals("--cache")) {
+			type = FlagTypes.CACHE;
+		} else if (flag.equals("--policies")) {
+			type = FlagTypes.POLICIES;
+		} else if (flag.equals("-w") || flag.equals("--weights")) {
+			type = FlagTypes.WEIGHTS;
+		} else if (flag.equals("--exact")) {
+			type = FlagTypes.EXACT;
+		} else if (flag.equals("--precision")) {
+			type = FlagTypes.PRECISION;
 		}
 		return type;
 	}
@@ -600,6 +790,191 @@ public class EthicalEngine {
 		this.resultsPath = !file.isDirectory() ? "" : filepath;
 	}
 
+	/**
+	 * sets path of the diagnostics file
+	 * 
+	 * @param filepath the filepath for the config file warnings
+	 * @throws FileNotFoundException
+	 */
+	private void setDiagnosticsPath(String filepath) throws FileNotFoundException {
+		File directory = new File(filepath).getAbsoluteFile().getParentFile();
+		if (directory == null || !directory.isDirectory()) {
+			String exeptionMsg = "ERROR: could not write diagnostics. Target directory does not exist.";
+			throw new FileNotFoundException(exeptionMsg);
+		}
+		this.diagnosticsPath = filepath;
+	}
+
+	/**
+	 * sets the number of worker threads used for the audit
+	 * 
+	 * @param value number of workers as string
+	 * @throws InvalidInputException
+	 */
+	private void setParallelism(String value) throws InvalidInputException {
+		try {
+			this.parallelism = Integer.parseInt(value);
+		} catch (NumberFormatException e) {
+			this.parallelism = 0;
+		}
+		if (this.parallelism < 1) {
+			throw new InvalidInputException("ERROR: number of workers must be a positive number.");
+		}
+	}
+
+	/**
+	 * sets the number of random scenarios to audit
+	 * 
+	 * @param value number of runs as string
+	 * @throws InvalidInputException
+	 */
+	private void setRuns(String value) throws InvalidInputException {
+		try {
+			this.runs = Long.parseLong(value);
+		} catch (NumberFormatException e) {
+			this.runs = 0;
+		}
+		if (this.runs < 1) {
+			throw new InvalidInputException("ERROR: number of runs must be a positive number.");
+		}
+		this.isRunsSet = true;
+	}
+
+	/**
+	 * sets the max number of pedestrians of the random scenarios
+	 * 
+	 * @param value max number of pedestrians as string
+	 * @throws InvalidInputException
+	 */
+	private void setCrowdSize(String value) throws InvalidInputException {
+		try {
+			this.crowdSize = Integer.parseInt(value);
+		} catch (NumberFormatException e) {
+			this.crowdSize = 0;
+		}
+		if (this.crowdSize < 1 || this.crowdSize == Integer.MAX_VALUE) {
+			throw new InvalidInputException("ERROR: crowd size must be a positive number.");
+		}
+	}
+
+	/**
+	 * enables the decision cache
+	 * 
+	 * @param value number of decisions to cache as string
+	 * @throws InvalidInputException
+	 */
+	private void setCacheCapacity(String value) throws InvalidInputException {
+		int capacity;
+		try {
+			capacity = Integer.parseInt(value);
+		} catch (NumberFormatException e) {
+			capacity = 0;
+		}
+		if (capacity < 1) {
+			throw new InvalidInputException("ERROR: cache size must be a positive number.");
+		}
+		setDecisionCache(new DecisionCache(capacity));
+	}
+
+	/**
+	 * sets the weights of the decisions, from a properties file or from a list
+	 * of key=value pairs
+	 * 
+	 * @param value path of the weights file, or comma separated key=value pairs
+	 * @throws IOException
+	 * @throws InvalidInputException
+	 */
+	private void setWeights(String value) throws IOException, InvalidInputException {
+		File file = new File(value);
+		try {
+			if (file.isFile()) {
+				ScoringTable.setActive(ScoringTable.load(file));
+			} else if (value.indexOf('=') >= 0) {
+				ScoringTable.setActive(ScoringTable.parse(value));
+			} else {
+				throw new FileNotFoundException("ERROR: could not find weights file.");
+			}
+		} catch (IllegalArgumentException e) {
+			throw new InvalidInputException(e.getLocalizedMessage());
+		}
+	}
+
+	/**
+	 * sets the policies audited in a single pass
+	 * 
+	 * @param value comma separated names of the policies
+	 * @throws InvalidInputException
+	 */
+	private void setPolicyNames(String value) throws InvalidInputException {
+		this.policyNames = value.split(",");
+		for (String name : policyNames) {
+			if (DecisionPolicies.getPolicy(name, 0) == null) {
+				throw new InvalidInputException(String.format("ERROR: policies must be %s, %s or %s.",
+						DecisionPolicies.UTILITARIAN_NAME, DecisionPolicies.LEGALITY_NAME,
+						DecisionPolicies.RANDOM_NAME));
+			}
+		}
+	}
+
+	/**
+	 * sets the target half-width of the 95% intervals of an adaptive audit
+	 * 
+	 * @param value comma separated half-widths, a number for every trait and
+	 *              trait=number for a single trait, like 0.01,president=0.02
+	 * @throws InvalidInputException
+	 */
+	private void setPrecision(String value) throws InvalidInputException {
+		this.traitHalfWidths = new HashMap<String, Double>();
+		for (String target : value.split(",")) {
+			int separator = target.indexOf('=');
+			String trait = separator < 0 ? null : target.substring(0, separator).trim();
+			if (trait != null && TraitRegistry.ordinalOf(trait) < 0) {
+				throw new InvalidInputException(String.format("ERROR: unknown trait %s.", trait));
+			}
+			double targetHalfWidth;
+			try {
+				targetHalfWidth = Double.parseDouble(target.substring(separator + 1).trim());
+			} catch (NumberFormatException e) {
+				targetHalfWidth = 0;
+			}
+			if (!(targetHalfWidth > 0)) {
+				throw new InvalidInputException("ERROR: precision must be a positive number.");
+			}
+			if (trait == null) {
+				this.halfWidth = targetHalfWidth;
+			} else {
+				this.traitHalfWidths.put(trait, targetHalfWidth);
+			}
+		}
+	}
+
+	/**
+	 * sets the master seed of the random scenarios
+	 * 
+	 * @param value seed as string
+	 * @throws InvalidInputException
+	 */
+	private void setSeed(String value) throws InvalidInputException {
+		try {
+			this.seed = Long.parseLong(value);
+		} catch (NumberFormatException e) {
+			throw new InvalidInputException("ERROR: seed must be a number.");
+		}
+	}
+
+	/**
+	 * sets the format of the statistics
+	 * 
+	 * @param value name of the format
+	 * @throws InvalidInputException
+	 */
+	private void setReportFormat(String value) throws InvalidInputException {
+		this.reportFormat = ReportWriter.getFormat(value);
+		if (this.reportFormat == null) {
+			throw new InvalidInputException("ERROR: format must be text, json or csv.");
+		}
+	}
+
 	/**
 	 * runs the moral machine application based on the supplied flags
 	 * 
@@ -607,16 +982,43 @@ public class EthicalEngine {
 	 */
 	public void runMoralMachines(String[] args) {
 		try {
+			if (args.length > 0 && args[0].equals(CONVERT_COMMAND)) {
+				convert(args);
+				return;
+			}
+			if (args.length > 0 && args[0].equals(HISTORY_COMMAND)) {
+				queryHistory(args);
+				return;
+			}
+			if (args.length > 0 && args[0].equals(SWEEP_COMMAND)) {
+				sweep(args);
+				return;
+			}
+
 			int i = 0;
 			String configPath = "";
 
 			boolean printHelpMessage = false;
 			boolean shouldBeConfigPath = false;
 			boolean shouldBeResultPath = false;
+			boolean shouldBeParallelism = false;
+			boolean shouldBeRuns = false;
+			boolean shouldBeSeed = false;
+			boolean shouldBeDiagnosticsPath = false;
+			boolean shouldBeHistoryPath = false;
+			boolean shouldBeFormat = false;
+			boolean shouldBeCrowdSize = false;
+			boolean shouldBeCacheCapacity = false;
+			boolean shouldBePolicies = false;
+			boolean shouldBeWeights = false;
+			boolean shouldBePrecision = false;
 
 			while (i < args.length) {
 				FlagTypes type = classifyFlag(args[i]);
-				if (shouldBeConfigPath || shouldBeResultPath) {
+				if (shouldBeConfigPath || shouldBeResultPath || shouldBeParallelism || shouldBeRuns
+						|| shouldBeSeed || shouldBeDiagnosticsPath || shouldBeHistoryPath
+						|| shouldBeFormat || shouldBeCrowdSize || shouldBeCacheCapacity
+						|| shouldBePolicies || shouldBeWeights || shouldBePrecision) {
 					if (type == FlagTypes.PATH) {
 						if (shouldBeConfigPath) {
 							configPath = getPath(args[i]);
@@ -626,6 +1028,50 @@ public class EthicalEngine {
 							this.setResultsPath(args[i]);
 							shouldBeResultPath = false;
 						}
+						if (shouldBeParallelism) {
+							this.setParallelism(args[i]);
+							shouldBeParallelism = false;
+						}
+						if (shouldBeRuns) {
+							this.setRuns(args[i]);
+							shouldBeRuns = false;
+						}
+						if (shouldBeSeed) {
+							this.setSeed(args[i]);
+							shouldBeSeed = false;
+						}
+						if (shouldBeDiagnosticsPath) {
+							this.setDiagnosticsPath(args[i]);
+							shouldBeDiagnosticsPath = false;
+						}
+						if (shouldBeHistoryPath) {
+							this.history = new AuditHistory(new File(args[i]));
+							shouldBeHistoryPath = false;
+						}
+						if (shouldBeFormat) {
+							this.setReportFormat(args[i]);
+							shouldBeFormat = false;
+						}
+						if (shouldBeCrowdSize) {
+							this.setCrowdSize(args[i]);
+							shouldBeCrowdSize = false;
+						}
+						if (shouldBeCacheCapacity) {
+							this.setCacheCapacity(args[i]);
+							shouldBeCacheCapacity = false;
+						}
+						if (shouldBePolicies) {
+							this.setPolicyNames(args[i]);
+							shouldBePolicies = false;
+						}
+						if (shouldBeWeights) {
+							this.setWeights(args[i]);
+							shouldBeWeights = false;
+						}
+						if (shouldBePrecision) {
+							this.setPrecision(args[i]);
+							shouldBePrecision = false;
+						}
 					} else {
 						printHelpMessage();
 						System.exit(0);
@@ -644,16 +1090,84 @@ public class EthicalEngine {
 					printHelpMessage = true;
 				}
 
+				if (type == FlagTypes.FSYNC) {
+					this.isSyncedToDisk = true;
+				}
+
+				if (type == FlagTypes.EXACT) {
+					this.isExact = true;
+				}
+
+				if (type == FlagTypes.VECTOR && !setVectorKernelEnabled(true)) {
+					System.out.println(String.format(
+							"WARNING: module %s not found, using the scalar kernel. Run java with --add-modules %s",
+							VECTOR_MODULE_NAME, VECTOR_MODULE_NAME));
+				}
+
 				if (type == FlagTypes.RESULTS) {
 					shouldBeResultPath = true;
 				}
 
+				if (type == FlagTypes.PARALLEL) {
+					shouldBeParallelism = true;
+				}
+
+				if (type == FlagTypes.RUNS) {
+					shouldBeRuns = true;
+				}
+
+				if (type == FlagTypes.SEED) {
+					shouldBeSeed = true;
+				}
+
+				if (type == FlagTypes.DIAGNOSTICS) {
+					shouldBeDiagnosticsPath = true;
+				}
+
+				if (type == FlagTypes.HISTORY) {
+					shouldBeHistoryPath = true;
+				}
+
+				if (type == FlagTypes.FORMAT) {
+					shouldBeFormat = true;
+				}
+
+				if (type == FlagTypes.CROWD) {
+					shouldBeCrowdSize = true;
+				}
+
+				if (type == FlagTypes.CACHE) {
+					shouldBeCacheCapacity = true;
+				}
+
+				if (type == FlagTypes.POLICIES) {
+					shouldBePolicies = true;
+				}
+
+				if (type == FlagTypes.WEIGHTS) {
+					shouldBeWeights = true;
+				}
+
+				if (type == FlagTypes.PRECISION) {
+					shouldBePrecision = true;
+				}
+
 				i++;
 			}
 
 			if (printHelpMessage)
 				printHelpMessage();
 
+			if (isExact && (!configPath.isEmpty() || isInteractive || policyNames != null)) {
+				throw new InvalidInputException("ERROR: exact audits only run the default algorithm on random scenarios.");
+			}
+			if (isExact && isRunsSet) {
+				throw new InvalidInputException("ERROR: exact audits have no runs, -n cannot be set.");
+			}
+			if (traitHalfWidths != null && (!configPath.isEmpty() || isInteractive || policyNames != null || isExact)) {
+				throw new InvalidInputException("ERROR: adaptive audits only run the default algorithm on random scenarios.");
+			}
+
 			if (configPath != "") {
 				readDataFromConfig(configPath);
 			} else {
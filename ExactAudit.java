@@ -0,0 +1,467 @@
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+import ethicalengine.Animal;
+import ethicalengine.Animal.Species;
+import ethicalengine.Character;
+import ethicalengine.Character.BodyType;
+import ethicalengine.Character.Gender;
+import ethicalengine.Person;
+import ethicalengine.Person.AgeCategory;
+import ethicalengine.Person.Profession;
+import ethicalengine.Scenario;
+import ethicalengine.ScenarioGenerator;
+import ethicalengine.ScoringTable;
+
+/**
+ * Exact expected statistics of the default algorithm on the scenarios of a
+ * generator. A decision only depends on the total importance of each side, so
+ * instead of sampling scenarios the distribution of the total importance of a
+ * side is built by convolving the distributions of its characters, which are
+ * enumerated from every draw of the generator. The characters of a side are
+ * its person, who may be you, and characters that are a person or an animal
+ * with even odds. The saved count of a trait is the sum over the characters of
+ * the odds of having the trait times the odds of their side being saved given
+ * their importance, which only needs the distribution of the rest of the side.
+ * The survival ratios are the expected saved counts over the expected counts
+ * of all characters, the value a Monte Carlo audit converges to
+ *
+ * @author Sharodh Keelamanakudi Ragupathi(1148618)
+ */
+public class ExactAudit {
+
+	static final int MAX_CHARACTERS = 4096;
+	static final long COUNT_SCALE = 1L << 40;
+	static final int AGE_COLUMN = TraitRegistry.SIZE;
+	static final int SURVIVOR_COLUMN = TraitRegistry.SIZE + 1;
+	static final int COLUMNS = TraitRegistry.SIZE + 2;
+
+	private final int[] passengerCounts;
+	private final double[] passengerCountOdds;
+	private final int[] pedestrianCounts;
+	private final double[] pedestrianCountOdds;
+	private final int illegalCrossingPenalty;
+	private final Kind person;
+	private final Kind you;
+	private final Kind other;
+
+	private final double[] safe = new double[COLUMNS];
+	private final double[] all = new double[COLUMNS];
+
+	/**
+	 * enumerates the characters of a generator with the weights of the active
+	 * scoring table
+	 *
+	 * @param generator generator of the audited scenarios
+	 * @throws IllegalArgumentException if a side may have no character or more
+	 *                                  than {@link #MAX_CHARACTERS}
+	 */
+	ExactAudit(ScenarioGenerator generator) {
+		// the generator draws the passenger count from the pedestrian minimum
+		this.passengerCounts = getCounts(generator.getPedestrianCountMin(), generator.getPassengerCountMax());
+		this.pedestrianCounts = getCounts(generator.getPedestrianCountMin(), generator.getPedestrianCountMax());
+		this.passengerCountOdds = new double[passengerCounts.length];
+		Arrays.fill(passengerCountOdds, 1.0 / passengerCounts.length);
+		this.pedestrianCountOdds = new double[pedestrianCounts.length];
+		Arrays.fill(pedestrianCountOdds, 1.0 / pedestrianCounts.length);
+		this.illegalCrossingPenalty = ScoringTable.getActive().getIllegalCrossingPenalty();
+
+		ScenarioTraits traits = new ScenarioTraits();
+		this.person = new Kind();
+		this.you = new Kind();
+		this.other = new Kind();
+		addPersons(generator, traits, person, false, 1.0);
+		addPersons(generator, traits, you, true, 1.0);
+		addPersons(generator, traits, other, false, 0.5);
+		addAnimals(traits, other, 0.5);
+		person.compile();
+		you.compile();
+		other.compile();
+	}
+
+	/**
+	 * audits the scenarios of a generator and adds the expected counts to an
+	 * accumulator, in fixed point with {@link #COUNT_SCALE} as one
+	 *
+	 * @param generator generator of the audited scenarios
+	 * @param traits    accumulator of the audit
+	 * @throws IllegalArgumentException if a side may have no character or more
+	 *                                  than {@link #MAX_CHARACTERS}
+	 */
+	public static void accumulate(ScenarioGenerator generator, TraitAccumulator traits) {
+		ExactAudit audit = new ExactAudit(generator);
+		audit.run();
+		for (int ordinal = 0; ordinal < TraitRegistry.SIZE; ordinal++) {
+			if (audit.all[ordinal] > 0) {
+				traits.addTrait(ordinal, null, Math.round(audit.safe[ordinal] * COUNT_SCALE),
+						Math.round(audit.all[ordinal] * COUNT_SCALE));
+			}
+		}
+		traits.addSurvivors(Math.round(audit.safe[AGE_COLUMN] * COUNT_SCALE),
+				Math.round(audit.safe[SURVIVOR_COLUMN] * COUNT_SCALE));
+	}
+
+	/**
+	 * gets the counts of characters a side may have, the max count is exclusive
+	 * and a range without counts gives exactly the min, like in the generator
+	 *
+	 * @param min min count
+	 * @param max max count (exclusive)
+	 * @return every possible count
+	 */
+	private static int[] getCounts(int min, int max) {
+		int top = max > min ? max - 1 : min;
+		if (min < 1 || top > MAX_CHARACTERS) {
+			throw new IllegalArgumentException(
+					String.format("ERROR: exact audits need 1 to %d characters per side.", MAX_CHARACTERS));
+		}
+		int[] counts = new int[top - min + 1];
+		for (int i = 0; i < counts.length; i++) {
+			counts[i] = min + i;
+		}
+		return counts;
+	}
+
+	/**
+	 * adds every person the generator can draw, with the odds of the draw
+	 *
+	 * @param generator generator of the audited scenarios
+	 * @param traits    reused trait counter
+	 * @param kind      kind of character the persons are
+	 * @param isYou     if the persons are you
+	 * @param odds      odds of the kind being a person
+	 */
+	private static void addPersons(ScenarioGenerator generator, ScenarioTraits traits, Kind kind, boolean isYou,
+			double odds) {
+		Gender[] genders = Gender.values();
+		BodyType[] bodyTypes = BodyType.values();
+		// adults are never drawn with the unknown and none professions
+		Profession[] professions = Arrays.copyOf(Profession.values(), Profession.values().length - 2);
+		Profession[] none = { Profession.NONE };
+		for (int age = 0; age < generator.getMaxAge(); age++) {
+			Profession[] ageProfessions = Person.AgeCategoryUtil(age) == AgeCategory.ADULT ? professions : none;
+			for (Profession profession : ageProfessions) {
+				for (Gender gender : genders) {
+					for (BodyType bodyType : bodyTypes) {
+						double drawOdds = odds / generator.getMaxAge() / ageProfessions.length / genders.length
+								/ bodyTypes.length;
+						if (gender == Gender.FEMALE) {
+							for (int pregnant = 0; pregnant < 2; pregnant++) {
+								Person character = new Person(age, profession, gender, bodyType, pregnant == 1);
+								character.setAsYou(isYou);
+								kind.add(character, drawOdds / 2, traits);
+							}
+						} else {
+							Person character = new Person(age, profession, gender, bodyType, false);
+							character.setAsYou(isYou);
+							kind.add(character, drawOdds, traits);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * adds every animal the generator can draw, with the odds of the draw. The
+	 * age, gender and body type of an animal are neither scored nor counted, so
+	 * they are not enumerated
+	 *
+	 * @param traits reused trait counter
+	 * @param kind   kind of character the animals are
+	 * @param odds   odds of the kind being an animal
+	 */
+	private static void addAnimals(ScenarioTraits traits, Kind kind, double odds) {
+		Species[] species = Species.values();
+		for (Species animalSpecies : species) {
+			for (int pet = 0; pet < 2; pet++) {
+				Animal character = new Animal(0, Gender.UNKNOWN, BodyType.UNSPECIFIED, animalSpecies.toString(),
+						pet == 1);
+				kind.add(character, odds / species.length / 2, traits);
+			}
+		}
+	}
+
+	/**
+	 * decides every scenario shape and adds its expected counts. The pedestrian
+	 * sides are built one count after the other, each from the previous one
+	 */
+	private void run() {
+		Distribution[] passengerOthers = new Distribution[passengerCounts[passengerCounts.length - 1]];
+		passengerOthers[0] = Distribution.ONE;
+		for (int i = 1; i < passengerOthers.length; i++) {
+			passengerOthers[i] = passengerOthers[i - 1].convolve(other.distribution);
+		}
+
+		Distribution pedestrianOthers = Distribution.ONE;
+		Distribution previousOthers = null;
+		int builtCount = 1;
+		for (int m = 0; m < pedestrianCounts.length; m++) {
+			int pedestrianCount = pedestrianCounts[m];
+			for (; builtCount < pedestrianCount; builtCount++) {
+				previousOthers = pedestrianOthers;
+				pedestrianOthers = pedestrianOthers.convolve(other.distribution);
+			}
+			Side[] pedestrians = new Side[2];
+			for (int lane = 0; lane < 2; lane++) {
+				pedestrians[lane] = new Side(lane == 1 ? you : person, pedestrianCount, pedestrianOthers,
+						previousOthers);
+			}
+
+			for (int n = 0; n < passengerCounts.length; n++) {
+				int passengerCount = passengerCounts[n];
+				Distribution passengerPrevious = passengerCount > 1 ? passengerOthers[passengerCount - 2] : null;
+				Side[] passengers = new Side[2];
+				for (int car = 0; car < 2; car++) {
+					passengers[car] = new Side(car == 1 ? you : person, passengerCount,
+							passengerOthers[passengerCount - 1], passengerPrevious);
+				}
+				double countOdds = passengerCountOdds[n] * pedestrianCountOdds[m];
+				for (int isLegal = 0; isLegal < 2; isLegal++) {
+					// you are in the car with even odds, and in the lane with even odds otherwise
+					addShape(passengers[1], pedestrians[0], true, false, isLegal == 1, countOdds / 4);
+					addShape(passengers[0], pedestrians[1], false, true, isLegal == 1, countOdds / 8);
+					addShape(passengers[0], pedestrians[0], false, false, isLegal == 1, countOdds / 8);
+				}
+			}
+		}
+	}
+
+	/**
+	 * decides a scenario shape and adds its expected counts
+	 *
+	 * @param passengers      side of the passengers
+	 * @param pedestrians     side of the pedestrians
+	 * @param isYouInCar      if you are a passenger
+	 * @param isYouInLane     if you are a pedestrian
+	 * @param isLegalCrossing legality of the crossing
+	 * @param odds            odds of the shape
+	 */
+	private void addShape(Side passengers, Side pedestrians, boolean isYouInCar, boolean isYouInLane,
+			boolean isLegalCrossing, double odds) {
+		int penalty = isLegalCrossing ? 0 : pedestrians.count * illegalCrossingPenalty;
+		// the pedestrians are saved when their importance with the penalty is
+		// higher than the importance of the passengers
+		double pedestrianSafeOdds = Distribution.atMost(passengers.total, pedestrians.total, penalty - 1);
+		double passengerSafeOdds = 1 - pedestrianSafeOdds;
+
+		passengers.addCounts(odds, pedestrians.total, -penalty);
+		pedestrians.addCounts(odds, passengers.total, penalty - 1);
+
+		if (isYouInCar || isYouInLane) {
+			all[TraitRegistry.YOU] += odds;
+			safe[TraitRegistry.YOU] += odds * (isYouInCar ? passengerSafeOdds : pedestrianSafeOdds);
+		}
+		int legality = isLegalCrossing ? TraitRegistry.GREEN : TraitRegistry.RED;
+		all[legality] += odds * (passengers.count + pedestrians.count);
+		safe[legality] += odds * (passengers.count * passengerSafeOdds + pedestrians.count * pedestrianSafeOdds);
+	}
+
+	/**
+	 * Characters of a side with a given count: its person and the other
+	 * characters, the distribution of the total importance of the side and of
+	 * the rest of the side without one of its characters
+	 */
+	private class Side {
+
+		private final Kind first;
+		private final int count;
+		private final Distribution others;
+		private final Distribution othersButOne;
+		private final Distribution total;
+
+		/**
+		 * creates a side
+		 *
+		 * @param first        kind of the person of the side
+		 * @param count        number of characters
+		 * @param others       distribution of the importance of the other
+		 *                     characters
+		 * @param othersButOne distribution of the importance of the other
+		 *                     characters but one, null without other characters
+		 */
+		Side(Kind first, int count, Distribution others, Distribution othersButOne) {
+			this.first = first;
+			this.count = count;
+			this.others = others;
+			this.othersButOne = othersButOne == null ? null : othersButOne.convolve(first.distribution);
+			this.total = others.convolve(first.distribution);
+		}
+
+		/**
+		 * adds the expected counts of the characters of the side. The side is saved
+		 * when the total of the opposite side is at most its own total plus a
+		 * shift, which is minus the penalty for the passengers and the penalty
+		 * minus one for the pedestrians
+		 *
+		 * @param odds     odds of the scenario shape
+		 * @param opposite distribution of the total of the opposite side
+		 * @param shift    shift of the total of the side
+		 */
+		void addCounts(double odds, Distribution opposite, int shift) {
+			addKind(first, odds, others, opposite, shift);
+			if (othersButOne != null) {
+				addKind(other, odds * (count - 1), othersButOne, opposite, shift);
+			}
+		}
+
+		/**
+		 * adds the expected counts of a character of a kind
+		 *
+		 * @param kind         kind of the character
+		 * @param odds         odds of the shape times the number of characters of
+		 *                     the kind
+		 * @param rest         distribution of the importance of the rest of the
+		 *                     side
+		 * @param opposite     distribution of the total of the opposite side
+		 * @param shift        shift of the total of the side
+		 */
+		private void addKind(Kind kind, double odds, Distribution rest, Distribution opposite, int shift) {
+			for (int v = 0; v < kind.columns.length; v++) {
+				double[] columns = kind.columns[v];
+				if (columns == null) {
+					continue;
+				}
+				double savedOdds = Distribution.atMost(opposite, rest, kind.distribution.offset + v + shift);
+				for (int column = 0; column < COLUMNS; column++) {
+					all[column] += odds * columns[column];
+					safe[column] += odds * columns[column] * savedOdds;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Characters of one kind, with the odds of every importance and the expected
+	 * counts of the traits of the characters of every importance
+	 */
+	private static class Kind {
+
+		private final TreeMap<Integer, double[]> byImportance = new TreeMap<Integer, double[]>();
+		private Distribution distribution;
+		private double[][] columns;
+
+		/**
+		 * adds a character the kind can be
+		 *
+		 * @param character character
+		 * @param odds      odds of the character
+		 * @param traits    reused trait counter
+		 */
+		void add(Character character, double odds, ScenarioTraits traits) {
+			int importance = character.computeImportance();
+			double[] counts = byImportance.get(importance);
+			if (counts == null) {
+				counts = new double[COLUMNS + 1];
+				byImportance.put(importance, counts);
+			}
+			traits.extract(new Scenario(new Character[] { character }, new Character[0], true));
+			for (int slot = 0; slot < traits.size(); slot++) {
+				counts[traits.getOrdinal(slot)] += odds * traits.getPassengerCount(slot);
+			}
+			counts[AGE_COLUMN] += odds * traits.getTotalAge(true);
+			counts[SURVIVOR_COLUMN] += odds * traits.getPersonCount(true);
+			counts[COLUMNS] += odds;
+		}
+
+		/**
+		 * builds the distribution of the importance once every character was added
+		 */
+		void compile() {
+			int min = byImportance.firstKey();
+			int max = byImportance.lastKey();
+			double[] odds = new double[max - min + 1];
+			columns = new double[odds.length][];
+			for (Map.Entry<Integer, double[]> entry : byImportance.entrySet()) {
+				odds[entry.getKey() - min] = entry.getValue()[COLUMNS];
+				columns[entry.getKey() - min] = Arrays.copyOf(entry.getValue(), COLUMNS);
+			}
+			distribution = new Distribution(min, odds);
+		}
+	}
+
+	/**
+	 * Distribution of an integer importance, the odds of every value from the
+	 * offset on
+	 */
+	private static class Distribution {
+
+		static final Distribution ONE = new Distribution(0, new double[] { 1 });
+
+		private final int offset;
+		private final double[] odds;
+		private final double[] cumulativeOdds;
+
+		/**
+		 * creates a distribution
+		 *
+		 * @param offset lowest value
+		 * @param odds   odds of every value from the lowest one
+		 */
+		Distribution(int offset, double[] odds) {
+			this.offset = offset;
+			this.odds = odds;
+			this.cumulativeOdds = new double[odds.length];
+			double sum = 0;
+			for (int i = 0; i < odds.length; i++) {
+				sum += odds[i];
+				cumulativeOdds[i] = sum;
+			}
+		}
+
+		/**
+		 * gets the distribution of the sum of a value of this distribution and of
+		 * another one
+		 *
+		 * @param other distribution of the other value
+		 * @return distribution of the sum
+		 */
+		Distribution convolve(Distribution other) {
+			double[] sum = new double[odds.length + other.odds.length - 1];
+			for (int j = 0; j < other.odds.length; j++) {
+				if (other.odds[j] == 0) {
+					continue;
+				}
+				for (int i = 0; i < odds.length; i++) {
+					sum[i + j] += odds[i] * other.odds[j];
+				}
+			}
+			return new Distribution(offset + other.offset, sum);
+		}
+
+		/**
+		 * gets the odds of a value of a distribution being at most a value of
+		 * another one plus a shift. The sum runs over the shorter distribution
+		 *
+		 * @param lower distribution of the value expected to be lower
+		 * @param upper distribution of the other value
+		 * @param shift shift added to the other value
+		 * @return odds of lower &lt;= upper + shift
+		 */
+		static double atMost(Distribution lower, Distribution upper, int shift) {
+			double odds = 0;
+			if (upper.odds.length <= lower.odds.length) {
+				for (int i = 0; i < upper.odds.length; i++) {
+					odds += upper.odds[i] * lower.cumulative(upper.offset + i + shift);
+				}
+			} else {
+				for (int i = 0; i < lower.odds.length; i++) {
+					odds += lower.odds[i] * (1 - upper.cumulative(lower.offset + i - shift - 1));
+				}
+			}
+			return odds;
+		}
+
+		/**
+		 * gets the odds of a value at most the given one
+		 *
+		 * @param value value
+		 * @return cumulative odds
+		 */
+		double cumulative(int value) {
+			int i = value - offset;
+			return i < 0 ? 0 : i >= cumulativeOdds.length ? 1 : cumulativeOdds[i];
+		}
+	}
+}
@@ -1,15 +0,0 @@
-
-/**
- * @author Sharodh Keelamanakudi Ragupathi(1148618)
- */
-
-public class InvalidCharacteristicException extends Exception {
-	/**
-	 * Definition of invalid characteristic exception
-	 * 
-	 * @param s exception handler
-	 */
-	InvalidCharacteristicException(String s) {
-		super(s);
-	}
-}
@@ -1,16 +0,0 @@
-/**
- * @author Sharodh Keelamanakudi Ragupathi(1148618)
- */
-
-public class InvalidDataFormatException extends Exception {
-
-	/**
-	 * Definition of invalid data format exception
-	 * 
-	 * @param s exception handler
-	 */
-	InvalidDataFormatException(String s) {
-		super(s);
-	}
-
-}
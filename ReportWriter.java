@@ -0,0 +1,326 @@
+import java.io.IOException;
+
+/**
+ * Writes the report of an audit straight to an {@link Appendable}, row by row,
+ * so no string of the whole report is built. The text format is the report
+ * printed so far, JSON writes an audit as one object on a single line and CSV
+ * writes a row per trait
+ *
+ * @author Sharodh Keelamanakudi Ragupathi(1148618)
+ */
+public class ReportWriter {
+
+	public enum Format {
+		TEXT("log"), JSON("jsonl"), CSV("csv");
+
+		private final String extension;
+
+		Format(String extension) {
+			this.extension = extension;
+		}
+
+		/**
+		 * gets the extension of the files storing reports in this format, so
+		 * reports of different formats never share a file
+		 *
+		 * @return file extension, without the dot
+		 */
+		public String getExtension() {
+			return extension;
+		}
+
+		@Override
+		public String toString() {
+			return this.name().toLowerCase();
+		}
+	}
+
+	static final String BAR = "======================================\n";
+	static final String CSV_HEADER = "auditType,runs,trait,value,low,high";
+	static final String AVERAGE_AGE_ROW = "average age";
+	static final int TEXT_DIGITS = 1;
+	static final int DATA_DIGITS = 3;
+	static final double MAX_FIXED_VALUE = 1e15;
+	static final long[] POWERS_OF_TEN = { 1, 10, 100, 1000, 10000, 100000, 1000000 };
+
+	private final Appendable out;
+	private final Format format;
+	private final StringBuilder number = new StringBuilder();
+
+	/**
+	 * creates a writer of reports
+	 *
+	 * @param out    destination of the reports
+	 * @param format format of the reports
+	 */
+	public ReportWriter(Appendable out, Format format) {
+		this.out = out;
+		this.format = format;
+	}
+
+	/**
+	 * gets a format by its name
+	 *
+	 * @param name name of the format in any case
+	 * @return format, null if there is no format with the name
+	 */
+	public static Format getFormat(String name) {
+		for (Format format : Format.values()) {
+			if (format.name().equalsIgnoreCase(name)) {
+				return format;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * writes the line heading the reports of a new file, if the format has one
+	 *
+	 * @throws IOException
+	 */
+	public void writeHeader() throws IOException {
+		if (format == Format.CSV) {
+			out.append(CSV_HEADER).append('\n');
+		}
+	}
+
+	/**
+	 * writes the report of an audit, without a line break at the end
+	 *
+	 * @param audit audit to be reported
+	 * @throws IOException
+	 */
+	public void write(Audit audit) throws IOException {
+		float avgAge = (float) audit.traits.getTotalAgeOfSurvivors() / (float) audit.traits.getTotalSurvivors();
+		if (format == Format.JSON) {
+			writeJson(audit, avgAge);
+		} else if (format == Format.CSV) {
+			writeCsv(audit, avgAge);
+		} else {
+			writeText(audit, avgAge);
+		}
+	}
+
+	/**
+	 * writes the report in the text format
+	 *
+	 * @param audit  audit to be reported
+	 * @param avgAge average age of the saved persons
+	 * @throws IOException
+	 */
+	private void writeText(Audit audit, float avgAge) throws IOException {
+		out.append(BAR).append("# ").append(audit.getAuditType()).append(" Audit\n").append(BAR);
+		if (audit.isExact) {
+			out.append("- % EXPECTED TO BE SAVED\n");
+		} else {
+			number.setLength(0);
+			out.append("- % SAVED AFTER ").append(number.append(audit.getRuns())).append(" RUNS\n");
+		}
+		// ratios are printed with the digits of their interval so they fall within it
+		int digits = audit.intervals == null ? TEXT_DIGITS : DATA_DIGITS;
+		for (int i = 0; i < audit.ranking.size(); i++) {
+			Traits trait = audit.ranking.getTraitsAt(i);
+			out.append(trait.getTrait()).append(": ").append(fixed(trait.getSurvivalRatio(), digits));
+			if (audit.intervals != null) {
+				int ordinal = audit.ranking.getOrdinalAt(i);
+				out.append(" [").append(fixed((float) audit.intervals.getLow(ordinal), DATA_DIGITS)).append(", ");
+				out.append(fixed((float) audit.intervals.getHigh(ordinal), DATA_DIGITS)).append(']');
+			}
+			out.append('\n');
+		}
+		out.append("--\naverage age: ").append(fixed(avgAge, TEXT_DIGITS));
+	}
+
+	/**
+	 * writes the report in the JSON format
+	 *
+	 * @param audit  audit to be reported
+	 * @param avgAge average age of the saved persons
+	 * @throws IOException
+	 */
+	private void writeJson(Audit audit, float avgAge) throws IOException {
+		out.append("{\"auditType\":");
+		appendJsonString(audit.getAuditType());
+		number.setLength(0);
+		out.append(",\"runs\":").append(number.append(audit.getRuns())).append(",\"survivalRatios\":[");
+		for (int i = 0; i < audit.ranking.size(); i++) {
+			Traits trait = audit.ranking.getTraitsAt(i);
+			out.append(i == 0 ? "{\"trait\":" : ",{\"trait\":");
+			appendJsonString(trait.getTrait());
+			out.append(",\"survivalRatio\":");
+			appendJsonNumber(trait.getSurvivalRatio());
+			if (audit.intervals != null) {
+				int ordinal = audit.ranking.getOrdinalAt(i);
+				out.append(",\"interval\":[");
+				appendJsonNumber((float) audit.intervals.getLow(ordinal));
+				out.append(',');
+				appendJsonNumber((float) audit.intervals.getHigh(ordinal));
+				out.append(']');
+			}
+			out.append('}');
+		}
+		out.append("],\"averageAge\":");
+		appendJsonNumber(avgAge);
+		out.append('}');
+	}
+
+	/**
+	 * writes the report in the CSV format, the average age is the last row. The
+	 * bounds of the interval of a trait are empty without intervals
+	 *
+	 * @param audit  audit to be reported
+	 * @param avgAge average age of the saved persons
+	 * @throws IOException
+	 */
+	private void writeCsv(Audit audit, float avgAge) throws IOException {
+		for (int i = 0; i < audit.ranking.size(); i++) {
+			Traits trait = audit.ranking.getTraitsAt(i);
+			appendCsvRowStart(audit, trait.getTrait());
+			out.append(fixed(trait.getSurvivalRatio(), DATA_DIGITS)).append(',');
+			if (audit.intervals != null) {
+				int ordinal = audit.ranking.getOrdinalAt(i);
+				out.append(fixed((float) audit.intervals.getLow(ordinal), DATA_DIGITS)).append(',');
+				out.append(fixed((float) audit.intervals.getHigh(ordinal), DATA_DIGITS));
+			} else {
+				out.append(',');
+			}
+			out.append('\n');
+		}
+		appendCsvRowStart(audit, AVERAGE_AGE_ROW);
+		out.append(fixed(avgAge, DATA_DIGITS)).append(",,");
+	}
+
+	/**
+	 * writes the audit type, runs and trait columns of a CSV row
+	 *
+	 * @param audit audit to be reported
+	 * @param trait name of the trait of the row
+	 * @throws IOException
+	 */
+	private void appendCsvRowStart(Audit audit, String trait) throws IOException {
+		appendCsvField(audit.getAuditType());
+		number.setLength(0);
+		out.append(',').append(number.append(audit.getRuns())).append(',');
+		appendCsvField(trait);
+		out.append(',');
+	}
+
+	/**
+	 * writes a CSV field, quoted if it holds a separator, a quote or a line break
+	 *
+	 * @param value value of the field
+	 * @throws IOException
+	 */
+	private void appendCsvField(String value) throws IOException {
+		boolean isQuoted = false;
+		for (int i = 0; i < value.length() && !isQuoted; i++) {
+			char c = value.charAt(i);
+			isQuoted = c == ',' || c == '"' || c == '\n' || c == '\r';
+		}
+		if (!isQuoted) {
+			out.append(value);
+			return;
+		}
+		out.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '"') {
+				out.append('"');
+			}
+			out.append(c);
+		}
+		out.append('"');
+	}
+
+	/**
+	 * writes a JSON string with the characters escaped
+	 *
+	 * @param value value of the string
+	 * @throws IOException
+	 */
+	private void appendJsonString(String value) throws IOException {
+		if (value == null) {
+			out.append("null");
+			return;
+		}
+		out.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '"' || c == '\\') {
+				out.append('\\').append(c);
+			} else if (c < 0x20) {
+				out.append("\\u00").append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xF, 16));
+			} else {
+				out.append(c);
+			}
+		}
+		out.append('"');
+	}
+
+	/**
+	 * writes a JSON number, or null for a ratio without characters
+	 *
+	 * @param value value of the number
+	 * @throws IOException
+	 */
+	private void appendJsonNumber(float value) throws IOException {
+		if (Float.isNaN(value) || Float.isInfinite(value)) {
+			out.append("null");
+		} else {
+			out.append(fixed(value, DATA_DIGITS));
+		}
+	}
+
+	/**
+	 * formats a value with a fixed number of digits, into a buffer reused by the
+	 * writer
+	 *
+	 * @param value  value to be formatted
+	 * @param digits number of digits after the point
+	 * @return buffer holding the formatted value
+	 */
+	private StringBuilder fixed(float value, int digits) {
+		number.setLength(0);
+		return appendFixed(number, value, digits);
+	}
+
+	/**
+	 * appends a value with a fixed number of digits, rounded half up, the same
+	 * as the %.1f format of {@link String#format}. A float is a binary fraction
+	 * with 24 bits, so it is either exactly halfway between two decimals or far
+	 * enough from halfway that rounding its exact value gives the digits the
+	 * formatter prints. Values too large for a long are left to the formatter
+	 *
+	 * @param into   buffer to append to
+	 * @param value  value to be formatted
+	 * @param digits number of digits after the point, at most 6
+	 * @return buffer
+	 */
+	static StringBuilder appendFixed(StringBuilder into, float value, int digits) {
+		if (Float.isNaN(value)) {
+			return into.append("NaN");
+		}
+		if (Float.isInfinite(value)) {
+			return into.append(value > 0 ? "Infinity" : "-Infinity");
+		}
+		double magnitude = Math.abs((double) value);
+		if (magnitude >= MAX_FIXED_VALUE) {
+			return into.append(String.format("%." + digits + "f", value));
+		}
+		if (Float.floatToRawIntBits(value) < 0) {
+			into.append('-');
+		}
+		long scale = POWERS_OF_TEN[digits];
+		long scaled = (long) Math.floor(magnitude * scale + 0.5);
+		into.append(scaled / scale);
+		if (digits > 0) {
+			into.append('.');
+			long fraction = scaled % scale;
+			for (long power = scale / 10; power > fraction && power > 1; power /= 10) {
+				into.append('0');
+			}
+			into.append(fraction);
+		}
+		return into;
+	}
+}
@@ -0,0 +1,268 @@
+import java.util.Arrays;
+
+import ethicalengine.Animal;
+import ethicalengine.Character;
+import ethicalengine.Character.Gender;
+import ethicalengine.Character.TypeofCharacter;
+import ethicalengine.Person;
+import ethicalengine.Person.Profession;
+import ethicalengine.Scenario;
+
+/**
+ * Traits of a scenario counted per side, so the scenario can be added to the
+ * accumulators of several decisions without walking its characters again.
+ * Which side is saved only decides which counts are the saved ones, the counts
+ * of all characters are the same for every decision. The traits are kept in
+ * the order {@link TraitAccumulator#addScenario} first meets them, which keeps
+ * the accumulators the same as if every scenario had been added directly. An
+ * instance is reused for scenario after scenario
+ *
+ * @author Sharodh Keelamanakudi Ragupathi(1148618)
+ */
+public class ScenarioTraits {
+
+	private int[] slots = new int[TraitRegistry.SIZE];
+	private int[] ordinals = new int[TraitRegistry.SIZE];
+	private String[] extraNames = new String[TraitRegistry.SIZE];
+	private long[] passengerCounts = new long[TraitRegistry.SIZE];
+	private long[] pedestrianCounts = new long[TraitRegistry.SIZE];
+	private int size = 0;
+
+	private long passengerAge;
+	private long passengerPersons;
+	private long pedestrianAge;
+	private long pedestrianPersons;
+	private Scenario scene;
+
+	/**
+	 * creates an empty set of traits
+	 */
+	public ScenarioTraits() {
+		Arrays.fill(slots, -1);
+	}
+
+	/**
+	 * counts the traits of a scenario, replacing the ones counted before
+	 *
+	 * @param scene scenario to be counted
+	 */
+	public void extract(Scenario scene) {
+		for (int i = 0; i < size; i++) {
+			if (extraNames[i] == null) {
+				slots[ordinals[i]] = -1;
+			}
+			extraNames[i] = null;
+		}
+		size = 0;
+		passengerAge = 0;
+		passengerPersons = 0;
+		pedestrianAge = 0;
+		pedestrianPersons = 0;
+		this.scene = scene;
+
+		for (Character character : scene.getPassengers()) {
+			if (addCharacter(character, true)) {
+				passengerAge += character.getAge();
+				passengerPersons++;
+			}
+		}
+		for (Character character : scene.getPedestrians()) {
+			if (addCharacter(character, false)) {
+				pedestrianAge += character.getAge();
+				pedestrianPersons++;
+			}
+		}
+	}
+
+	/**
+	 * adds the counted traits to an accumulator as if the scenario had been
+	 * decided
+	 *
+	 * @param traits   accumulator of an audit
+	 * @param decision whom to save
+	 */
+	public void addTo(TraitAccumulator traits, EthicalEngine.Decision decision) {
+		boolean isPassengerSafe = decision == EthicalEngine.Decision.PASSENGERS;
+		for (int i = 0; i < size; i++) {
+			long safeCount = isPassengerSafe ? passengerCounts[i] : pedestrianCounts[i];
+			traits.addTrait(ordinals[i], extraNames[i], safeCount, passengerCounts[i] + pedestrianCounts[i]);
+		}
+		traits.addSurvivors(isPassengerSafe ? passengerAge : pedestrianAge,
+				isPassengerSafe ? passengerPersons : pedestrianPersons);
+		traits.addParamBasedOnScene(scene, decision);
+	}
+
+	/**
+	 * gets the number of traits of the scenario
+	 *
+	 * @return number of counted traits
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * gets the ordinal of a counted trait
+	 *
+	 * @param slot position of the trait, in the order it was met
+	 * @return ordinal of a registered trait
+	 */
+	int getOrdinal(int slot) {
+		return ordinals[slot];
+	}
+
+	/**
+	 * gets the name of a counted trait which is not registered
+	 *
+	 * @param slot position of the trait, in the order it was met
+	 * @return name of the trait, null for a registered trait
+	 */
+	String getExtraName(int slot) {
+		return extraNames[slot];
+	}
+
+	/**
+	 * gets the number of passengers with a counted trait
+	 *
+	 * @param slot position of the trait, in the order it was met
+	 * @return number of passengers
+	 */
+	long getPassengerCount(int slot) {
+		return passengerCounts[slot];
+	}
+
+	/**
+	 * gets the number of pedestrians with a counted trait
+	 *
+	 * @param slot position of the trait, in the order it was met
+	 * @return number of pedestrians
+	 */
+	long getPedestrianCount(int slot) {
+		return pedestrianCounts[slot];
+	}
+
+	/**
+	 * gets the sum of the ages of the persons on a side
+	 *
+	 * @param isPassenger if the side is the passengers
+	 * @return total age of the persons of the side
+	 */
+	long getTotalAge(boolean isPassenger) {
+		return isPassenger ? passengerAge : pedestrianAge;
+	}
+
+	/**
+	 * gets the number of persons on a side
+	 *
+	 * @param isPassenger if the side is the passengers
+	 * @return number of persons of the side
+	 */
+	long getPersonCount(boolean isPassenger) {
+		return isPassenger ? passengerPersons : pedestrianPersons;
+	}
+
+	/**
+	 * counts the traits of a character, the same traits
+	 * {@link TraitAccumulator#addScenario} counts
+	 *
+	 * @param character   character of the scenario
+	 * @param isPassenger if the character is a passenger
+	 * @return if the character is a person
+	 */
+	private boolean addCharacter(Character character, boolean isPassenger) {
+		if (character.getTypeOfCharacter() == TypeofCharacter.PERSON) {
+			Person person = (Person) character;
+			count(TraitRegistry.bodyType(person.getBodyType()), isPassenger);
+			if (person.getGender() != Gender.UNKNOWN) {
+				count(TraitRegistry.gender(person.getGender()), isPassenger);
+			}
+			count(TraitRegistry.PERSON, isPassenger);
+			if (person.getProfession() != Profession.NONE) {
+				count(TraitRegistry.profession(person.getProfession()), isPassenger);
+			}
+			if (person.isPregnant()) {
+				count(TraitRegistry.PREGNANT, isPassenger);
+			}
+			count(TraitRegistry.ageCategory(person.getAgeCategory()), isPassenger);
+			return true;
+		}
+
+		Animal animal = (Animal) character;
+		count(TraitRegistry.ANIMAL, isPassenger);
+		int ordinal = TraitRegistry.ordinalOf(animal.getSpecies());
+		if (ordinal >= 0) {
+			count(ordinal, isPassenger);
+		} else {
+			countExtra(animal.getSpecies(), isPassenger);
+		}
+		if (animal.isPet()) {
+			count(TraitRegistry.PET, isPassenger);
+		}
+		return false;
+	}
+
+	/**
+	 * counts a registered trait
+	 *
+	 * @param ordinal     ordinal of the trait
+	 * @param isPassenger if the character is a passenger
+	 */
+	private void count(int ordinal, boolean isPassenger) {
+		if (slots[ordinal] < 0) {
+			slots[ordinal] = addSlot(ordinal, null);
+		}
+		countSlot(slots[ordinal], isPassenger);
+	}
+
+	/**
+	 * counts a free text species which is not registered
+	 *
+	 * @param name        name of the species
+	 * @param isPassenger if the character is a passenger
+	 */
+	private void countExtra(String name, boolean isPassenger) {
+		int slot = -1;
+		for (int i = 0; i < size && slot < 0; i++) {
+			if (name.equals(extraNames[i])) {
+				slot = i;
+			}
+		}
+		countSlot(slot < 0 ? addSlot(-1, name) : slot, isPassenger);
+	}
+
+	/**
+	 * counts a character with a trait on its side
+	 *
+	 * @param slot        slot of the trait
+	 * @param isPassenger if the character is a passenger
+	 */
+	private void countSlot(int slot, boolean isPassenger) {
+		if (isPassenger) {
+			passengerCounts[slot]++;
+		} else {
+			pedestrianCounts[slot]++;
+		}
+	}
+
+	/**
+	 * adds a trait the scenario has
+	 *
+	 * @param ordinal   ordinal of a registered trait
+	 * @param extraName name of a trait which is not registered, null otherwise
+	 * @return slot of the trait
+	 */
+	private int addSlot(int ordinal, String extraName) {
+		if (size == ordinals.length) {
+			int capacity = size * 2;
+			ordinals = Arrays.copyOf(ordinals, capacity);
+			extraNames = Arrays.copyOf(extraNames, capacity);
+			passengerCounts = Arrays.copyOf(passengerCounts, capacity);
+			pedestrianCounts = Arrays.copyOf(pedestrianCounts, capacity);
+		}
+		ordinals[size] = ordinal;
+		extraNames[size] = extraName;
+		passengerCounts[size] = 0;
+		pedestrianCounts[size] = 0;
+		return size++;
+	}
+}
@@ -0,0 +1,346 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import ethicalengine.Animal;
+import ethicalengine.Character;
+import ethicalengine.Character.Gender;
+import ethicalengine.Character.TypeofCharacter;
+import ethicalengine.Person;
+import ethicalengine.Person.Profession;
+import ethicalengine.Scenario;
+
+/**
+ * Accumulates the occurrence of traits among all characters and among the
+ * saved characters of the audited scenarios. Known traits are counted by their
+ * ordinal in the {@link TraitRegistry}, free text species which are not
+ * registered get an ordinal local to the accumulator
+ *
+ * @author Sharodh Keelamanakudi Ragupathi(1148618)
+ */
+public class TraitAccumulator {
+
+	static final String PREGNANT_PARAM_KEY = "pregnant";
+	static final String PET_PARAM_KEY = "pet";
+	static final String GREEN_PARAM_KEY = "green";
+	static final String RED_PARAM_KEY = "red";
+	static final String YOU_PARAM_KEY = "you";
+
+	private long totalAgeOfSurvivors = 0;
+	private long totalSurvivors = 0;
+
+	private long[] countOfAllCharacters = new long[TraitRegistry.SIZE];
+	private long[] countOfSafeCharacters = new long[TraitRegistry.SIZE];
+	private boolean[] isSeen = new boolean[TraitRegistry.SIZE];
+	private int[] seenOrder = new int[TraitRegistry.SIZE];
+	private int seenCount = 0;
+	private boolean[] isChanged = new boolean[TraitRegistry.SIZE];
+	private int[] changedOrder = new int[TraitRegistry.SIZE];
+	private int changedCount = 0;
+
+	private ArrayList<String> extraTraits;
+	private Map<String, Integer> extraOrdinals;
+
+	/**
+	 * gets the sum of ages of the saved persons
+	 *
+	 * @return total age of survivors
+	 */
+	public long getTotalAgeOfSurvivors() {
+		return totalAgeOfSurvivors;
+	}
+
+	/**
+	 * gets the number of saved persons
+	 *
+	 * @return total survivors
+	 */
+	public long getTotalSurvivors() {
+		return totalSurvivors;
+	}
+
+	/**
+	 * gets the number of traits seen so far
+	 *
+	 * @return number of traits
+	 */
+	public int getTraitCount() {
+		return seenCount;
+	}
+
+	/**
+	 * gets a seen trait, in the order the traits were first seen
+	 *
+	 * @param index position in the order of appearance
+	 * @return ordinal of the trait
+	 */
+	public int getTraitAt(int index) {
+		return seenOrder[index];
+	}
+
+	/**
+	 * gets the number of traits whose counts changed since the changes were last
+	 * cleared
+	 *
+	 * @return number of changed traits
+	 */
+	public int getChangedCount() {
+		return changedCount;
+	}
+
+	/**
+	 * gets a changed trait
+	 *
+	 * @param index position among the changed traits
+	 * @return ordinal of the trait
+	 */
+	public int getChangedAt(int index) {
+		return changedOrder[index];
+	}
+
+	/**
+	 * forgets the changed traits, once they have been seen by the ranking
+	 */
+	public void clearChanged() {
+		for (int i = 0; i < changedCount; i++) {
+			isChanged[changedOrder[i]] = false;
+		}
+		changedCount = 0;
+	}
+
+	/**
+	 * gets the name of a trait
+	 *
+	 * @param ordinal ordinal of the trait
+	 * @return name of the trait
+	 */
+	public String getName(int ordinal) {
+		return ordinal < TraitRegistry.SIZE ? TraitRegistry.nameOf(ordinal)
+				: extraTraits.get(ordinal - TraitRegistry.SIZE);
+	}
+
+	/**
+	 * gets the number of characters with a trait
+	 *
+	 * @param ordinal ordinal of the trait
+	 * @return count of all characters
+	 */
+	public long getCountOfAllCharacters(int ordinal) {
+		return countOfAllCharacters[ordinal];
+	}
+
+	/**
+	 * gets the number of saved characters with a trait
+	 *
+	 * @param ordinal ordinal of the trait
+	 * @return count of saved characters
+	 */
+	public long getCountOfSafeCharacters(int ordinal) {
+		return countOfSafeCharacters[ordinal];
+	}
+
+	/**
+	 * adds the traits of a decided scenario
+	 *
+	 * @param scene    decided scenario
+	 * @param decision whom to save
+	 */
+	public void addScenario(Scenario scene, EthicalEngine.Decision decision) {
+		this.addTraitBasedOnCharacters(scene.getPassengers(), decision == EthicalEngine.Decision.PASSENGERS);
+		this.addTraitBasedOnCharacters(scene.getPedestrians(), decision == EthicalEngine.Decision.PEDESTRIANS);
+		this.addParamBasedOnScene(scene, decision);
+	}
+
+	/**
+	 * adds the counts of a trait of a decided scenario
+	 *
+	 * @param ordinal   ordinal of a registered trait
+	 * @param extraName name of a trait which is not registered, null otherwise
+	 * @param safeCount number of saved characters
+	 * @param allCount  number of characters
+	 */
+	void addTrait(int ordinal, String extraName, long safeCount, long allCount) {
+		this.injectIntoParam(extraName == null ? ordinal : this.getExtraOrdinal(extraName), safeCount, allCount);
+	}
+
+	/**
+	 * adds the saved persons of a decided scenario
+	 *
+	 * @param totalAge  sum of the ages of the saved persons
+	 * @param survivors number of saved persons
+	 */
+	void addSurvivors(long totalAge, long survivors) {
+		this.totalAgeOfSurvivors += totalAge;
+		this.totalSurvivors += survivors;
+	}
+
+	/**
+	 * adds the counts of another accumulator to this one
+	 *
+	 * @param other accumulator to be merged
+	 */
+	public void merge(TraitAccumulator other) {
+		for (int i = 0; i < other.seenCount; i++) {
+			int otherOrdinal = other.seenOrder[i];
+			int ordinal = otherOrdinal < TraitRegistry.SIZE ? otherOrdinal
+					: this.getExtraOrdinal(other.getName(otherOrdinal));
+			this.injectIntoParam(ordinal, other.countOfSafeCharacters[otherOrdinal],
+					other.countOfAllCharacters[otherOrdinal]);
+		}
+		this.totalAgeOfSurvivors += other.totalAgeOfSurvivors;
+		this.totalSurvivors += other.totalSurvivors;
+	}
+
+	/**
+	 * gets the ordinal of a trait which is not part of the registry, registering
+	 * it in this accumulator when seen for the first time
+	 *
+	 * @param name name of the trait
+	 * @return ordinal of the trait
+	 */
+	private int getExtraOrdinal(String name) {
+		if (extraOrdinals == null) {
+			extraTraits = new ArrayList<String>();
+			extraOrdinals = new HashMap<String, Integer>();
+		}
+		Integer ordinal = extraOrdinals.get(name);
+		if (ordinal == null) {
+			ordinal = TraitRegistry.SIZE + extraTraits.size();
+			extraTraits.add(name);
+			extraOrdinals.put(name, ordinal);
+			if (ordinal >= countOfAllCharacters.length) {
+				int capacity = countOfAllCharacters.length * 2;
+				countOfAllCharacters = Arrays.copyOf(countOfAllCharacters, capacity);
+				countOfSafeCharacters = Arrays.copyOf(countOfSafeCharacters, capacity);
+				isSeen = Arrays.copyOf(isSeen, capacity);
+				seenOrder = Arrays.copyOf(seenOrder, capacity);
+				isChanged = Arrays.copyOf(isChanged, capacity);
+				changedOrder = Arrays.copyOf(changedOrder, capacity);
+			}
+		}
+		return ordinal;
+	}
+
+	/**
+	 * gets the ordinal of a free text trait
+	 *
+	 * @param name name of the trait
+	 * @return ordinal of the trait
+	 */
+	private int getOrdinal(String name) {
+		int ordinal = TraitRegistry.ordinalOf(name);
+		return ordinal >= 0 ? ordinal : getExtraOrdinal(name);
+	}
+
+	/**
+	 * adds the counts to a trait
+	 *
+	 * @param ordinal   ordinal of the trait
+	 * @param safeCount number of saved characters
+	 * @param allCount  number of characters
+	 */
+	private void injectIntoParam(int ordinal, long safeCount, long allCount) {
+		if (!isSeen[ordinal]) {
+			isSeen[ordinal] = true;
+			seenOrder[seenCount++] = ordinal;
+		}
+		if (!isChanged[ordinal]) {
+			isChanged[ordinal] = true;
+			changedOrder[changedCount++] = ordinal;
+		}
+		countOfSafeCharacters[ordinal] += safeCount;
+		countOfAllCharacters[ordinal] += allCount;
+	}
+
+	/**
+	 * injects the characteristic into the counters based on the survival
+	 *
+	 * @param ordinal ordinal of the trait
+	 * @param isSafe  is going to be saved
+	 */
+	private void injectIntoParam(int ordinal, boolean isSafe) {
+		injectIntoParam(ordinal, isSafe ? 1 : 0, 1);
+	}
+
+	/**
+	 * extracts the various parameters of a character. The characters are read in
+	 * place, so no object is allocated per character
+	 *
+	 * @param characters traits on characters
+	 * @param isSafe     is the character going to be saved
+	 */
+	private void addTraitBasedOnCharacters(Character[] characters, boolean isSafe) {
+
+		for (Character character : characters) {
+			if (character.getTypeOfCharacter() == TypeofCharacter.PERSON) {
+				Person person = (Person) character;
+				// bodytype
+				this.injectIntoParam(TraitRegistry.bodyType(person.getBodyType()), isSafe);
+
+				// Gender
+				if (person.getGender() != Gender.UNKNOWN) {
+					this.injectIntoParam(TraitRegistry.gender(person.getGender()), isSafe);
+				}
+
+				// Person
+				this.injectIntoParam(TraitRegistry.PERSON, isSafe);
+
+				// profession
+				if (person.getProfession() != Profession.NONE)
+					this.injectIntoParam(TraitRegistry.profession(person.getProfession()), isSafe);
+
+				// pregnant
+				if (person.isPregnant()) {
+					this.injectIntoParam(TraitRegistry.PREGNANT, isSafe);
+				}
+
+				// age
+				if (isSafe) {
+					totalAgeOfSurvivors += person.getAge();
+					totalSurvivors++;
+				}
+
+				// agecategory
+				this.injectIntoParam(TraitRegistry.ageCategory(person.getAgeCategory()), isSafe);
+
+			} else {
+				Animal animal = (Animal) character;
+
+				// Animal
+				this.injectIntoParam(TraitRegistry.ANIMAL, isSafe);
+
+				// Species
+				this.injectIntoParam(this.getOrdinal(animal.getSpecies()), isSafe);
+
+				// Pet
+				if (animal.isPet()) {
+					this.injectIntoParam(TraitRegistry.PET, isSafe);
+				}
+			}
+
+		}
+	}
+
+	/**
+	 * extracts the various parameters of a scene
+	 *
+	 * @param scene    traits of the scene
+	 * @param decision whom to save
+	 */
+	void addParamBasedOnScene(Scenario scene, EthicalEngine.Decision decision) {
+		// you
+		if (scene.hasYouInCar() || scene.hasYouInLane()) {
+			boolean isSafe = (scene.hasYouInCar() && decision == EthicalEngine.Decision.PASSENGERS)
+					|| (scene.hasYouInLane() && decision == EthicalEngine.Decision.PEDESTRIANS);
+			this.injectIntoParam(TraitRegistry.YOU, isSafe);
+		}
+
+		// legality
+		int ordinal = scene.isLegalCrossing() ? TraitRegistry.GREEN : TraitRegistry.RED;
+		int survivorCount = decision == EthicalEngine.Decision.PASSENGERS ? scene.getPassengerCount()
+				: scene.getPedestrianCount();
+		int totalCount = scene.getPassengerCount() + scene.getPedestrianCount();
+		injectIntoParam(ordinal, survivorCount, totalCount);
+	}
+}
@@ -0,0 +1,145 @@
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * 95% confidence intervals of the survival ratios of an audit that runs in
+ * batches. The characters of a side are saved together, so they are not
+ * independent draws and the plain binomial variance of a ratio is too small.
+ * The batches are independent though: the variance of the ratio is estimated
+ * from the spread of the saved and total counts of every batch around the
+ * ratio, and turned into the number of independent characters it is worth.
+ * The interval is the Wilson score interval of that number of characters,
+ * which stays within 0 and 1 for rare traits
+ *
+ * @author Sharodh Keelamanakudi Ragupathi(1148618)
+ */
+public class TraitIntervals {
+
+	static final double Z_95 = 1.959963984540054;
+	static final int MIN_BATCHES = 10;
+
+	private long batches = 0;
+	private long[] lastSafeCounts = new long[TraitRegistry.SIZE];
+	private long[] lastAllCounts = new long[TraitRegistry.SIZE];
+	private double[] safeSquares = new double[TraitRegistry.SIZE];
+	private double[] allSquares = new double[TraitRegistry.SIZE];
+	private double[] products = new double[TraitRegistry.SIZE];
+
+	/**
+	 * adds the counts of the scenarios accumulated since the last batch as a new
+	 * batch
+	 *
+	 * @param traits accumulator of the audit
+	 */
+	public void addBatch(TraitAccumulator traits) {
+		for (int i = 0; i < traits.getTraitCount(); i++) {
+			int ordinal = traits.getTraitAt(i);
+			if (ordinal >= lastSafeCounts.length) {
+				int capacity = Math.max(ordinal + 1, lastSafeCounts.length * 2);
+				lastSafeCounts = Arrays.copyOf(lastSafeCounts, capacity);
+				lastAllCounts = Arrays.copyOf(lastAllCounts, capacity);
+				safeSquares = Arrays.copyOf(safeSquares, capacity);
+				allSquares = Arrays.copyOf(allSquares, capacity);
+				products = Arrays.copyOf(products, capacity);
+			}
+			double safeCount = traits.getCountOfSafeCharacters(ordinal) - lastSafeCounts[ordinal];
+			double allCount = traits.getCountOfAllCharacters(ordinal) - lastAllCounts[ordinal];
+			safeSquares[ordinal] += safeCount * safeCount;
+			allSquares[ordinal] += allCount * allCount;
+			products[ordinal] += safeCount * allCount;
+			lastSafeCounts[ordinal] = traits.getCountOfSafeCharacters(ordinal);
+			lastAllCounts[ordinal] = traits.getCountOfAllCharacters(ordinal);
+		}
+		batches++;
+	}
+
+	/**
+	 * gets the number of batches added
+	 *
+	 * @return number of batches
+	 */
+	public long getBatches() {
+		return batches;
+	}
+
+	/**
+	 * gets the lower bound of the interval of a trait
+	 *
+	 * @param ordinal ordinal of the trait
+	 * @return lower bound, 0 before two batches
+	 */
+	public double getLow(int ordinal) {
+		double[] interval = getInterval(ordinal);
+		return interval[0] - interval[1];
+	}
+
+	/**
+	 * gets the upper bound of the interval of a trait
+	 *
+	 * @param ordinal ordinal of the trait
+	 * @return upper bound, 1 before two batches
+	 */
+	public double getHigh(int ordinal) {
+		double[] interval = getInterval(ordinal);
+		return interval[0] + interval[1];
+	}
+
+	/**
+	 * gets the half-width of the interval of a trait
+	 *
+	 * @param ordinal ordinal of the trait
+	 * @return half-width, 0.5 before two batches
+	 */
+	public double getHalfWidth(int ordinal) {
+		return getInterval(ordinal)[1];
+	}
+
+	/**
+	 * checks if the interval of every trait is within its target half-width,
+	 * after at least {@link #MIN_BATCHES} batches
+	 *
+	 * @param traits          accumulator of the audit
+	 * @param halfWidth       target half-width of the traits without their own
+	 * @param traitHalfWidths target half-width of some traits, by name
+	 * @return if the audit can stop
+	 */
+	public boolean isPrecise(TraitAccumulator traits, double halfWidth, Map<String, Double> traitHalfWidths) {
+		if (batches < MIN_BATCHES) {
+			return false;
+		}
+		for (int i = 0; i < traits.getTraitCount(); i++) {
+			int ordinal = traits.getTraitAt(i);
+			Double target = traitHalfWidths.get(traits.getName(ordinal));
+			if (getHalfWidth(ordinal) > (target == null ? halfWidth : target)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * computes the Wilson score interval of a trait
+	 *
+	 * @param ordinal ordinal of the trait
+	 * @return center and half-width of the interval
+	 */
+	private double[] getInterval(int ordinal) {
+		double allCount = ordinal < lastAllCounts.length ? lastAllCounts[ordinal] : 0;
+		if (batches < 2 || allCount == 0) {
+			return new double[] { 0.5, 0.5 };
+		}
+		double ratio = lastSafeCounts[ordinal] / allCount;
+		// spread of the batches around the ratio, sum of (safe - ratio * all)^2
+		double spread = Math.max(0, safeSquares[ordinal] - 2 * ratio * products[ordinal]
+				+ ratio * ratio * allSquares[ordinal]);
+		double variance = spread * batches / ((batches - 1) * allCount * allCount);
+		double characters = variance > 0 ? ratio * (1 - ratio) / variance : allCount;
+
+		double z2 = Z_95 * Z_95;
+		double denominator = 1 + z2 / characters;
+		double center = (ratio + z2 / (2 * characters)) / denominator;
+		double halfWidth = Z_95 * Math.sqrt(ratio * (1 - ratio) / characters + z2 / (4 * characters * characters))
+				/ denominator;
+		return new double[] { center, halfWidth };
+	}
+}
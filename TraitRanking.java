@@ -0,0 +1,190 @@
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Ranking of the traits of an audit by their survival ratio, highest first. The
+ * ranking stays sorted between refreshes and only the traits whose counts
+ * changed since the last refresh are moved, each with a binary search and a
+ * shift of the traits it passes. Traits with equal ratios keep the order the
+ * report always had, which is the iteration order of a hashmap of the trait
+ * names. That order only changes when a new trait is seen, which is the only
+ * time the ranking is sorted again
+ *
+ * @author Sharodh Keelamanakudi Ragupathi(1148618)
+ */
+public class TraitRanking {
+
+	private int[] order = new int[TraitRegistry.SIZE];
+	private int[] positions = new int[TraitRegistry.SIZE];
+	private int[] tieRanks = new int[TraitRegistry.SIZE];
+	private Traits[] rows = new Traits[TraitRegistry.SIZE];
+	private int size = 0;
+
+	/**
+	 * gets the number of ranked traits
+	 *
+	 * @return number of traits
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * gets the trait at a rank
+	 *
+	 * @param rank position in the ranking, 0 for the highest survival ratio
+	 * @return trait with its survival ratio
+	 */
+	public Traits getTraitsAt(int rank) {
+		return rows[order[rank]];
+	}
+
+	/**
+	 * gets the ordinal of the trait at a rank
+	 *
+	 * @param rank position in the ranking, 0 for the highest survival ratio
+	 * @return ordinal of the trait
+	 */
+	public int getOrdinalAt(int rank) {
+		return order[rank];
+	}
+
+	/**
+	 * brings the ranking up to date with the counts of an audit. Only the traits
+	 * changed since the last update are repositioned
+	 *
+	 * @param traits traits of the audit
+	 */
+	public void update(TraitAccumulator traits) {
+		if (traits.getTraitCount() != size) {
+			rebuild(traits);
+		} else {
+			for (int i = 0; i < traits.getChangedCount(); i++) {
+				int ordinal = traits.getChangedAt(i);
+				float survivalRatio = getSurvivalRatio(traits, ordinal);
+				if (survivalRatio != rows[ordinal].getSurvivalRatio()) {
+					rows[ordinal].setSurvivalRatio(survivalRatio);
+					move(ordinal);
+				}
+			}
+		}
+		traits.clearChanged();
+	}
+
+	/**
+	 * ranks all the traits from scratch, after new traits were seen
+	 *
+	 * @param traits traits of the audit
+	 */
+	private void rebuild(TraitAccumulator traits) {
+		// traits are listed through a hashmap filled in the order the traits were
+		// seen, which keeps the order of traits with equal ratios in the report
+		Map<String, Integer> ordinals = new HashMap<String, Integer>();
+		int capacity = order.length;
+		for (int i = 0; i < traits.getTraitCount(); i++) {
+			int ordinal = traits.getTraitAt(i);
+			ordinals.put(traits.getName(ordinal), ordinal);
+			capacity = Math.max(capacity, ordinal + 1);
+		}
+		if (capacity > order.length) {
+			order = Arrays.copyOf(order, capacity);
+			positions = Arrays.copyOf(positions, capacity);
+			tieRanks = Arrays.copyOf(tieRanks, capacity);
+			rows = Arrays.copyOf(rows, capacity);
+		}
+
+		Integer[] ranked = new Integer[ordinals.size()];
+		size = 0;
+		for (Map.Entry<String, Integer> entry : ordinals.entrySet()) {
+			int ordinal = entry.getValue();
+			if (rows[ordinal] == null) {
+				rows[ordinal] = new Traits(entry.getKey(), 0f);
+			}
+			rows[ordinal].setSurvivalRatio(getSurvivalRatio(traits, ordinal));
+			tieRanks[ordinal] = size;
+			ranked[size++] = ordinal;
+		}
+		Arrays.sort(ranked, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer ordinal1, Integer ordinal2) {
+				return Traits.sortByRatios.compare(rows[ordinal1], rows[ordinal2]);
+			}
+		});
+		for (int i = 0; i < size; i++) {
+			order[i] = ranked[i];
+			positions[order[i]] = i;
+		}
+	}
+
+	/**
+	 * moves a trait whose survival ratio changed to its new rank. The other
+	 * traits are still sorted, so the new rank is found with a binary search
+	 *
+	 * @param ordinal ordinal of the trait
+	 */
+	private void move(int ordinal) {
+		int from = positions[ordinal];
+		int to = from;
+		if (from > 0 && isBefore(ordinal, order[from - 1])) {
+			// first rank whose trait comes after the moved one
+			int low = 0;
+			int high = from - 1;
+			while (low < high) {
+				int middle = (low + high) >>> 1;
+				if (isBefore(ordinal, order[middle])) {
+					high = middle;
+				} else {
+					low = middle + 1;
+				}
+			}
+			to = low;
+			System.arraycopy(order, to, order, to + 1, from - to);
+		} else if (from < size - 1 && isBefore(order[from + 1], ordinal)) {
+			// last rank whose trait comes before the moved one
+			int low = from + 1;
+			int high = size - 1;
+			while (low < high) {
+				int middle = (low + high + 1) >>> 1;
+				if (isBefore(order[middle], ordinal)) {
+					low = middle;
+				} else {
+					high = middle - 1;
+				}
+			}
+			to = low;
+			System.arraycopy(order, from + 1, order, from, to - from);
+		}
+		order[to] = ordinal;
+		for (int i = Math.min(from, to); i <= Math.max(from, to); i++) {
+			positions[order[i]] = i;
+		}
+	}
+
+	/**
+	 * checks if a trait is ranked before another one
+	 *
+	 * @param ordinal1 ordinal of the first trait
+	 * @param ordinal2 ordinal of the second trait
+	 * @return if the first trait has a higher ratio, or an equal ratio and comes
+	 *         first in the hashmap order
+	 */
+	private boolean isBefore(int ordinal1, int ordinal2) {
+		float survivalRatio1 = rows[ordinal1].getSurvivalRatio();
+		float survivalRatio2 = rows[ordinal2].getSurvivalRatio();
+		return survivalRatio1 > survivalRatio2
+				|| (survivalRatio1 == survivalRatio2 && tieRanks[ordinal1] < tieRanks[ordinal2]);
+	}
+
+	/**
+	 * computes the survival ratio of a trait
+	 *
+	 * @param traits  traits of the audit
+	 * @param ordinal ordinal of the trait
+	 * @return survival ratio
+	 */
+	private static float getSurvivalRatio(TraitAccumulator traits, int ordinal) {
+		return (float) traits.getCountOfSafeCharacters(ordinal) / (float) traits.getCountOfAllCharacters(ordinal);
+	}
+}
@@ -0,0 +1,142 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+import ethicalengine.Animal.Species;
+import ethicalengine.Character.BodyType;
+import ethicalengine.Character.Gender;
+import ethicalengine.Character.TypeofCharacter;
+import ethicalengine.Person.AgeCategory;
+import ethicalengine.Person.Profession;
+
+/**
+ * Registry of the traits known to the audit. Every trait name gets a dense
+ * ordinal, so that the counts of an audit can be kept in primitive arrays
+ * instead of maps keyed by the trait name
+ *
+ * @author Sharodh Keelamanakudi Ragupathi(1148618)
+ */
+public final class TraitRegistry {
+
+	private static final ArrayList<String> NAMES = new ArrayList<String>();
+	private static final Map<String, Integer> ORDINALS = new HashMap<String, Integer>();
+
+	private static final int[] BODY_TYPES = register(BodyType.values());
+	private static final int[] GENDERS = register(Gender.values());
+	private static final int[] TYPES_OF_CHARACTER = register(TypeofCharacter.values());
+	private static final int[] PROFESSIONS = register(Profession.values());
+	private static final int[] AGE_CATEGORIES = register(AgeCategory.values());
+
+	static {
+		register(Species.values());
+	}
+
+	public static final int PREGNANT = register(TraitAccumulator.PREGNANT_PARAM_KEY);
+	public static final int PET = register(TraitAccumulator.PET_PARAM_KEY);
+	public static final int YOU = register(TraitAccumulator.YOU_PARAM_KEY);
+	public static final int GREEN = register(TraitAccumulator.GREEN_PARAM_KEY);
+	public static final int RED = register(TraitAccumulator.RED_PARAM_KEY);
+
+	public static final int PERSON = typeOfCharacter(TypeofCharacter.PERSON);
+	public static final int ANIMAL = typeOfCharacter(TypeofCharacter.ANIMAL);
+
+	/**
+	 * number of registered traits
+	 */
+	public static final int SIZE = NAMES.size();
+
+	private TraitRegistry() {
+	}
+
+	/**
+	 * registers a trait name. Traits sharing a name share the ordinal, the same
+	 * way they shared the key of a map
+	 *
+	 * @param name name of the trait
+	 * @return ordinal of the trait
+	 */
+	private static int register(String name) {
+		Integer ordinal = ORDINALS.get(name);
+		if (ordinal == null) {
+			ordinal = NAMES.size();
+			NAMES.add(name);
+			ORDINALS.put(name, ordinal);
+		}
+		return ordinal;
+	}
+
+	/**
+	 * registers the names of enum constants
+	 *
+	 * @param values enum constants
+	 * @return ordinals of the traits indexed by the ordinal of the constants
+	 */
+	private static int[] register(Enum<?>[] values) {
+		int[] ordinals = new int[values.length];
+		for (int i = 0; i < values.length; i++) {
+			ordinals[i] = register(values[i].toString());
+		}
+		return ordinals;
+	}
+
+	/**
+	 * gets the ordinal of a trait name
+	 *
+	 * @param name name of the trait
+	 * @return ordinal of the trait, -1 if the trait is not registered
+	 */
+	public static int ordinalOf(String name) {
+		Integer ordinal = ORDINALS.get(name);
+		return ordinal == null ? -1 : ordinal;
+	}
+
+	/**
+	 * gets the name of a trait
+	 *
+	 * @param ordinal ordinal of the trait
+	 * @return name of the trait
+	 */
+	public static String nameOf(int ordinal) {
+		return NAMES.get(ordinal);
+	}
+
+	/**
+	 * @param bodyType body type of a person
+	 * @return ordinal of the trait
+	 */
+	public static int bodyType(BodyType bodyType) {
+		return BODY_TYPES[bodyType.ordinal()];
+	}
+
+	/**
+	 * @param gender gender of a person
+	 * @return ordinal of the trait
+	 */
+	public static int gender(Gender gender) {
+		return GENDERS[gender.ordinal()];
+	}
+
+	/**
+	 * @param typeOfCharacter type of a character
+	 * @return ordinal of the trait
+	 */
+	public static int typeOfCharacter(TypeofCharacter typeOfCharacter) {
+		return TYPES_OF_CHARACTER[typeOfCharacter.ordinal()];
+	}
+
+	/**
+	 * @param profession profession of a person
+	 * @return ordinal of the trait
+	 */
+	public static int profession(Profession profession) {
+		return PROFESSIONS[profession.ordinal()];
+	}
+
+	/**
+	 * @param ageCategory age category of a person
+	 * @return ordinal of the trait
+	 */
+	public static int ageCategory(AgeCategory ageCategory) {
+		return AGE_CATEGORIES[ageCategory.ordinal()];
+	}
+}
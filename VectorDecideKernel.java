@@ -0,0 +1,96 @@
+import ethicalengine.ScenarioBatch;
+import ethicalengine.ScoringTable;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Decides a batch of scenarios with the Vector API. The importance of the
+ * characters is gathered from the scoring table a vector at a time and
+ * reduced per side of every scenario. Only loaded when the
+ * jdk.incubator.vector module is present
+ * 
+ * @author Sharodh Keelamanakudi Ragupathi(1148618)
+ */
+final class VectorDecideKernel {
+
+	private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+	private static volatile Importances importances = null;
+
+	private VectorDecideKernel() {
+	}
+
+	/**
+	 * Copy of the importances of a scoring table. Tables are immutable, so the
+	 * copy is only taken again when another table is active
+	 */
+	private static final class Importances {
+
+		private final ScoringTable table;
+		private final int[] values;
+
+		Importances(ScoringTable table) {
+			this.table = table;
+			this.values = table.getImportances();
+		}
+	}
+
+	/**
+	 * decides whom to save for every scenario of a batch
+	 * 
+	 * @param batch scenarios for which decisions have to be made
+	 * @return ordinal of the Decision of every scenario
+	 */
+	static byte[] decideAll(ScenarioBatch batch) {
+		byte[] decisions = new byte[batch.getScenarioCount()];
+		ScoringTable table = ScoringTable.getActive();
+		Importances tableImportances = VectorDecideKernel.importances;
+		if (tableImportances == null || tableImportances.table != table) {
+			tableImportances = new Importances(table);
+			VectorDecideKernel.importances = tableImportances;
+		}
+		int[] importances = tableImportances.values;
+		int illegalCrossingPenalty = table.getIllegalCrossingPenalty();
+		int[] codes = batch.getImportanceCodeColumn();
+		int[] offsets = batch.getScenarioOffsets();
+		int[] pedestrianOffsets = batch.getPedestrianOffsets();
+		boolean[] isLegalCrossing = batch.getLegalCrossingColumn();
+
+		for (int i = 0; i < decisions.length; i++) {
+			int passengerImportance = sumImportance(importances, codes, offsets[i], pedestrianOffsets[i]);
+			int pedImportance = sumImportance(importances, codes, pedestrianOffsets[i], offsets[i + 1]);
+			pedImportance += isLegalCrossing[i] ? 0 : (offsets[i + 1] - pedestrianOffsets[i]) * illegalCrossingPenalty;
+
+			decisions[i] = (byte) (pedImportance > passengerImportance ? EthicalEngine.Decision.PEDESTRIANS
+					: EthicalEngine.Decision.PASSENGERS).ordinal();
+		}
+		return decisions;
+	}
+
+	/**
+	 * adds the importance of a range of characters
+	 * 
+	 * @param importances importance of every code
+	 * @param codes       importance codes of the characters
+	 * @param from        first character of the range
+	 * @param to          end of the range (exclusive)
+	 * @return cumulative importance of the characters
+	 */
+	private static int sumImportance(int[] importances, int[] codes, int from, int to) {
+		int i = from;
+		int importance = 0;
+		int upperBound = from + SPECIES.loopBound(to - from);
+		if (i < upperBound) {
+			IntVector sum = IntVector.zero(SPECIES);
+			for (; i < upperBound; i += SPECIES.length()) {
+				sum = sum.add(IntVector.fromArray(SPECIES, importances, 0, codes, i));
+			}
+			importance = sum.reduceLanes(VectorOperators.ADD);
+		}
+		for (; i < to; i++) {
+			importance += importances[codes[i]];
+		}
+		return importance;
+	}
+}
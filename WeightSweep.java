@@ -0,0 +1,538 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import ethicalengine.Character;
+import ethicalengine.ImportanceTable;
+import ethicalengine.Scenario;
+import ethicalengine.ScoringTable;
+
+/**
+ * Audits a corpus of scenarios with many weight vectors at once. The margin of
+ * a decision, the importance of the pedestrians with their penalty minus the
+ * importance of the passengers, is linear in the weights, so every scenario is
+ * reduced once to a row of feature counts: for every weight, how many more
+ * pedestrians than passengers it applies to, and the number of pedestrians
+ * for the penalty of an illegal crossing. Scoring a vector is then the dot
+ * product of the row with the vector. The traits of the scenarios are reduced
+ * the same way, to their saved counts when the pedestrians are saved and the
+ * difference when the passengers are saved instead, so the statistics of a
+ * vector only add the differences of the scenarios it saves the passengers
+ * of. The vectors and the scenarios are split across a pool of workers
+ *
+ * @author Sharodh Keelamanakudi Ragupathi(1148618)
+ */
+public class WeightSweep {
+
+	static final String[] KEYS = ScoringTable.getDefaultWeights().keySet().toArray(new String[0]);
+	static final int MAX_VECTORS = 1 << 24;
+	static final long MIN_WORK_PER_TASK = 1 << 18;
+	static final int TASKS_PER_WORKER = 8;
+	static final String AVERAGE_AGE_COLUMN = "average age";
+
+	private final int scenarioCount;
+	private final int[] features;
+
+	private final List<String> traitNames = new ArrayList<String>();
+	private final int[] columnOfOrdinal = new int[TraitRegistry.SIZE];
+	private final Map<String, Integer> columnOfExtra = new HashMap<String, Integer>();
+	private long[] allCounts = new long[TraitRegistry.SIZE];
+	private long[] baseSafeCounts = new long[TraitRegistry.SIZE];
+	private final int[] deltaOffsets;
+	private int[] deltaColumns = new int[1024];
+	private long[] deltaValues = new long[1024];
+	private long baseAge = 0;
+	private long baseSurvivors = 0;
+	private final long[] deltaAges;
+	private final long[] deltaSurvivors;
+
+	/**
+	 * reduces the scenarios of a corpus to their features and trait counts
+	 *
+	 * @param scenarios scenarios of the corpus
+	 */
+	public WeightSweep(Scenario[] scenarios) {
+		this.scenarioCount = scenarios.length;
+		this.features = new int[scenarios.length * KEYS.length];
+		this.deltaOffsets = new int[scenarios.length + 1];
+		this.deltaAges = new long[scenarios.length];
+		this.deltaSurvivors = new long[scenarios.length];
+		Arrays.fill(columnOfOrdinal, -1);
+
+		int[][] featuresOfCode = getFeaturesOfCodes();
+		int illegalCrossingFeature = Arrays.asList(KEYS).indexOf(ScoringTable.ILLEGAL_CROSSING_KEY);
+		ScenarioTraits sceneTraits = new ScenarioTraits();
+		int deltaCount = 0;
+		for (int i = 0; i < scenarios.length; i++) {
+			Scenario scene = scenarios[i];
+			int row = i * KEYS.length;
+			for (Character character : scene.getPedestrians()) {
+				for (int feature : featuresOfCode[character.getImportanceCode()]) {
+					features[row + feature]++;
+				}
+			}
+			for (Character character : scene.getPassengers()) {
+				for (int feature : featuresOfCode[character.getImportanceCode()]) {
+					features[row + feature]--;
+				}
+			}
+			if (!scene.isLegalCrossing()) {
+				features[row + illegalCrossingFeature] = scene.getPedestrianCount();
+			}
+
+			sceneTraits.extract(scene);
+			for (int slot = 0; slot < sceneTraits.size(); slot++) {
+				int column = getColumn(sceneTraits.getOrdinal(slot), sceneTraits.getExtraName(slot));
+				long passengerCount = sceneTraits.getPassengerCount(slot);
+				long pedestrianCount = sceneTraits.getPedestrianCount(slot);
+				deltaCount = addCounts(deltaCount, column, passengerCount, pedestrianCount,
+						passengerCount + pedestrianCount);
+			}
+			if (scene.hasYouInCar() || scene.hasYouInLane()) {
+				deltaCount = addCounts(deltaCount, getColumn(TraitRegistry.YOU, null), scene.hasYouInCar() ? 1 : 0,
+						scene.hasYouInLane() ? 1 : 0, 1);
+			}
+			deltaCount = addCounts(deltaCount,
+					getColumn(scene.isLegalCrossing() ? TraitRegistry.GREEN : TraitRegistry.RED, null),
+					scene.getPassengerCount(), scene.getPedestrianCount(),
+					scene.getPassengerCount() + scene.getPedestrianCount());
+			deltaOffsets[i + 1] = deltaCount;
+
+			baseAge += sceneTraits.getTotalAge(false);
+			baseSurvivors += sceneTraits.getPersonCount(false);
+			deltaAges[i] = sceneTraits.getTotalAge(true) - sceneTraits.getTotalAge(false);
+			deltaSurvivors[i] = sceneTraits.getPersonCount(true) - sceneTraits.getPersonCount(false);
+		}
+	}
+
+	/**
+	 * gets the features every importance code adds to, the index of its age
+	 * category, profession, pregnant and you weights for a person and of the pet
+	 * weight for a pet
+	 *
+	 * @return indices of the features of every code
+	 */
+	private static int[][] getFeaturesOfCodes() {
+		List<String> keys = Arrays.asList(KEYS);
+		int[][] featuresOfCode = new int[ImportanceTable.CODE_COUNT][];
+		for (int code = 0; code < ImportanceTable.CODE_COUNT; code++) {
+			if (ImportanceTable.isPerson(code)) {
+				int[] codeFeatures = new int[4];
+				int count = 0;
+				codeFeatures[count++] = keys.indexOf(ScoringTable.AGE_PREFIX + ImportanceTable.ageCategoryOf(code));
+				codeFeatures[count++] = keys.indexOf(ScoringTable.PROFESSION_PREFIX + ImportanceTable.professionOf(code));
+				if (ImportanceTable.isPregnant(code)) {
+					codeFeatures[count++] = keys.indexOf(ScoringTable.PREGNANT_KEY);
+				}
+				if (ImportanceTable.isYou(code)) {
+					codeFeatures[count++] = keys.indexOf(ScoringTable.YOU_KEY);
+				}
+				featuresOfCode[code] = Arrays.copyOf(codeFeatures, count);
+			} else if (code == ImportanceTable.PET_CODE) {
+				featuresOfCode[code] = new int[] { keys.indexOf(ScoringTable.PET_KEY) };
+			} else {
+				featuresOfCode[code] = new int[0];
+			}
+		}
+		return featuresOfCode;
+	}
+
+	/**
+	 * gets the column of a trait in the table of survival ratios, adding the
+	 * column when the trait is met for the first time
+	 *
+	 * @param ordinal   ordinal of a registered trait
+	 * @param extraName name of a trait which is not registered, null otherwise
+	 * @return column of the trait
+	 */
+	private int getColumn(int ordinal, String extraName) {
+		if (extraName == null && columnOfOrdinal[ordinal] >= 0) {
+			return columnOfOrdinal[ordinal];
+		}
+		if (extraName != null && columnOfExtra.containsKey(extraName)) {
+			return columnOfExtra.get(extraName);
+		}
+		int column = traitNames.size();
+		if (extraName == null) {
+			traitNames.add(TraitRegistry.nameOf(ordinal));
+			columnOfOrdinal[ordinal] = column;
+		} else {
+			traitNames.add(extraName);
+			columnOfExtra.put(extraName, column);
+		}
+		if (column == allCounts.length) {
+			allCounts = Arrays.copyOf(allCounts, column * 2);
+			baseSafeCounts = Arrays.copyOf(baseSafeCounts, column * 2);
+		}
+		return column;
+	}
+
+	/**
+	 * adds the counts of a trait of a scenario
+	 *
+	 * @param deltaCount      number of differences stored so far
+	 * @param column          column of the trait
+	 * @param passengerSafe   saved count when the passengers are saved
+	 * @param pedestrianSafe  saved count when the pedestrians are saved
+	 * @param allCount        count of all characters
+	 * @return number of differences stored
+	 */
+	private int addCounts(int deltaCount, int column, long passengerSafe, long pedestrianSafe, long allCount) {
+		allCounts[column] += allCount;
+		baseSafeCounts[column] += pedestrianSafe;
+		if (passengerSafe == pedestrianSafe) {
+			return deltaCount;
+		}
+		if (deltaCount == deltaColumns.length) {
+			deltaColumns = Arrays.copyOf(deltaColumns, deltaCount * 2);
+			deltaValues = Arrays.copyOf(deltaValues, deltaCount * 2);
+		}
+		deltaColumns[deltaCount] = column;
+		deltaValues[deltaCount] = passengerSafe - pedestrianSafe;
+		return deltaCount + 1;
+	}
+
+	/**
+	 * audits the corpus with every weight vector
+	 *
+	 * @param vectors     weight vectors, with a weight per key of {@link #KEYS}
+	 * @param parallelism number of workers
+	 * @return statistics of every vector
+	 */
+	public Result evaluate(int[][] vectors, int parallelism) {
+		long work = (long) vectors.length * Math.max(scenarioCount, 1);
+		long threshold = Math.max(MIN_WORK_PER_TASK, work / ((long) parallelism * TASKS_PER_WORKER));
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			Result result = pool.invoke(new SweepTask(vectors, 0, vectors.length, 0, scenarioCount, threshold));
+			for (int v = 0; v < vectors.length; v++) {
+				for (int column = 0; column < traitNames.size(); column++) {
+					result.safeCounts[v][column] += baseSafeCounts[column];
+				}
+				result.totalAges[v] += baseAge;
+				result.survivors[v] += baseSurvivors;
+			}
+			return result;
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * writes the survival ratios of every vector as a CSV table, a row per
+	 * vector with its weights, the ratio of every trait and the average age
+	 *
+	 * @param out     destination of the table
+	 * @param vectors weight vectors
+	 * @param result  statistics of the vectors
+	 * @throws IOException
+	 */
+	public void write(Writer out, int[][] vectors, Result result) throws IOException {
+		StringBuilder row = new StringBuilder();
+		for (String key : KEYS) {
+			row.append(key).append(',');
+		}
+		for (String trait : traitNames) {
+			row.append(trait).append(',');
+		}
+		out.append(row.append(AVERAGE_AGE_COLUMN).append('\n'));
+		for (int v = 0; v < vectors.length; v++) {
+			row.setLength(0);
+			for (int weight : vectors[v]) {
+				row.append(weight).append(',');
+			}
+			for (int column = 0; column < traitNames.size(); column++) {
+				float ratio = (float) result.safeCounts[v][column] / (float) allCounts[column];
+				ReportWriter.appendFixed(row, ratio, ReportWriter.DATA_DIGITS).append(',');
+			}
+			float avgAge = (float) result.totalAges[v] / (float) result.survivors[v];
+			out.append(ReportWriter.appendFixed(row, avgAge, ReportWriter.DATA_DIGITS).append('\n'));
+		}
+	}
+
+	/**
+	 * audits a corpus with every weight vector and writes the table of survival
+	 * ratios to a file
+	 *
+	 * @param scenarios   scenarios of the corpus
+	 * @param vectors     weight vectors
+	 * @param parallelism number of workers
+	 * @param file        CSV file of the table
+	 * @throws IOException
+	 */
+	public static void run(Scenario[] scenarios, int[][] vectors, int parallelism, File file) throws IOException {
+		WeightSweep sweep = new WeightSweep(scenarios);
+		Result result = sweep.evaluate(vectors, parallelism);
+		try (Writer out = new BufferedWriter(new FileWriter(file))) {
+			sweep.write(out, vectors, result);
+		}
+	}
+
+	/**
+	 * creates the vectors of a grid of weights, every combination of the values
+	 * of the swept weights with the other weights at their default
+	 *
+	 * @param ranges swept weights like criminal=-5:5 or illegalCrossing=0:-5:1,
+	 *               with the step defaulting to 1
+	 * @return weight vectors
+	 * @throws IllegalArgumentException if a range is malformed or the grid is
+	 *                                  too large
+	 */
+	public static int[][] grid(List<String> ranges) {
+		List<String> keys = Arrays.asList(KEYS);
+		int[] sweptKeys = new int[ranges.size()];
+		int[][] values = new int[ranges.size()][];
+		long vectorCount = 1;
+		for (int r = 0; r < ranges.size(); r++) {
+			String range = ranges.get(r);
+			int separator = range.indexOf('=');
+			sweptKeys[r] = separator < 0 ? -1 : keys.indexOf(range.substring(0, separator).trim());
+			if (sweptKeys[r] < 0) {
+				throw new IllegalArgumentException(String.format("ERROR: unknown weight in range %s.", range));
+			}
+			String[] bounds = range.substring(separator + 1).split(":");
+			if (bounds.length < 2 || bounds.length > 3) {
+				throw new IllegalArgumentException(String.format("ERROR: range %s must be key=from:to[:step].", range));
+			}
+			try {
+				int from = Integer.parseInt(bounds[0].trim());
+				int to = Integer.parseInt(bounds[1].trim());
+				int step = bounds.length == 3 ? Math.abs(Integer.parseInt(bounds[2].trim())) : 1;
+				if (step == 0) {
+					throw new NumberFormatException();
+				}
+				values[r] = new int[Math.abs(to - from) / step + 1];
+				for (int i = 0; i < values[r].length; i++) {
+					values[r][i] = from + (to >= from ? i * step : -i * step);
+				}
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException(String.format("ERROR: range %s must be key=from:to[:step].", range));
+			}
+			vectorCount *= values[r].length;
+			if (vectorCount > MAX_VECTORS) {
+				throw new IllegalArgumentException(String.format("ERROR: grid has more than %d vectors.", MAX_VECTORS));
+			}
+		}
+
+		int[] defaults = getDefaultVector();
+		int[][] vectors = new int[(int) vectorCount][];
+		for (int v = 0; v < vectors.length; v++) {
+			vectors[v] = defaults.clone();
+			int index = v;
+			for (int r = ranges.size() - 1; r >= 0; r--) {
+				vectors[v][sweptKeys[r]] = values[r][index % values[r].length];
+				index /= values[r].length;
+			}
+		}
+		return vectors;
+	}
+
+	/**
+	 * reads weight vectors from a CSV file whose header names the weights of
+	 * the columns, the weights without a column keep their default
+	 *
+	 * @param file CSV file of weight vectors
+	 * @return weight vectors
+	 * @throws IOException
+	 * @throws IllegalArgumentException if a column is not a weight or a value
+	 *                                  is not a number
+	 */
+	public static int[][] readVectors(File file) throws IOException {
+		List<String> keys = Arrays.asList(KEYS);
+		List<int[]> vectors = new ArrayList<int[]>();
+		try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+			String header = reader.readLine();
+			if (header == null) {
+				throw new IllegalArgumentException("ERROR: weight vectors file is empty.");
+			}
+			String[] columns = header.split(",");
+			int[] columnKeys = new int[columns.length];
+			for (int c = 0; c < columns.length; c++) {
+				columnKeys[c] = keys.indexOf(columns[c].trim());
+				if (columnKeys[c] < 0) {
+					throw new IllegalArgumentException(String.format("ERROR: unknown weight %s.", columns[c].trim()));
+				}
+			}
+			int[] defaults = getDefaultVector();
+			String line;
+			int lineNumber = 1;
+			while ((line = reader.readLine()) != null) {
+				lineNumber++;
+				if (line.trim().isEmpty()) {
+					continue;
+				}
+				String[] cells = line.split(",", -1);
+				if (cells.length != columns.length) {
+					throw new IllegalArgumentException(
+							String.format("ERROR: weight vector in line %d has %d values.", lineNumber, cells.length));
+				}
+				int[] vector = defaults.clone();
+				for (int c = 0; c < cells.length; c++) {
+					try {
+						vector[columnKeys[c]] = Integer.parseInt(cells[c].trim());
+					} catch (NumberFormatException e) {
+						throw new IllegalArgumentException(
+								String.format("ERROR: weight in line %d must be a number.", lineNumber));
+					}
+				}
+				vectors.add(vector);
+			}
+		}
+		return vectors.toArray(new int[0][]);
+	}
+
+	/**
+	 * gets the weights of the default scoring table
+	 *
+	 * @return default weight vector
+	 */
+	static int[] getDefaultVector() {
+		Map<String, Integer> weights = ScoringTable.getDefaultWeights();
+		int[] vector = new int[KEYS.length];
+		for (int k = 0; k < KEYS.length; k++) {
+			vector[k] = weights.get(KEYS[k]);
+		}
+		return vector;
+	}
+
+	/**
+	 * Saved counts of every trait and the saved persons of a range of weight
+	 * vectors
+	 */
+	public static class Result {
+
+		final long[][] safeCounts;
+		final long[] totalAges;
+		final long[] survivors;
+
+		/**
+		 * creates empty statistics
+		 *
+		 * @param vectorCount number of vectors
+		 * @param traitCount  number of traits
+		 */
+		Result(int vectorCount, int traitCount) {
+			this.safeCounts = new long[vectorCount][traitCount];
+			this.totalAges = new long[vectorCount];
+			this.survivors = new long[vectorCount];
+		}
+	}
+
+	/**
+	 * Scores a range of vectors on a range of scenarios, splitting the larger of
+	 * the two ranges while the work is larger than the threshold. Ranges of
+	 * vectors are joined side by side and ranges of scenarios are added up
+	 */
+	private class SweepTask extends RecursiveTask<Result> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int[][] vectors;
+		private final int vectorFrom;
+		private final int vectorTo;
+		private final int scenarioFrom;
+		private final int scenarioTo;
+		private final long threshold;
+
+		/**
+		 * creates a task for the vectors in [vectorFrom, vectorTo) and the scenarios
+		 * in [scenarioFrom, scenarioTo)
+		 *
+		 * @param vectors      weight vectors
+		 * @param vectorFrom   first vector of the range
+		 * @param vectorTo     end of the vector range (exclusive)
+		 * @param scenarioFrom first scenario of the range
+		 * @param scenarioTo   end of the scenario range (exclusive)
+		 * @param threshold    max number of vector and scenario pairs scored
+		 *                     without splitting
+		 */
+		SweepTask(int[][] vectors, int vectorFrom, int vectorTo, int scenarioFrom, int scenarioTo, long threshold) {
+			this.vectors = vectors;
+			this.vectorFrom = vectorFrom;
+			this.vectorTo = vectorTo;
+			this.scenarioFrom = scenarioFrom;
+			this.scenarioTo = scenarioTo;
+			this.threshold = threshold;
+		}
+
+		@Override
+		protected Result compute() {
+			int vectorCount = vectorTo - vectorFrom;
+			int scenarios = scenarioTo - scenarioFrom;
+			if ((long) vectorCount * scenarios <= threshold || (vectorCount <= 1 && scenarios <= 1)) {
+				return score();
+			}
+			if (vectorCount >= scenarios) {
+				int middle = (vectorFrom + vectorTo) >>> 1;
+				SweepTask left = new SweepTask(vectors, vectorFrom, middle, scenarioFrom, scenarioTo, threshold);
+				left.fork();
+				Result right = new SweepTask(vectors, middle, vectorTo, scenarioFrom, scenarioTo, threshold).compute();
+				Result leftResult = left.join();
+				Result result = new Result(vectorCount, 0);
+				int leftCount = middle - vectorFrom;
+				for (int v = 0; v < vectorCount; v++) {
+					Result part = v < leftCount ? leftResult : right;
+					int index = v < leftCount ? v : v - leftCount;
+					result.safeCounts[v] = part.safeCounts[index];
+					result.totalAges[v] = part.totalAges[index];
+					result.survivors[v] = part.survivors[index];
+				}
+				return result;
+			}
+			int middle = (scenarioFrom + scenarioTo) >>> 1;
+			SweepTask left = new SweepTask(vectors, vectorFrom, vectorTo, scenarioFrom, middle, threshold);
+			left.fork();
+			Result right = new SweepTask(vectors, vectorFrom, vectorTo, middle, scenarioTo, threshold).compute();
+			Result leftResult = left.join();
+			for (int v = 0; v < vectorCount; v++) {
+				for (int column = 0; column < traitNames.size(); column++) {
+					leftResult.safeCounts[v][column] += right.safeCounts[v][column];
+				}
+				leftResult.totalAges[v] += right.totalAges[v];
+				leftResult.survivors[v] += right.survivors[v];
+			}
+			return leftResult;
+		}
+
+		/**
+		 * scores the vectors on the scenarios and adds the differences of the
+		 * scenarios whose passengers are saved
+		 *
+		 * @return statistics of the vectors on the scenarios
+		 */
+		private Result score() {
+			int keyCount = KEYS.length;
+			Result result = new Result(vectorTo - vectorFrom, traitNames.size());
+			for (int i = scenarioFrom; i < scenarioTo; i++) {
+				int row = i * keyCount;
+				for (int v = vectorFrom; v < vectorTo; v++) {
+					int[] vector = vectors[v];
+					long margin = 0;
+					for (int k = 0; k < keyCount; k++) {
+						margin += (long) features[row + k] * vector[k];
+					}
+					if (margin <= 0) {
+						long[] safeCounts = result.safeCounts[v - vectorFrom];
+						for (int d = deltaOffsets[i]; d < deltaOffsets[i + 1]; d++) {
+							safeCounts[deltaColumns[d]] += deltaValues[d];
+						}
+						result.totalAges[v - vectorFrom] += deltaAges[i];
+						result.survivors[v - vectorFrom] += deltaSurvivors[i];
+					}
+				}
+			}
+			return result;
+		}
+	}
+}
@@ -0,0 +1,53 @@
+package benchmark;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ethicalengine.Scenario;
+
+/**
+ * Throughput of the config file parser for scenarios of increasing size. The
+ * config is held in a direct buffer, like a mapped file, so that only parsing
+ * is measured.
+ * 
+ * @author Sharodh Keelamanakudi Ragupathi(1148618)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfigParseBenchmark {
+
+	static final int SCENARIOS = 16;
+
+	@Param({ "1", "5", "64", "1024" })
+	int size;
+
+	ByteBuffer config;
+
+	@Setup
+	public void setUp() {
+		byte[] bytes = Corpus.config(Corpus.scenarios(SCENARIOS, size)).getBytes(Charset.defaultCharset());
+		config = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+	}
+
+	@Benchmark
+	public Scenario[] readDataFromConfig() {
+		return Engine.readConfig(config.duplicate());
+	}
+}
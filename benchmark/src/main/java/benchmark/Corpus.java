@@ -0,0 +1,82 @@
+package benchmark;
+
+import ethicalengine.Animal;
+import ethicalengine.Character;
+import ethicalengine.Person;
+import ethicalengine.Scenario;
+import ethicalengine.ScenarioGenerator;
+
+/**
+ * Builds reproducible scenario corpora for the benchmarks
+ * 
+ * @author Sharodh Keelamanakudi Ragupathi(1148618)
+ */
+final class Corpus {
+
+	static final long SEED = 90041L;
+
+	static final String CONFIG_HEADER = "class,gender,age,bodyType,profession,pregnant,isYou,species,isPet,role";
+
+	private Corpus() {
+	}
+
+	/**
+	 * creates a generator producing exactly size passengers and size pedestrians
+	 * 
+	 * @param size number of characters on each side
+	 * @return seeded scenario generator
+	 */
+	static ScenarioGenerator generator(int size) {
+		return new ScenarioGenerator(SEED, size, size + 1, size, size + 1);
+	}
+
+	/**
+	 * generates scenarios with exactly size characters on each side
+	 * 
+	 * @param count number of scenarios
+	 * @param size  number of characters on each side
+	 * @return generated scenarios
+	 */
+	static Scenario[] scenarios(int count, int size) {
+		ScenarioGenerator generator = generator(size);
+		Scenario[] scenarios = new Scenario[count];
+		for (int i = 0; i < count; i++) {
+			scenarios[i] = generator.generate();
+		}
+		return scenarios;
+	}
+
+	/**
+	 * renders scenarios in the config file format
+	 * 
+	 * @param scenarios scenarios to be rendered
+	 * @return content of a config file
+	 */
+	static String config(Scenario[] scenarios) {
+		StringBuilder config = new StringBuilder(CONFIG_HEADER).append('\n');
+		for (Scenario scenario : scenarios) {
+			config.append("scenario:").append(scenario.isLegalCrossing() ? "green" : "red").append(",,,,,,,,,\n");
+			appendCharacters(config, scenario.getPassengers(), "passenger");
+			appendCharacters(config, scenario.getPedestrians(), "pedestrian");
+		}
+		return config.toString();
+	}
+
+	private static void appendCharacters(StringBuilder config, Character[] characters, String role) {
+		for (Character character : characters) {
+			if (character instanceof Person) {
+				Person person = (Person) character;
+				config.append("person,").append(person.getGender()).append(',').append(person.getAge()).append(',')
+						.append(person.getBodyType()).append(',')
+						.append(person.getProfession() == Person.Profession.NONE ? "" : person.getProfession())
+						.append(',').append(person.isPregnant()).append(',').append(person.isYou()).append(",,,");
+			} else {
+				Animal animal = (Animal) character;
+				config.append("animal,").append(animal.getGender()).append(',').append(animal.getAge())
+						.append(",,,false,false,").append(animal.getSpecies()).append(',').append(animal.isPet())
+						.append(',');
+			}
+			config.append(role).append('\n');
+		}
+	}
+}
@@ -0,0 +1,63 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import ethicalengine.Scenario;
+import ethicalengine.ScenarioBatch;
+
+/**
+ * Throughput of EthicalEngine.decide and of EthicalEngine.decideAll on the
+ * columnar batch for scenarios of increasing size
+ * 
+ * @author Sharodh Keelamanakudi Ragupathi(1148618)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DecideBenchmark {
+
+	static final int SCENARIOS = 64;
+
+	@Param({ "1", "5", "64", "1024", "4096" })
+	int size;
+
+	Scenario[] scenarios;
+	ScenarioBatch batch;
+
+	@Setup
+	public void setUp() {
+		scenarios = Corpus.scenarios(SCENARIOS, size);
+		batch = ScenarioBatch.of(scenarios);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(SCENARIOS)
+	public void decide(Blackhole blackhole) {
+		for (Scenario scenario : scenarios) {
+			blackhole.consume(Engine.decide(scenario));
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(SCENARIOS)
+	public byte[] decideAll() {
+		return Engine.decideAll(batch);
+	}
+}
@@ -0,0 +1,82 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import ethicalengine.Character;
+import ethicalengine.Scenario;
+
+/**
+ * Throughput of EthicalEngine.decide on a replay corpus, where a few distinct
+ * scenarios come back over and over with their characters in another order,
+ * with and without the decision cache
+ * 
+ * @author Sharodh Keelamanakudi Ragupathi(1148618)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DecisionCacheBenchmark {
+
+	static final int SCENARIOS = 1024;
+	static final int DISTINCT_SCENARIOS = 64;
+
+	@Param({ "1", "5", "64", "1024" })
+	int size;
+
+	@Param({ "0", "4096" })
+	int capacity;
+
+	Scenario[] scenarios;
+
+	@Setup
+	public void setUp() {
+		Scenario[] distinct = Corpus.scenarios(DISTINCT_SCENARIOS, size);
+		scenarios = new Scenario[SCENARIOS];
+		for (int i = 0; i < SCENARIOS; i++) {
+			Scenario scenario = distinct[i % DISTINCT_SCENARIOS];
+			int shift = i / DISTINCT_SCENARIOS;
+			scenarios[i] = new Scenario(rotate(scenario.getPassengers(), shift),
+					rotate(scenario.getPedestrians(), shift), scenario.isLegalCrossing());
+		}
+		Engine.setDecisionCache(capacity);
+	}
+
+	@TearDown
+	public void tearDown() {
+		Engine.setDecisionCache(0);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(SCENARIOS)
+	public void decide(Blackhole blackhole) {
+		for (Scenario scenario : scenarios) {
+			blackhole.consume(Engine.decide(scenario));
+		}
+	}
+
+	private static Character[] rotate(Character[] characters, int shift) {
+		Character[] rotated = new Character[characters.length];
+		for (int i = 0; i < characters.length; i++) {
+			rotated[i] = characters[(i + shift) % characters.length];
+		}
+		return rotated;
+	}
+}
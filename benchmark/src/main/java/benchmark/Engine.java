@@ -0,0 +1,163 @@
+package benchmark;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.ByteBuffer;
+
+import ethicalengine.Scenario;
+import ethicalengine.ScenarioBatch;
+
+/**
+ * Bridge to the engine classes living in the default package. JMH benchmarks
+ * must be in a named package and therefore cannot reference those classes
+ * directly, so they are reached through constant method handles which the JIT
+ * inlines like a direct call.
+ * 
+ * @author Sharodh Keelamanakudi Ragupathi(1148618)
+ */
+final class Engine {
+
+	private static final MethodHandle DECIDE;
+	private static final MethodHandle DECIDE_ALL;
+	private static final MethodHandle SET_VECTOR_KERNEL_ENABLED;
+	private static final MethodHandle NEW_DECISION_CACHE;
+	private static final MethodHandle SET_DECISION_CACHE;
+	private static final MethodHandle PARSE_CONFIG;
+	private static final MethodHandle NEW_TRAIT_ACCUMULATOR;
+	private static final MethodHandle ADD_SCENARIO;
+
+	static {
+		try {
+			MethodHandles.Lookup lookup = MethodHandles.lookup();
+			Class<?> engineClass = Class.forName("EthicalEngine");
+
+			DECIDE = lookup.findStatic(engineClass, "decide",
+					MethodType.methodType(Class.forName("EthicalEngine$Decision"), Scenario.class))
+					.asType(MethodType.methodType(Object.class, Scenario.class));
+			DECIDE_ALL = lookup.findStatic(engineClass, "decideAll",
+					MethodType.methodType(byte[].class, ScenarioBatch.class));
+			SET_VECTOR_KERNEL_ENABLED = lookup.findStatic(engineClass, "setVectorKernelEnabled",
+					MethodType.methodType(boolean.class, boolean.class));
+
+			Class<?> cacheClass = Class.forName("DecisionCache");
+			NEW_DECISION_CACHE = lookup.findConstructor(cacheClass, MethodType.methodType(void.class, int.class))
+					.asType(MethodType.methodType(Object.class, int.class));
+			SET_DECISION_CACHE = lookup.findStatic(engineClass, "setDecisionCache",
+					MethodType.methodType(void.class, cacheClass))
+					.asType(MethodType.methodType(void.class, Object.class));
+
+			PARSE_CONFIG = lookup.findStatic(Class.forName("ConfigParser"), "parse",
+					MethodType.methodType(Scenario[].class, ByteBuffer.class));
+
+			Class<?> accumulatorClass = Class.forName("TraitAccumulator");
+			NEW_TRAIT_ACCUMULATOR = lookup.findConstructor(accumulatorClass, MethodType.methodType(void.class))
+					.asType(MethodType.methodType(Object.class));
+			ADD_SCENARIO = lookup.findVirtual(accumulatorClass, "addScenario",
+					MethodType.methodType(void.class, Scenario.class, Class.forName("EthicalEngine$Decision")))
+					.asType(MethodType.methodType(void.class, Object.class, Scenario.class, Object.class));
+		} catch (ReflectiveOperationException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	private Engine() {
+	}
+
+	/**
+	 * decides whom to save through EthicalEngine.decide
+	 * 
+	 * @param scenario scenario to be decided
+	 * @return the EthicalEngine.Decision constant
+	 */
+	static Object decide(Scenario scenario) {
+		try {
+			return DECIDE.invokeExact(scenario);
+		} catch (Throwable e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * decides whom to save for a batch through EthicalEngine.decideAll
+	 * 
+	 * @param batch scenarios to be decided
+	 * @return ordinals of the decisions
+	 */
+	static byte[] decideAll(ScenarioBatch batch) {
+		try {
+			return (byte[]) DECIDE_ALL.invokeExact(batch);
+		} catch (Throwable e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * enables the vector kernel of EthicalEngine.decideAll
+	 * 
+	 * @param enabled if the vector kernel should be used
+	 * @return if the vector kernel is enabled
+	 */
+	static boolean setVectorKernelEnabled(boolean enabled) {
+		try {
+			return (boolean) SET_VECTOR_KERNEL_ENABLED.invokeExact(enabled);
+		} catch (Throwable e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * sets the decision cache of EthicalEngine.decide
+	 * 
+	 * @param capacity max number of cached decisions, 0 to disable the cache
+	 */
+	static void setDecisionCache(int capacity) {
+		try {
+			SET_DECISION_CACHE.invokeExact(capacity > 0 ? NEW_DECISION_CACHE.invokeExact(capacity) : (Object) null);
+		} catch (Throwable e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * parses config file content through ConfigParser.parse
+	 * 
+	 * @param config content of a config file, from position to limit
+	 * @return parsed scenarios
+	 */
+	static Scenario[] readConfig(ByteBuffer config) {
+		try {
+			return (Scenario[]) PARSE_CONFIG.invokeExact(config);
+		} catch (Throwable e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * creates an empty TraitAccumulator
+	 * 
+	 * @return the accumulator
+	 */
+	static Object newTraitAccumulator() {
+		try {
+			return NEW_TRAIT_ACCUMULATOR.invokeExact();
+		} catch (Throwable e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * adds the traits of a decided scenario through TraitAccumulator.addScenario
+	 * 
+	 * @param traits   accumulator created by {@link #newTraitAccumulator()}
+	 * @param scenario decided scenario
+	 * @param decision decision returned by {@link #decide(Scenario)}
+	 */
+	static void addScenario(Object traits, Scenario scenario, Object decision) {
+		try {
+			ADD_SCENARIO.invokeExact(traits, scenario, decision);
+		} catch (Throwable e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,55 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ethicalengine.Person;
+import ethicalengine.ScenarioGenerator;
+
+/**
+ * Throughput of Person.computeImportance over a crowd of random persons
+ * 
+ * @author Sharodh Keelamanakudi Ragupathi(1148618)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ImportanceBenchmark {
+
+	@Param({ "1", "5", "64", "1024", "4096" })
+	int size;
+
+	Person[] persons;
+
+	@Setup
+	public void setUp() {
+		ScenarioGenerator generator = Corpus.generator(1);
+		persons = new Person[size];
+		for (int i = 0; i < size; i++) {
+			persons[i] = generator.getRandomPerson();
+		}
+	}
+
+	@Benchmark
+	public int computeImportance() {
+		int importance = 0;
+		for (Person person : persons) {
+			importance += person.computeImportance();
+		}
+		return importance;
+	}
+}
@@ -0,0 +1,88 @@
+package benchmark;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ethicalengine.Scenario;
+import ethicalengine.ScenarioBatch;
+
+/**
+ * Time to decide, audit and render a single scenario with a crowd on each
+ * side, from stadium size to rush hour size. Every operation is expected to
+ * grow linearly with the size
+ * 
+ * @author Sharodh Keelamanakudi Ragupathi(1148618)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class LargeCrowdBenchmark {
+
+	static final int SUMMARY_ROWS = 20;
+
+	@Param({ "10000", "100000", "1000000" })
+	int size;
+
+	Scenario scenario;
+	ScenarioBatch batch;
+	Object decision;
+	Object traits;
+	Writer discard;
+
+	@Setup
+	public void setUp() {
+		scenario = Corpus.generator(size).generate();
+		batch = ScenarioBatch.of(new Scenario[] { scenario });
+		decision = Engine.decide(scenario);
+		traits = Engine.newTraitAccumulator();
+		discard = Writer.nullWriter();
+	}
+
+	@Benchmark
+	public Object decide() {
+		return Engine.decide(scenario);
+	}
+
+	@Benchmark
+	public byte[] decideAll() {
+		return Engine.decideAll(batch);
+	}
+
+	@Benchmark
+	public Object addScenario() {
+		Engine.addScenario(traits, scenario, decision);
+		return traits;
+	}
+
+	@Benchmark
+	public String render() {
+		return scenario.toString();
+	}
+
+	@Benchmark
+	public Writer renderStreaming() throws IOException {
+		scenario.writeTo(discard, Integer.MAX_VALUE);
+		return discard;
+	}
+
+	@Benchmark
+	public String renderSummary() {
+		return scenario.toString(SUMMARY_ROWS);
+	}
+}
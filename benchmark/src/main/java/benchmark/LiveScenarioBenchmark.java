@@ -0,0 +1,69 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ethicalengine.Character;
+import ethicalengine.LiveScenario;
+import ethicalengine.Scenario;
+
+/**
+ * Cost of a simulation tick which removes the oldest pedestrian, adds a new
+ * one and decides the scenario, on a live scenario keeping its importance
+ * totals and on a plain scenario summed again by every decision
+ * 
+ * @author Sharodh Keelamanakudi Ragupathi(1148618)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LiveScenarioBenchmark {
+
+	static final int ARRIVALS = 256;
+
+	@Param({ "1000", "10000" })
+	int size;
+
+	LiveScenario live;
+	Scenario scenario;
+	Character[] arrivals;
+	int tick;
+
+	@Setup
+	public void setUp() {
+		Scenario generated = Corpus.generator(size).generate();
+		live = new LiveScenario(generated);
+		scenario = new Scenario(generated.getPassengers(), generated.getPedestrians().clone(),
+				generated.isLegalCrossing());
+		arrivals = Corpus.scenarios(1, ARRIVALS)[0].getPedestrians();
+	}
+
+	@Benchmark
+	public Object liveTick() {
+		live.removePedestrian(0);
+		live.addPedestrian(arrivals[tick++ % ARRIVALS]);
+		return Engine.decide(live);
+	}
+
+	@Benchmark
+	public Object rescoreTick() {
+		Character[] pedestrians = scenario.getPedestrians();
+		System.arraycopy(pedestrians, 1, pedestrians, 0, pedestrians.length - 1);
+		pedestrians[pedestrians.length - 1] = arrivals[tick++ % ARRIVALS];
+		return Engine.decide(scenario);
+	}
+}
@@ -0,0 +1,47 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ethicalengine.Scenario;
+import ethicalengine.ScenarioGenerator;
+
+/**
+ * Throughput of ScenarioGenerator.generate for scenarios of increasing size
+ * 
+ * @author Sharodh Keelamanakudi Ragupathi(1148618)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScenarioGeneratorBenchmark {
+
+	@Param({ "1", "5", "64", "1024", "4096" })
+	int size;
+
+	ScenarioGenerator generator;
+
+	@Setup
+	public void setUp() {
+		generator = Corpus.generator(size);
+	}
+
+	@Benchmark
+	public Scenario generate() {
+		return generator.generate();
+	}
+}
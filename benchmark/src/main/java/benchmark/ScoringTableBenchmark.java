@@ -0,0 +1,77 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import ethicalengine.Scenario;
+import ethicalengine.ScenarioBatch;
+import ethicalengine.ScoringTable;
+
+/**
+ * Throughput of EthicalEngine.decide and EthicalEngine.decideAll with the
+ * default scoring table and with a table compiled from custom weights. Run
+ * next to DecideBenchmark of a build with the hard coded weights to compare
+ * with the constants
+ * 
+ * @author Sharodh Keelamanakudi Ragupathi(1148618)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScoringTableBenchmark {
+
+	static final int SCENARIOS = 64;
+	static final String CUSTOM_WEIGHTS = "profession.criminal=-5,profession.homeless=2,pregnant=4,illegalCrossing=-3";
+
+	@Param({ "5", "64", "1024" })
+	int size;
+
+	@Param({ "default", "custom" })
+	String weights;
+
+	Scenario[] scenarios;
+	ScenarioBatch batch;
+
+	@Setup
+	public void setUp() {
+		ScoringTable.setActive(weights.equals("custom") ? ScoringTable.parse(CUSTOM_WEIGHTS) : ScoringTable.DEFAULT);
+		scenarios = Corpus.scenarios(SCENARIOS, size);
+		batch = ScenarioBatch.of(scenarios);
+	}
+
+	@TearDown
+	public void tearDown() {
+		ScoringTable.setActive(ScoringTable.DEFAULT);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(SCENARIOS)
+	public void decide(Blackhole blackhole) {
+		for (Scenario scenario : scenarios) {
+			blackhole.consume(Engine.decide(scenario));
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(SCENARIOS)
+	public byte[] decideAll() {
+		return Engine.decideAll(batch);
+	}
+}
@@ -0,0 +1,70 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ethicalengine.Scenario;
+
+/**
+ * Throughput and allocation of the trait extraction of an audit. Run with
+ * -prof gc, gc.alloc.rate.norm is expected to stay at 0 B/op
+ * 
+ * @author Sharodh Keelamanakudi Ragupathi(1148618)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TraitAccumulatorBenchmark {
+
+	static final int SCENARIOS = 64;
+
+	@Param({ "1", "5", "64", "1024" })
+	int size;
+
+	Scenario[] scenarios;
+	Object[] decisions;
+	Object traits;
+
+	@Setup
+	public void setUp() {
+		scenarios = Corpus.scenarios(SCENARIOS, size);
+		decisions = new Object[SCENARIOS];
+		for (int i = 0; i < SCENARIOS; i++) {
+			decisions[i] = Engine.decide(scenarios[i]);
+		}
+		traits = Engine.newTraitAccumulator();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(SCENARIOS)
+	public Object addScenario() {
+		for (int i = 0; i < SCENARIOS; i++) {
+			Engine.addScenario(traits, scenarios[i], decisions[i]);
+		}
+		return traits;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(SCENARIOS)
+	public Object decideAndAddScenario() {
+		for (Scenario scenario : scenarios) {
+			Engine.addScenario(traits, scenario, Engine.decide(scenario));
+		}
+		return traits;
+	}
+}
@@ -0,0 +1,58 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ethicalengine.ScenarioBatch;
+
+/**
+ * Throughput of EthicalEngine.decideAll with the Vector API kernel, to be
+ * compared with decideAll of {@link DecideBenchmark}
+ * 
+ * @author Sharodh Keelamanakudi Ragupathi(1148618)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "--add-modules", "jdk.incubator.vector" })
+public class VectorDecideBenchmark {
+
+	@Param({ "1", "5", "64", "1024", "4096" })
+	int size;
+
+	ScenarioBatch batch;
+
+	@Setup
+	public void setUp() {
+		if (!Engine.setVectorKernelEnabled(true)) {
+			throw new IllegalStateException("jdk.incubator.vector is not available");
+		}
+		batch = ScenarioBatch.of(Corpus.scenarios(DecideBenchmark.SCENARIOS, size));
+	}
+
+	@TearDown
+	public void tearDown() {
+		Engine.setVectorKernelEnabled(false);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(DecideBenchmark.SCENARIOS)
+	public byte[] decideAll() {
+		return Engine.decideAll(batch);
+	}
+}
@@ -8,7 +8,7 @@ package ethicalengine;
 
 public class Animal extends Character {
 
-	final int IS_PET_IMPORTANCE = 2;
+	final static int IS_PET_IMPORTANCE = 2;
 
 	private String species;
 
@@ -17,12 +17,14 @@ public class Animal extends Character {
 	public enum Species {
 		CAT, BIRD, DOG;
 
+		private final String label = this.name().toLowerCase();
+
 		/**
 		 * @return String representation of gender in lower case
 		 */
 		@Override
 		public String toString() {
-			return this.name().toLowerCase();
+			return label;
 		}
 	}
 
@@ -112,6 +114,7 @@ public class Animal extends Character {
 	 */
 	public void setPet(boolean isPet) {
 		this.isPet = isPet;
+		this.invalidateImportanceCode();
 	}
 
 	/**
@@ -120,17 +123,41 @@ public class Animal extends Character {
 	 * @return string representation of animal
 	 */
 	public String toString() {
-		String isPet = isPet() ? " is pet" : "";
+		return this.appendTo(new StringBuilder()).toString();
+	}
 
-		return String.format("%s%s", this.getSpecies(), isPet);
+	/**
+	 * appends the String representation of the animal to a buffer
+	 * 
+	 * @param out buffer to append to
+	 * @return buffer
+	 */
+	@Override
+	public StringBuilder appendTo(StringBuilder out) {
+		out.append(this.getSpecies());
+		if (this.isPet()) {
+			out.append(" is pet");
+		}
+		return out;
+	}
+
+	/**
+	 * computes the code of the animal in the importance table
+	 * 
+	 * @return code of the animal
+	 */
+	@Override
+	protected int computeImportanceCode() {
+		return ImportanceTable.animalCode(this.isPet());
 	}
 
 	/**
-	 * gets the importance of the Animal
+	 * gets the importance of an animal with the given traits
 	 * 
+	 * @param isPet if animal is pet
 	 * @return importance of animal
 	 */
-	public int computeImportance() {
-		return this.isPet() ? this.IS_PET_IMPORTANCE : 0;
+	public static int computeImportance(boolean isPet) {
+		return ImportanceTable.importanceOf(ImportanceTable.animalCode(isPet));
 	}
 }
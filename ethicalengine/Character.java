@@ -12,36 +12,42 @@ public abstract class Character {
 	public enum Gender {
 		MALE, FEMALE, UNKNOWN;
 
+		private final String label = this.name().toLowerCase();
+
 		/**
 		 * @return String representation of gender in lower case
 		 */
 		@Override
 		public String toString() {
-			return this.name().toLowerCase();
+			return label;
 		}
 	}
 
 	public enum BodyType {
 		AVERAGE, ATHLETIC, OVERWEIGHT, UNSPECIFIED;
 
+		private final String label = this.name().toLowerCase();
+
 		/**
 		 * @return String representation of bodytype in lower case
 		 */
 		@Override
 		public String toString() {
-			return this.name().toLowerCase();
+			return label;
 		}
 	}
 
 	public enum TypeofCharacter {
 		PERSON, ANIMAL;
 
+		private final String label = this.name().toLowerCase();
+
 		/**
 		 * @return String representation of type of character in lower case
 		 */
 		@Override
 		public String toString() {
-			return this.name().toLowerCase();
+			return label;
 		}
 	}
 
@@ -50,6 +56,9 @@ public abstract class Character {
 	private BodyType bodyType;
 	private TypeofCharacter typeOfCharacter;
 
+	private static final int NO_IMPORTANCE_CODE = -1;
+	private int importanceCode = NO_IMPORTANCE_CODE;
+
 	/**
 	 * Creates a character using default values
 	 * 
@@ -87,11 +96,52 @@ public abstract class Character {
 	}
 
 	/**
-	 * gets the importance of a character
+	 * gets the importance of a character from the importance table
 	 * 
 	 * @return importance of a character
 	 */
-	public abstract int computeImportance();
+	public int computeImportance() {
+		return ImportanceTable.importanceOf(this.getImportanceCode());
+	}
+
+	/**
+	 * gets the code of the character in the importance table. The code is cached
+	 * until one of the traits it depends on is changed
+	 * 
+	 * @return code of the character
+	 */
+	public int getImportanceCode() {
+		if (this.importanceCode == NO_IMPORTANCE_CODE) {
+			this.importanceCode = this.computeImportanceCode();
+		}
+		return this.importanceCode;
+	}
+
+	/**
+	 * computes the code of the character in the importance table
+	 * 
+	 * @return code of the character
+	 */
+	protected abstract int computeImportanceCode();
+
+	/**
+	 * appends the String representation of the character to a buffer, so a long
+	 * list of characters can be rendered without a String per character
+	 * 
+	 * @param out buffer to append to
+	 * @return buffer
+	 */
+	public StringBuilder appendTo(StringBuilder out) {
+		return out.append(this);
+	}
+
+	/**
+	 * drops the cached importance code, to be called when a trait it depends on
+	 * changes
+	 */
+	protected void invalidateImportanceCode() {
+		this.importanceCode = NO_IMPORTANCE_CODE;
+	}
 
 	/**
 	 * gets age of a character
@@ -110,6 +160,7 @@ public abstract class Character {
 	public void setAge(int age) {
 		if (age > 0) {
 			this.age = age;
+			this.invalidateImportanceCode();
 		}
 	}
 
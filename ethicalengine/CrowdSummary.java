@@ -0,0 +1,151 @@
+package ethicalengine;
+
+/**
+ * Counts the characters of a crowd by the way they are printed, so a side of
+ * thousands of characters can be shown as a few rows of counts. Persons are
+ * grouped through a table indexed by the traits they print, animals through
+ * their species, so grouping a character allocates nothing
+ *
+ * @author Sharodh Keelamanakudi Ragupathi(1148618)
+ */
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+import ethicalengine.Character.BodyType;
+import ethicalengine.Character.Gender;
+import ethicalengine.Person.AgeCategory;
+import ethicalengine.Person.Profession;
+
+final class CrowdSummary {
+
+	private static final int BODY_TYPES = BodyType.values().length;
+	private static final int AGE_CATEGORIES = AgeCategory.values().length;
+	private static final int PROFESSIONS = Profession.values().length;
+	private static final int GENDERS = Gender.values().length;
+	private static final int PERSON_CODES = 2 * BODY_TYPES * AGE_CATEGORIES * PROFESSIONS * GENDERS * 2;
+
+	private final int[] personGroups = new int[PERSON_CODES];
+	private final Map<String, int[]> animalGroups = new HashMap<String, int[]>();
+
+	private Character[] samples = new Character[16];
+	private long[] counts = new long[16];
+	private int size = 0;
+
+	/**
+	 * counts the characters of a crowd
+	 *
+	 * @param characters characters of the crowd
+	 */
+	CrowdSummary(Character[] characters) {
+		Arrays.fill(personGroups, -1);
+		for (Character character : characters) {
+			int group;
+			if (character instanceof Person && isCodable((Person) character)) {
+				int code = getPersonCode((Person) character);
+				if (personGroups[code] < 0) {
+					personGroups[code] = addGroup(character);
+				}
+				group = personGroups[code];
+			} else if (character instanceof Animal) {
+				Animal animal = (Animal) character;
+				int[] groups = animalGroups.get(animal.getSpecies());
+				if (groups == null) {
+					groups = new int[] { -1, -1 };
+					animalGroups.put(animal.getSpecies(), groups);
+				}
+				int pet = animal.isPet() ? 1 : 0;
+				if (groups[pet] < 0) {
+					groups[pet] = addGroup(character);
+				}
+				group = groups[pet];
+			} else {
+				group = addGroup(character);
+			}
+			counts[group]++;
+		}
+	}
+
+	/**
+	 * gets a character of a group
+	 *
+	 * @param group index of the group
+	 * @return first character of the group
+	 */
+	Character getSample(int group) {
+		return samples[group];
+	}
+
+	/**
+	 * gets the number of characters of a group
+	 *
+	 * @param group index of the group
+	 * @return number of characters
+	 */
+	long getCount(int group) {
+		return counts[group];
+	}
+
+	/**
+	 * gets the groups from the largest to the smallest. Groups of the same size
+	 * keep the order they were first seen in
+	 *
+	 * @return indices of the groups
+	 */
+	Integer[] getRanking() {
+		Integer[] ranking = new Integer[size];
+		for (int i = 0; i < size; i++) {
+			ranking[i] = i;
+		}
+		Arrays.sort(ranking, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer group1, Integer group2) {
+				return Long.compare(counts[group2], counts[group1]);
+			}
+		});
+		return ranking;
+	}
+
+	/**
+	 * adds a group
+	 *
+	 * @param sample first character of the group
+	 * @return index of the group
+	 */
+	private int addGroup(Character sample) {
+		if (size == samples.length) {
+			samples = Arrays.copyOf(samples, size * 2);
+			counts = Arrays.copyOf(counts, size * 2);
+		}
+		samples[size] = sample;
+		return size++;
+	}
+
+	/**
+	 * checks if the printed traits of a person are all set, the others are
+	 * grouped one by one
+	 *
+	 * @param person person of the crowd
+	 * @return if the person has a code
+	 */
+	private static boolean isCodable(Person person) {
+		return person.getBodyType() != null && person.getGender() != null && person.getProfession() != null;
+	}
+
+	/**
+	 * gets the code of the traits printed for a person
+	 *
+	 * @param person person of the crowd
+	 * @return code of the person
+	 */
+	private static int getPersonCode(Person person) {
+		int code = person.isYou() ? 1 : 0;
+		code = code * BODY_TYPES + person.getBodyType().ordinal();
+		code = code * AGE_CATEGORIES + person.getAgeCategory().ordinal();
+		code = code * PROFESSIONS + person.getProfession().ordinal();
+		code = code * GENDERS + person.getGender().ordinal();
+		return code * 2 + (person.isPregnant() ? 1 : 0);
+	}
+}
@@ -0,0 +1,136 @@
+package ethicalengine;
+
+/**
+ * Lookup table of the importance of characters. The traits which affect the
+ * importance of a character are encoded in a small integer code, and the
+ * importance of every code is read from the active {@link ScoringTable}
+ *
+ * @author Sharodh Keelamanakudi Ragupathi(1148618)
+ */
+
+import ethicalengine.Person.AgeCategory;
+import ethicalengine.Person.Profession;
+
+public final class ImportanceTable {
+
+	private static final AgeCategory[] AGE_CATEGORIES = AgeCategory.values();
+	private static final Profession[] PROFESSIONS = Profession.values();
+
+	/**
+	 * number of codes used for persons, one for every combination of age
+	 * category, profession, pregnant and you
+	 */
+	public static final int PERSON_CODE_COUNT = AGE_CATEGORIES.length * PROFESSIONS.length * 2 * 2;
+
+	/**
+	 * code of an animal which is not a pet
+	 */
+	public static final int ANIMAL_CODE = PERSON_CODE_COUNT;
+
+	/**
+	 * code of an animal which is a pet
+	 */
+	public static final int PET_CODE = PERSON_CODE_COUNT + 1;
+
+	/**
+	 * number of codes
+	 */
+	public static final int CODE_COUNT = PERSON_CODE_COUNT + 2;
+
+	private ImportanceTable() {
+	}
+
+	/**
+	 * gets the code of a person
+	 *
+	 * @param ageCategory AgeCategory of the person
+	 * @param profession  Profession of the person
+	 * @param isPregnant  if person is pregnant
+	 * @param isYou       if person is you
+	 * @return code of the person
+	 */
+	public static int personCode(AgeCategory ageCategory, Profession profession, boolean isPregnant,
+			boolean isYou) {
+		return ((ageCategory.ordinal() * PROFESSIONS.length + profession.ordinal()) * 2 + (isPregnant ? 1 : 0)) * 2
+				+ (isYou ? 1 : 0);
+	}
+
+	/**
+	 * gets the code of an animal
+	 *
+	 * @param isPet if animal is pet
+	 * @return code of the animal
+	 */
+	public static int animalCode(boolean isPet) {
+		return isPet ? PET_CODE : ANIMAL_CODE;
+	}
+
+	/**
+	 * checks if a code belongs to a person
+	 *
+	 * @param code code of a character
+	 * @return if the code is a person code
+	 */
+	public static boolean isPerson(int code) {
+		return code < PERSON_CODE_COUNT;
+	}
+
+	/**
+	 * gets the AgeCategory of a person code
+	 *
+	 * @param code code of a person
+	 * @return AgeCategory of the person
+	 */
+	public static AgeCategory ageCategoryOf(int code) {
+		return AGE_CATEGORIES[code / (PROFESSIONS.length * 2 * 2)];
+	}
+
+	/**
+	 * gets the Profession of a person code
+	 *
+	 * @param code code of a person
+	 * @return Profession of the person
+	 */
+	public static Profession professionOf(int code) {
+		return PROFESSIONS[(code / (2 * 2)) % PROFESSIONS.length];
+	}
+
+	/**
+	 * gets the pregnant status of a person code
+	 *
+	 * @param code code of a person
+	 * @return if the person is pregnant
+	 */
+	public static boolean isPregnant(int code) {
+		return ((code >> 1) & 1) == 1;
+	}
+
+	/**
+	 * gets the you status of a person code
+	 *
+	 * @param code code of a person
+	 * @return if the person is you
+	 */
+	public static boolean isYou(int code) {
+		return (code & 1) == 1;
+	}
+
+	/**
+	 * gets the importance of a code
+	 *
+	 * @param code code of a character
+	 * @return importance of the character
+	 */
+	public static int importanceOf(int code) {
+		return ScoringTable.getActive().getImportance(code);
+	}
+
+	/**
+	 * gets a copy of the table, indexed by code
+	 *
+	 * @return importance of every code
+	 */
+	public static int[] getImportances() {
+		return ScoringTable.getActive().getImportances();
+	}
+}
@@ -0,0 +1,354 @@
+package ethicalengine;
+
+/**
+ * Scenario whose characters change while it is being decided, like a crossing
+ * in a traffic simulation. The importance of every character is kept next to
+ * it and the total importance of each side is updated as characters are
+ * added, removed or replaced, so a decision only needs the totals. A character
+ * changed in place must be reported through {@link #updatePassenger(int)} or
+ * {@link #updatePedestrian(int)}. The totals are summed again with the new
+ * weights after another scoring table is set active. The arrays returned by
+ * the getters are copies taken after the last change and must not be written
+ * to
+ *
+ * @author Sharodh Keelamanakudi Ragupathi(1148618)
+ */
+
+import java.util.Arrays;
+
+public class LiveScenario extends Scenario {
+
+	static final int MIN_CAPACITY = 8;
+
+	private Side passengerSide;
+	private Side pedestrianSide;
+
+	/**
+	 * Creates a live scenario without characters
+	 *
+	 * @param isLegalCrossing legality of the scene
+	 */
+	public LiveScenario(boolean isLegalCrossing) {
+		super(new Character[0], new Character[0], isLegalCrossing);
+	}
+
+	/**
+	 * Creates a live scenario with the characters and flags of a scenario
+	 *
+	 * @param scenario scenario to start from
+	 */
+	public LiveScenario(Scenario scenario) {
+		super(scenario.getPassengers(), scenario.getPedestrians(), scenario.isLegalCrossing());
+		this.setYouInCar(scenario.hasYouInCar());
+		this.setYouInLane(scenario.hasYouInLane());
+	}
+
+	/**
+	 * gets the passengers of the scenario
+	 *
+	 * @return Character array of passengers
+	 */
+	@Override
+	public Character[] getPassengers() {
+		return passengerSide.toArray();
+	}
+
+	/**
+	 * sets the passengers of the scenario and sums their importance. The array
+	 * is copied
+	 *
+	 * @param passengers array of passengers
+	 */
+	@Override
+	public void setPassengers(Character[] passengers) {
+		super.setPassengers(passengers);
+		this.passengerSide = new Side(passengers);
+	}
+
+	/**
+	 * gets the pedestrians of the scenario
+	 *
+	 * @return Character array of pedestrians
+	 */
+	@Override
+	public Character[] getPedestrians() {
+		return pedestrianSide.toArray();
+	}
+
+	/**
+	 * sets the pedestrians of the scenario and sums their importance. The array
+	 * is copied
+	 *
+	 * @param pedestrians array of pedestrians
+	 */
+	@Override
+	public void setPedestrians(Character[] pedestrians) {
+		super.setPedestrians(pedestrians);
+		this.pedestrianSide = new Side(pedestrians);
+	}
+
+	/**
+	 * gets the passenger count
+	 *
+	 * @return count of passengers
+	 */
+	@Override
+	public int getPassengerCount() {
+		return passengerSide.count;
+	}
+
+	/**
+	 * gets the pedestrian count
+	 *
+	 * @return count of pedestrians
+	 */
+	@Override
+	public int getPedestrianCount() {
+		return pedestrianSide.count;
+	}
+
+	/**
+	 * gets the total importance of the passengers
+	 *
+	 * @return sum of the importance of the passengers
+	 */
+	public int getPassengerImportance() {
+		return passengerSide.getTotal();
+	}
+
+	/**
+	 * gets the total importance of the pedestrians, without the penalty of an
+	 * illegal crossing
+	 *
+	 * @return sum of the importance of the pedestrians
+	 */
+	public int getPedestrianImportance() {
+		return pedestrianSide.getTotal();
+	}
+
+	/**
+	 * adds a passenger at the end of the passengers
+	 *
+	 * @param passenger character to be added
+	 */
+	public void addPassenger(Character passenger) {
+		passengerSide.add(passenger);
+	}
+
+	/**
+	 * adds a pedestrian at the end of the pedestrians
+	 *
+	 * @param pedestrian character to be added
+	 */
+	public void addPedestrian(Character pedestrian) {
+		pedestrianSide.add(pedestrian);
+	}
+
+	/**
+	 * removes a passenger, the passengers after it move up by one
+	 *
+	 * @param index position of the passenger
+	 * @return removed passenger
+	 */
+	public Character removePassenger(int index) {
+		return passengerSide.remove(index);
+	}
+
+	/**
+	 * removes a pedestrian, the pedestrians after it move up by one
+	 *
+	 * @param index position of the pedestrian
+	 * @return removed pedestrian
+	 */
+	public Character removePedestrian(int index) {
+		return pedestrianSide.remove(index);
+	}
+
+	/**
+	 * replaces a passenger
+	 *
+	 * @param index     position of the passenger
+	 * @param passenger new passenger
+	 */
+	public void setPassenger(int index, Character passenger) {
+		passengerSide.set(index, passenger);
+	}
+
+	/**
+	 * replaces a pedestrian
+	 *
+	 * @param index      position of the pedestrian
+	 * @param pedestrian new pedestrian
+	 */
+	public void setPedestrian(int index, Character pedestrian) {
+		pedestrianSide.set(index, pedestrian);
+	}
+
+	/**
+	 * takes into account a passenger whose traits were changed in place
+	 *
+	 * @param index position of the passenger
+	 */
+	public void updatePassenger(int index) {
+		passengerSide.set(index, passengerSide.get(index));
+	}
+
+	/**
+	 * takes into account a pedestrian whose traits were changed in place
+	 *
+	 * @param index position of the pedestrian
+	 */
+	public void updatePedestrian(int index) {
+		pedestrianSide.set(index, pedestrianSide.get(index));
+	}
+
+	/**
+	 * Characters of a side with the importance each of them had when it was last
+	 * added or updated, so the total can be corrected without summing the side
+	 * again. The arrays have spare room at the end for the characters to come,
+	 * and the exact array handed out by the getters is only copied again after
+	 * characters were added or removed. The importances are those of the
+	 * scoring table they were computed with
+	 */
+	private static class Side {
+
+		private Character[] characters;
+		private int[] importances;
+		private int count;
+		private int total;
+		private Character[] snapshot;
+		private ScoringTable table;
+
+		/**
+		 * creates a side and sums the importance of its characters
+		 *
+		 * @param characters characters of the side, null for none
+		 */
+		Side(Character[] characters) {
+			this.count = characters == null ? 0 : characters.length;
+			this.characters = new Character[Math.max(count, MIN_CAPACITY)];
+			this.importances = new int[this.characters.length];
+			this.table = ScoringTable.getActive();
+			for (int i = 0; i < count; i++) {
+				this.characters[i] = characters[i];
+				this.importances[i] = table.getImportance(characters[i].getImportanceCode());
+				this.total += this.importances[i];
+			}
+		}
+
+		/**
+		 * gets the total importance of the side with the active scoring table
+		 *
+		 * @return sum of the importance of the characters
+		 */
+		int getTotal() {
+			refresh();
+			return total;
+		}
+
+		/**
+		 * computes the importance of the characters again when another scoring
+		 * table was set active since they were computed
+		 */
+		private void refresh() {
+			ScoringTable active = ScoringTable.getActive();
+			if (active == table) {
+				return;
+			}
+			table = active;
+			total = 0;
+			for (int i = 0; i < count; i++) {
+				importances[i] = table.getImportance(characters[i].getImportanceCode());
+				total += importances[i];
+			}
+		}
+
+		/**
+		 * gets a character of the side
+		 *
+		 * @param index position of the character
+		 * @return character
+		 */
+		Character get(int index) {
+			checkIndex(index);
+			return characters[index];
+		}
+
+		/**
+		 * adds a character at the end of the side
+		 *
+		 * @param character character to be added
+		 */
+		void add(Character character) {
+			refresh();
+			int importance = table.getImportance(character.getImportanceCode());
+			if (count == characters.length) {
+				characters = Arrays.copyOf(characters, count * 2);
+				importances = Arrays.copyOf(importances, count * 2);
+			}
+			characters[count] = character;
+			importances[count++] = importance;
+			total += importance;
+			snapshot = null;
+		}
+
+		/**
+		 * removes a character of the side
+		 *
+		 * @param index position of the character
+		 * @return removed character
+		 */
+		Character remove(int index) {
+			checkIndex(index);
+			refresh();
+			Character character = characters[index];
+			total -= importances[index];
+			System.arraycopy(characters, index + 1, characters, index, count - index - 1);
+			System.arraycopy(importances, index + 1, importances, index, count - index - 1);
+			characters[--count] = null;
+			snapshot = null;
+			return character;
+		}
+
+		/**
+		 * replaces a character of the side in place
+		 *
+		 * @param index     position of the character
+		 * @param character new character
+		 */
+		void set(int index, Character character) {
+			checkIndex(index);
+			refresh();
+			int importance = table.getImportance(character.getImportanceCode());
+			total += importance - importances[index];
+			characters[index] = character;
+			importances[index] = importance;
+			if (snapshot != null) {
+				snapshot[index] = character;
+			}
+		}
+
+		/**
+		 * gets the characters of the side in an array of their exact number
+		 *
+		 * @return characters of the side
+		 */
+		Character[] toArray() {
+			if (snapshot == null) {
+				snapshot = Arrays.copyOf(characters, count);
+			}
+			return snapshot;
+		}
+
+		/**
+		 * checks that a position holds a character
+		 *
+		 * @param index position of a character
+		 */
+		private void checkIndex(int index) {
+			if (index < 0 || index >= count) {
+				throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + count);
+			}
+		}
+	}
+}
@@ -11,6 +11,8 @@ public class Person extends Character {
 	public enum Profession {
 		DOCTOR, CEO, CRIMINAL, PRESIDENT, POLICE, HOMELESS, UNEMPLOYED, UNKNOWN, NONE;
 
+		private final String label = this.name().toLowerCase();
+
 		final int PROFESSION_IMPORTANCE_PRESIDENT = 7;
 		final int PROFESSION_IMPORTANCE_POLICE = 6;
 		final int PROFESSION_IMPORTANCE_DOCTOR = 5;
@@ -23,7 +25,7 @@ public class Person extends Character {
 		 */
 		@Override
 		public String toString() {
-			return this.name().toLowerCase();
+			return label;
 		}
 
 		/**
@@ -31,7 +33,7 @@ public class Person extends Character {
 		 * 
 		 * @return importance of person
 		 */
-		private int getImportance() {
+		int getImportance() {
 			if (this == Profession.PRESIDENT) {
 				return PROFESSION_IMPORTANCE_PRESIDENT;
 			} else if (this == Profession.POLICE) {
@@ -54,6 +56,8 @@ public class Person extends Character {
 	public enum AgeCategory {
 		BABY, CHILD, ADULT, SENIOR;
 
+		private final String label = this.name().toLowerCase();
+
 		final int AGE_IMPORTANCE_SENIOR = 1;
 		final int AGE_IMPORTANCE_ADULT = 2;
 		final int AGE_IMPORTANCE_CHILD = 3;
@@ -81,12 +85,12 @@ public class Person extends Character {
 		 */
 		@Override
 		public String toString() {
-			return this.name().toLowerCase();
+			return label;
 		}
 	}
 
-	final int IS_PREGNANT_IMPORTANCE = 3;
-	final int IS_YOU_IMPORTANCE = 5;
+	final static int IS_PREGNANT_IMPORTANCE = 3;
+	final static int IS_YOU_IMPORTANCE = 5;
 
 	final static int MIN_SENIOR_AGE = 69;
 	final static int MIN_ADULT_AGE = 17;
@@ -190,6 +194,7 @@ public class Person extends Character {
 	 */
 	public void setProfession(Profession profession) {
 		this.profession = this.getAgeCategory() == AgeCategory.ADULT ? profession : Profession.NONE;
+		this.invalidateImportanceCode();
 	}
 
 	/**
@@ -208,6 +213,7 @@ public class Person extends Character {
 	 */
 	public void setPregnant(boolean pregnant) {
 		this.isPregnant = this.getGender() == Gender.FEMALE ? pregnant : false;
+		this.invalidateImportanceCode();
 	}
 
 	/**
@@ -226,6 +232,7 @@ public class Person extends Character {
 	 */
 	public void setAsYou(boolean isYou) {
 		this.isYou = isYou;
+		this.invalidateImportanceCode();
 	}
 
 	/**
@@ -234,28 +241,53 @@ public class Person extends Character {
 	 * @return String representation of person
 	 */
 	public String toString() {
-		String you = isYou() ? "you " : "";
-		String profession = getProfession() == Profession.NONE ? "" : getProfession() + " ";
-		String pregnant = this.isPregnant() ? " pregnant" : "";
+		return this.appendTo(new StringBuilder()).toString();
+	}
+
+	/**
+	 * appends the String representation of the person to a buffer
+	 *
+	 * @param out buffer to append to
+	 * @return buffer
+	 */
+	@Override
+	public StringBuilder appendTo(StringBuilder out) {
+		if (this.isYou()) {
+			out.append("you ");
+		}
+		out.append(this.getBodyType()).append(' ').append(this.getAgeCategory()).append(' ');
+		if (this.getProfession() != Profession.NONE) {
+			out.append(this.getProfession()).append(' ');
+		}
+		out.append(this.getGender());
+		if (this.isPregnant()) {
+			out.append(" pregnant");
+		}
+		return out;
+	}
 
-		return String.format("%s%s %s %s%s%s", you, this.getBodyType(), this.getAgeCategory(), profession,
-				this.getGender(), pregnant);
+	/**
+	 * computes the code of the person in the importance table
+	 * 
+	 * @return code of the person
+	 */
+	@Override
+	protected int computeImportanceCode() {
+		return ImportanceTable.personCode(this.getAgeCategory(), this.getProfession(), this.isPregnant, this.isYou);
 	}
 
 	/**
-	 * gets the importance of the Animal
+	 * gets the importance of a person with the given traits
 	 * 
+	 * @param ageCategory AgeCategory of the person
+	 * @param profession  Profession of the person
+	 * @param isPregnant  if person is pregnant
+	 * @param isYou       if person is you
 	 * @return importance of a person
 	 */
-	public int computeImportance() {
-		int importanceFactor = 0;
-
-		importanceFactor += this.getAgeCategory().getImportance();
-		importanceFactor += this.getProfession().getImportance();
-		importanceFactor += this.isPregnant ? this.IS_PREGNANT_IMPORTANCE : 0;
-		importanceFactor += this.isYou ? this.IS_YOU_IMPORTANCE : 0;
-
-		return importanceFactor;
+	public static int computeImportance(AgeCategory ageCategory, Profession profession, boolean isPregnant,
+			boolean isYou) {
+		return ImportanceTable.importanceOf(ImportanceTable.personCode(ageCategory, profession, isPregnant, isYou));
 	}
 
 	/**
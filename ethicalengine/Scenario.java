@@ -6,8 +6,13 @@ package ethicalengine;
  * @author Sharodh Keelamanakudi Ragupathi(1148618)
  */
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
 public class Scenario {
 
+	static final String BAR = "======================================\n";
+
 	private Character[] passengers;
 	private Character[] pedestrians;
 	private boolean isLegalCrossing;
@@ -101,7 +106,7 @@ public class Scenario {
 	 * @return count of passengers
 	 */
 	public int getPassengerCount() {
-		return this.getPassengers().length;
+		return this.passengers.length;
 	}
 
 	/**
@@ -110,7 +115,7 @@ public class Scenario {
 	 * @return count of pedestrians
 	 */
 	public int getPedestrianCount() {
-		return this.getPedestrians().length;
+		return this.pedestrians.length;
 	}
 
 	/**
@@ -150,20 +155,90 @@ public class Scenario {
 	}
 
 	/**
-	 * gets a formatted list of characters
+	 * writes a side of the scenario, one row per character. A side with more
+	 * characters than rows is summarized as counts of the characters printed
+	 * the same way, the most frequent first
 	 * 
-	 * @param list unformatted list of characters
-	 * @return formatted list of characters as string
-	 */
-	private String getListFormatted(Character[] list) {
-		String formattedList = "";
-		for (int i = 0; i < list.length; i++) {
-			formattedList += "- " + list[i];
-			if (i != list.length - 1) {
-				formattedList += "\n";
+	 * @param out        destination of the rendering
+	 * @param characters characters of the side
+	 * @param maxRows    max number of rows of the side
+	 * @param line       buffer reused for every row
+	 * @throws IOException
+	 */
+	private static void writeList(Appendable out, Character[] characters, int maxRows, StringBuilder line)
+			throws IOException {
+		if (characters.length <= maxRows) {
+			for (int i = 0; i < characters.length; i++) {
+				line.setLength(0);
+				line.append("- ");
+				characters[i].appendTo(line);
+				if (i != characters.length - 1) {
+					line.append('\n');
+				}
+				out.append(line);
 			}
+			return;
+		}
+
+		CrowdSummary summary = new CrowdSummary(characters);
+		Integer[] ranking = summary.getRanking();
+		int rows = ranking.length <= maxRows ? ranking.length : Math.max(maxRows - 1, 0);
+		long shown = 0;
+		for (int i = 0; i < rows; i++) {
+			line.setLength(0);
+			line.append("- ").append(summary.getCount(ranking[i])).append(" x ");
+			summary.getSample(ranking[i]).appendTo(line);
+			if (i != ranking.length - 1) {
+				line.append('\n');
+			}
+			out.append(line);
+			shown += summary.getCount(ranking[i]);
+		}
+		if (rows < ranking.length) {
+			line.setLength(0);
+			line.append("- ").append(characters.length - shown).append(" x ").append(ranking.length - rows)
+					.append(" other kinds");
+			out.append(line);
 		}
-		return formattedList;
+	}
+
+	/**
+	 * writes the scenario in the format of {@link #toString()}, without building
+	 * a String of the whole scenario. Sides with more characters than rows are
+	 * summarized, which keeps the rendering of crowds short
+	 * 
+	 * @param out     destination of the rendering
+	 * @param maxRows max number of rows of a side
+	 * @throws IOException
+	 */
+	public void writeTo(Appendable out, int maxRows) throws IOException {
+		StringBuilder line = new StringBuilder(64);
+		line.append(BAR).append("# Scenario\n").append(BAR).append("Legal Crossing: ")
+				.append(this.isLegalCrossing() ? "yes" : "no").append("\nPassengers (")
+				.append(this.getPassengerCount()).append(")\n");
+		out.append(line);
+		writeList(out, this.getPassengers(), maxRows, line);
+		line.setLength(0);
+		line.append("\nPedestrians (").append(this.getPedestrianCount()).append(")\n");
+		out.append(line);
+		writeList(out, this.getPedestrians(), maxRows, line);
+	}
+
+	/**
+	 * gets the String representation of a Scenario, with sides longer than the
+	 * rows summarized
+	 * 
+	 * @param maxRows max number of rows of a side
+	 * @return String representation of a Scenario
+	 */
+	public String toString(int maxRows) {
+		StringBuilder scenario = new StringBuilder();
+		try {
+			this.writeTo(scenario, maxRows);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return scenario.toString();
 	}
 
 	/**
@@ -172,12 +247,6 @@ public class Scenario {
 	 * @return String representation of a Scenario
 	 */
 	public String toString() {
-		String bar = "======================================\n";
-
-		String isLegalCrossing = this.isLegalCrossing() ? "yes" : "no";
-
-		return String.format("%s# Scenario\n%sLegal Crossing: %s\nPassengers (%d)\n%s\nPedestrians (%d)\n%s", bar, bar,
-				isLegalCrossing, this.getPassengerCount(), this.getListFormatted(getPassengers()),
-				this.getPedestrianCount(), this.getListFormatted(getPedestrians()));
+		return this.toString(Integer.MAX_VALUE);
 	}
 }
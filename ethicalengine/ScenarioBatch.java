@@ -0,0 +1,419 @@
+package ethicalengine;
+
+/**
+ * Stores a batch of scenarios as columns of primitives. The characters of all
+ * scenarios are laid out one after the other, the passengers of a scenario
+ * first and its pedestrians after them, and every trait of a character is an
+ * element of the column of that trait. The code of every character in the
+ * {@link ImportanceTable} is stored as a column as well
+ *
+ * @author Sharodh Keelamanakudi Ragupathi(1148618)
+ */
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+import ethicalengine.Character.BodyType;
+import ethicalengine.Character.Gender;
+import ethicalengine.Character.TypeofCharacter;
+import ethicalengine.Person.Profession;
+
+public class ScenarioBatch {
+
+	public static final byte SIDE_PASSENGER = 0;
+	public static final byte SIDE_PEDESTRIAN = 1;
+
+	public static final int NO_SPECIES = -1;
+
+	private static final Gender[] GENDERS = Gender.values();
+	private static final BodyType[] BODY_TYPES = BodyType.values();
+	private static final Profession[] PROFESSIONS = Profession.values();
+	private static final TypeofCharacter[] TYPES_OF_CHARACTER = TypeofCharacter.values();
+
+	private final int scenarioCount;
+	private final int characterCount;
+
+	private final int[] scenarioOffsets;
+	private final int[] pedestrianOffsets;
+	private final boolean[] isLegalCrossing;
+	private final boolean[] youInCar;
+	private final boolean[] youInLane;
+
+	private final byte[] typeOfCharacter;
+	private final byte[] side;
+	private final int[] age;
+	private final byte[] gender;
+	private final byte[] bodyType;
+	private final byte[] profession;
+	private final boolean[] isPregnant;
+	private final boolean[] isYou;
+	private final int[] species;
+	private final boolean[] isPet;
+	private final int[] importanceCode;
+
+	private final String[] speciesNames;
+
+	/**
+	 * Creates an empty batch with room for the given number of scenarios and
+	 * characters
+	 *
+	 * @param scenarioCount  number of scenarios
+	 * @param characterCount number of characters of all the scenarios
+	 * @param speciesNames   names of the species referenced by the species column
+	 */
+	ScenarioBatch(int scenarioCount, int characterCount, String[] speciesNames) {
+		this.scenarioCount = scenarioCount;
+		this.characterCount = characterCount;
+		this.scenarioOffsets = new int[scenarioCount + 1];
+		this.pedestrianOffsets = new int[scenarioCount];
+		this.isLegalCrossing = new boolean[scenarioCount];
+		this.youInCar = new boolean[scenarioCount];
+		this.youInLane = new boolean[scenarioCount];
+		this.typeOfCharacter = new byte[characterCount];
+		this.side = new byte[characterCount];
+		this.age = new int[characterCount];
+		this.gender = new byte[characterCount];
+		this.bodyType = new byte[characterCount];
+		this.profession = new byte[characterCount];
+		this.isPregnant = new boolean[characterCount];
+		this.isYou = new boolean[characterCount];
+		this.species = new int[characterCount];
+		this.isPet = new boolean[characterCount];
+		this.importanceCode = new int[characterCount];
+		this.speciesNames = speciesNames;
+	}
+
+	/**
+	 * Creates a batch holding the given scenarios
+	 *
+	 * @param scenarios scenarios to be stored
+	 * @return batch of the scenarios
+	 */
+	public static ScenarioBatch of(Scenario[] scenarios) {
+		int characterCount = 0;
+		ArrayList<String> speciesNames = new ArrayList<String>();
+		Map<String, Integer> speciesCodes = new HashMap<String, Integer>();
+		for (Scenario scenario : scenarios) {
+			characterCount += scenario.getPassengerCount() + scenario.getPedestrianCount();
+			registerSpecies(scenario.getPassengers(), speciesNames, speciesCodes);
+			registerSpecies(scenario.getPedestrians(), speciesNames, speciesCodes);
+		}
+
+		ScenarioBatch batch = new ScenarioBatch(scenarios.length, characterCount,
+				speciesNames.toArray(new String[speciesNames.size()]));
+		int character = 0;
+		for (int i = 0; i < scenarios.length; i++) {
+			batch.scenarioOffsets[i] = character;
+			batch.isLegalCrossing[i] = scenarios[i].isLegalCrossing();
+			batch.youInCar[i] = scenarios[i].hasYouInCar();
+			batch.youInLane[i] = scenarios[i].hasYouInLane();
+			character = batch.setCharacters(character, scenarios[i].getPassengers(), SIDE_PASSENGER, speciesCodes);
+			batch.pedestrianOffsets[i] = character;
+			character = batch.setCharacters(character, scenarios[i].getPedestrians(), SIDE_PEDESTRIAN, speciesCodes);
+		}
+		batch.scenarioOffsets[scenarios.length] = character;
+		return batch;
+	}
+
+	/**
+	 * adds the species of the animals to the species table
+	 *
+	 * @param characters   characters of a scenario
+	 * @param speciesNames table of species names
+	 * @param speciesCodes position of every species in the table
+	 */
+	private static void registerSpecies(Character[] characters, ArrayList<String> speciesNames,
+			Map<String, Integer> speciesCodes) {
+		for (Character character : characters) {
+			if (character.getTypeOfCharacter() == TypeofCharacter.ANIMAL) {
+				String name = ((Animal) character).getSpecies();
+				if (!speciesCodes.containsKey(name)) {
+					speciesCodes.put(name, speciesNames.size());
+					speciesNames.add(name);
+				}
+			}
+		}
+	}
+
+	/**
+	 * stores the traits of characters in the columns
+	 *
+	 * @param character    position of the first character
+	 * @param characters   characters to be stored
+	 * @param side         side of the characters
+	 * @param speciesCodes position of every species in the species table
+	 * @return position after the last stored character
+	 */
+	private int setCharacters(int character, Character[] characters, byte side, Map<String, Integer> speciesCodes) {
+		for (Character source : characters) {
+			this.typeOfCharacter[character] = (byte) source.getTypeOfCharacter().ordinal();
+			this.side[character] = side;
+			this.age[character] = source.getAge();
+			this.gender[character] = (byte) source.getGender().ordinal();
+			this.bodyType[character] = (byte) source.getBodyType().ordinal();
+			this.importanceCode[character] = source.getImportanceCode();
+			if (source.getTypeOfCharacter() == TypeofCharacter.PERSON) {
+				Person person = (Person) source;
+				this.profession[character] = (byte) person.getProfession().ordinal();
+				this.isPregnant[character] = person.isPregnant();
+				this.isYou[character] = person.isYou();
+				this.species[character] = NO_SPECIES;
+			} else {
+				Animal animal = (Animal) source;
+				this.profession[character] = (byte) Profession.NONE.ordinal();
+				this.species[character] = speciesCodes.get(animal.getSpecies());
+				this.isPet[character] = animal.isPet();
+			}
+			character++;
+		}
+		return character;
+	}
+
+	/**
+	 * Converts the batch back to scenarios
+	 *
+	 * @return scenarios of the batch
+	 */
+	public Scenario[] toScenarios() {
+		Scenario[] scenarios = new Scenario[scenarioCount];
+		for (int i = 0; i < scenarioCount; i++) {
+			int passengerCount = 0;
+			for (int c = scenarioOffsets[i]; c < scenarioOffsets[i + 1]; c++) {
+				passengerCount += side[c] == SIDE_PASSENGER ? 1 : 0;
+			}
+			int pedestrianCount = scenarioOffsets[i + 1] - scenarioOffsets[i] - passengerCount;
+
+			Character[] passengers = new Character[passengerCount];
+			Character[] pedestrians = new Character[pedestrianCount];
+			int passenger = 0;
+			int pedestrian = 0;
+			for (int c = scenarioOffsets[i]; c < scenarioOffsets[i + 1]; c++) {
+				if (side[c] == SIDE_PASSENGER) {
+					passengers[passenger++] = getCharacter(c);
+				} else {
+					pedestrians[pedestrian++] = getCharacter(c);
+				}
+			}
+
+			scenarios[i] = new Scenario(passengers, pedestrians, isLegalCrossing[i]);
+			scenarios[i].setYouInCar(youInCar[i]);
+			scenarios[i].setYouInLane(youInLane[i]);
+		}
+		return scenarios;
+	}
+
+	/**
+	 * creates the character stored at a position
+	 *
+	 * @param character position of the character
+	 * @return Person or Animal with the stored traits
+	 */
+	public Character getCharacter(int character) {
+		if (TYPES_OF_CHARACTER[typeOfCharacter[character]] == TypeofCharacter.PERSON) {
+			return new Person(age[character], PROFESSIONS[profession[character]], GENDERS[gender[character]],
+					BODY_TYPES[bodyType[character]], isPregnant[character], isYou[character]);
+		}
+		return new Animal(age[character], GENDERS[gender[character]], BODY_TYPES[bodyType[character]],
+				speciesNames[species[character]], isPet[character]);
+	}
+
+	/**
+	 * gets the importance of the character stored at a position
+	 *
+	 * @param character position of the character
+	 * @return importance of the character
+	 */
+	public int getImportance(int character) {
+		return ImportanceTable.importanceOf(importanceCode[character]);
+	}
+
+	/**
+	 * gets the number of scenarios
+	 *
+	 * @return scenario count
+	 */
+	public int getScenarioCount() {
+		return scenarioCount;
+	}
+
+	/**
+	 * gets the number of characters of all the scenarios
+	 *
+	 * @return character count
+	 */
+	public int getCharacterCount() {
+		return characterCount;
+	}
+
+	/**
+	 * gets the position of the first character of every scenario, followed by
+	 * the character count. The array is not copied
+	 *
+	 * @return scenario offsets
+	 */
+	public int[] getScenarioOffsets() {
+		return scenarioOffsets;
+	}
+
+	/**
+	 * gets the position of the first pedestrian of every scenario. The
+	 * pedestrians of a scenario end where the next scenario starts. The array is
+	 * not copied
+	 *
+	 * @return pedestrian offsets
+	 */
+	public int[] getPedestrianOffsets() {
+		return pedestrianOffsets;
+	}
+
+	/**
+	 * gets the legality of the scenarios. The array is not copied
+	 *
+	 * @return legality column
+	 */
+	public boolean[] getLegalCrossingColumn() {
+		return isLegalCrossing;
+	}
+
+	/**
+	 * gets you in car of the scenarios. The array is not copied
+	 *
+	 * @return you in car column
+	 */
+	public boolean[] getYouInCarColumn() {
+		return youInCar;
+	}
+
+	/**
+	 * gets you in lane of the scenarios. The array is not copied
+	 *
+	 * @return you in lane column
+	 */
+	public boolean[] getYouInLaneColumn() {
+		return youInLane;
+	}
+
+	/**
+	 * gets the ordinal of TypeofCharacter of the characters. The array is not
+	 * copied
+	 *
+	 * @return type of character column
+	 */
+	public byte[] getTypeOfCharacterColumn() {
+		return typeOfCharacter;
+	}
+
+	/**
+	 * gets the side of the characters, {@link #SIDE_PASSENGER} or
+	 * {@link #SIDE_PEDESTRIAN}. The array is not copied
+	 *
+	 * @return side column
+	 */
+	public byte[] getSideColumn() {
+		return side;
+	}
+
+	/**
+	 * gets the age of the characters. The array is not copied
+	 *
+	 * @return age column
+	 */
+	public int[] getAgeColumn() {
+		return age;
+	}
+
+	/**
+	 * gets the ordinal of Gender of the characters. The array is not copied
+	 *
+	 * @return gender column
+	 */
+	public byte[] getGenderColumn() {
+		return gender;
+	}
+
+	/**
+	 * gets the ordinal of BodyType of the characters. The array is not copied
+	 *
+	 * @return bodytype column
+	 */
+	public byte[] getBodyTypeColumn() {
+		return bodyType;
+	}
+
+	/**
+	 * gets the ordinal of Profession of the characters, NONE for animals. The
+	 * array is not copied
+	 *
+	 * @return profession column
+	 */
+	public byte[] getProfessionColumn() {
+		return profession;
+	}
+
+	/**
+	 * gets the pregnant status of the characters. The array is not copied
+	 *
+	 * @return pregnant column
+	 */
+	public boolean[] getPregnantColumn() {
+		return isPregnant;
+	}
+
+	/**
+	 * gets the you status of the characters. The array is not copied
+	 *
+	 * @return you column
+	 */
+	public boolean[] getYouColumn() {
+		return isYou;
+	}
+
+	/**
+	 * gets the position of the species of the characters in the species table,
+	 * {@link #NO_SPECIES} for persons. The array is not copied
+	 *
+	 * @return species column
+	 */
+	public int[] getSpeciesColumn() {
+		return species;
+	}
+
+	/**
+	 * gets the pet status of the characters. The array is not copied
+	 *
+	 * @return pet column
+	 */
+	public boolean[] getPetColumn() {
+		return isPet;
+	}
+
+	/**
+	 * gets the code of the characters in the {@link ImportanceTable}. The array
+	 * is not copied
+	 *
+	 * @return importance code column
+	 */
+	public int[] getImportanceCodeColumn() {
+		return importanceCode;
+	}
+
+	/**
+	 * gets the number of species of the species table
+	 *
+	 * @return species count
+	 */
+	public int getSpeciesCount() {
+		return speciesNames.length;
+	}
+
+	/**
+	 * gets the name of a species of the species table
+	 *
+	 * @param species position in the species table
+	 * @return name of the species
+	 */
+	public String getSpeciesName(int species) {
+		return speciesNames[species];
+	}
+}
@@ -0,0 +1,586 @@
+package ethicalengine;
+
+/**
+ * Binary file of scenarios. The file starts with a header holding the format
+ * version, the number of scenarios and characters and the position of the
+ * optional offset index, followed by the table of species names. Every
+ * scenario is stored as a byte of flags, the number of passengers and
+ * pedestrians and then its characters, passengers first. A character is packed
+ * in three bytes; an age or species which does not fit in its bits is escaped
+ * and follows the character as a variable length integer. The offset index at
+ * the end of the file holds the position of every scenario, so a reader can
+ * seek to any of them. Files are read through memory mapped windows
+ *
+ * @author Sharodh Keelamanakudi Ragupathi(1148618)
+ */
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+import ethicalengine.Character.TypeofCharacter;
+import ethicalengine.Person.Profession;
+
+public final class ScenarioCorpus implements Closeable {
+
+	static final int MAGIC = 0x4353_4D4D; // "MMSC" in little endian
+	static final short VERSION = 1;
+	static final short FLAG_INDEX = 1;
+	static final int HEADER_SIZE = 32;
+	static final int WINDOW_SIZE = 1 << 26;
+	static final int BUFFER_SIZE = 1 << 16;
+
+	static final int SCENARIO_LEGAL_CROSSING = 1;
+	static final int SCENARIO_YOU_IN_CAR = 1 << 1;
+	static final int SCENARIO_YOU_IN_LANE = 1 << 2;
+
+	static final int TYPE_SHIFT = 0;
+	static final int GENDER_SHIFT = 1;
+	static final int BODY_TYPE_SHIFT = 3;
+	static final int PROFESSION_SHIFT = 5;
+	static final int PREGNANT_BIT = 1 << 9;
+	static final int YOU_BIT = 1 << 10;
+	static final int PET_BIT = 1 << 11;
+	static final int AGE_SHIFT = 12;
+	static final int AGE_ESCAPE = 0x7F;
+	static final int SPECIES_SHIFT = 19;
+	static final int SPECIES_ESCAPE = 0x1F;
+	static final int CHARACTER_SIZE = 3;
+	static final int MAX_VARINT_SIZE = 5;
+
+	private static final Profession[] PROFESSIONS = Profession.values();
+	private static final int PERSON = TypeofCharacter.PERSON.ordinal();
+
+	private final RandomAccessFile file;
+	private final FileChannel channel;
+	private final long size;
+	private final long scenarioCount;
+	private final long characterCount;
+	private final long indexOffset;
+	private final String[] speciesNames;
+	private final long firstScenarioOffset;
+
+	private MappedByteBuffer window;
+	private long windowStart;
+	private long position;
+
+	/**
+	 * opens a corpus and reads its header
+	 *
+	 * @param path corpus file
+	 * @throws IOException
+	 */
+	private ScenarioCorpus(File path) throws IOException {
+		this.file = new RandomAccessFile(path, "r");
+		this.channel = file.getChannel();
+		this.size = channel.size();
+		try {
+			if (size < HEADER_SIZE || readInt() != MAGIC) {
+				throw new IOException("ERROR: not a scenario corpus.");
+			}
+			short version = readShort();
+			if (version != VERSION) {
+				throw new IOException(String.format("ERROR: unsupported scenario corpus version %d.", version));
+			}
+			short flags = readShort();
+			this.scenarioCount = readLong();
+			this.characterCount = readLong();
+			long offset = readLong();
+			this.indexOffset = (flags & FLAG_INDEX) != 0 ? offset : 0;
+
+			this.speciesNames = new String[readVarint()];
+			for (int i = 0; i < speciesNames.length; i++) {
+				byte[] name = new byte[readVarint()];
+				ensure(name.length);
+				window.get((int) (position - windowStart), name);
+				position += name.length;
+				speciesNames[i] = new String(name, StandardCharsets.UTF_8);
+			}
+			this.firstScenarioOffset = position;
+		} catch (IOException e) {
+			close();
+			throw e;
+		}
+	}
+
+	/**
+	 * opens a corpus file
+	 *
+	 * @param path corpus file
+	 * @return opened corpus
+	 * @throws IOException
+	 */
+	public static ScenarioCorpus open(File path) throws IOException {
+		return new ScenarioCorpus(path);
+	}
+
+	/**
+	 * checks if a file starts like a corpus
+	 *
+	 * @param path file to be checked
+	 * @return if the file is a scenario corpus
+	 * @throws IOException
+	 */
+	public static boolean isCorpus(File path) throws IOException {
+		try (RandomAccessFile file = new RandomAccessFile(path, "r")) {
+			return file.length() >= HEADER_SIZE && Integer.reverseBytes(file.readInt()) == MAGIC;
+		}
+	}
+
+	/**
+	 * gets the number of scenarios
+	 *
+	 * @return scenario count
+	 */
+	public long getScenarioCount() {
+		return scenarioCount;
+	}
+
+	/**
+	 * gets the number of characters of all the scenarios
+	 *
+	 * @return character count
+	 */
+	public long getCharacterCount() {
+		return characterCount;
+	}
+
+	/**
+	 * checks if the corpus has an offset index
+	 *
+	 * @return if scenarios can be read by index
+	 */
+	public boolean hasIndex() {
+		return indexOffset != 0;
+	}
+
+	/**
+	 * reads all the scenarios of the corpus
+	 *
+	 * @return batch of the scenarios
+	 * @throws IOException
+	 */
+	public ScenarioBatch readAll() throws IOException {
+		if (scenarioCount > Integer.MAX_VALUE || characterCount > Integer.MAX_VALUE) {
+			throw new IOException("ERROR: scenario corpus is too large to be read at once.");
+		}
+		ScenarioBatch batch = new ScenarioBatch((int) scenarioCount, (int) characterCount, speciesNames);
+		position = firstScenarioOffset;
+		int character = 0;
+		for (int i = 0; i < scenarioCount; i++) {
+			character = readScenario(batch, i, character);
+		}
+		batch.getScenarioOffsets()[(int) scenarioCount] = character;
+		return batch;
+	}
+
+	/**
+	 * reads a scenario through the offset index
+	 *
+	 * @param index position of the scenario in the corpus
+	 * @return scenario
+	 * @throws IOException
+	 */
+	public Scenario getScenario(long index) throws IOException {
+		if (!hasIndex()) {
+			throw new IOException("ERROR: scenario corpus has no index.");
+		}
+		if (index < 0 || index >= scenarioCount) {
+			throw new IndexOutOfBoundsException(String.format("scenario %d of %d", index, scenarioCount));
+		}
+		position = indexOffset + index * Long.BYTES;
+		position = readLong();
+
+		long scenarioStart = position;
+		readByte();
+		int characters = readVarint() + readVarint();
+		position = scenarioStart;
+
+		ScenarioBatch batch = new ScenarioBatch(1, characters, speciesNames);
+		batch.getScenarioOffsets()[1] = readScenario(batch, 0, 0);
+		return batch.toScenarios()[0];
+	}
+
+	/**
+	 * reads the scenario at the current position into a batch
+	 *
+	 * @param batch     batch to be filled
+	 * @param scenario  position of the scenario in the batch
+	 * @param character position of the first character in the batch
+	 * @return position after the last character of the scenario
+	 * @throws IOException
+	 */
+	private int readScenario(ScenarioBatch batch, int scenario, int character) throws IOException {
+		int flags = readByte();
+		int passengerCount = readVarint();
+		int pedestrianCount = readVarint();
+
+		batch.getScenarioOffsets()[scenario] = character;
+		batch.getPedestrianOffsets()[scenario] = character + passengerCount;
+		batch.getLegalCrossingColumn()[scenario] = (flags & SCENARIO_LEGAL_CROSSING) != 0;
+		batch.getYouInCarColumn()[scenario] = (flags & SCENARIO_YOU_IN_CAR) != 0;
+		batch.getYouInLaneColumn()[scenario] = (flags & SCENARIO_YOU_IN_LANE) != 0;
+
+		for (int i = 0; i < passengerCount + pedestrianCount; i++) {
+			readCharacter(batch, character++, i < passengerCount ? ScenarioBatch.SIDE_PASSENGER
+					: ScenarioBatch.SIDE_PEDESTRIAN);
+		}
+		return character;
+	}
+
+	/**
+	 * reads the character at the current position into a batch
+	 *
+	 * @param batch     batch to be filled
+	 * @param character position of the character in the batch
+	 * @param side      side of the character
+	 * @throws IOException
+	 */
+	private void readCharacter(ScenarioBatch batch, int character, byte side) throws IOException {
+		ensure(CHARACTER_SIZE);
+		int index = (int) (position - windowStart);
+		int bits = (window.get(index) & 0xFF) | (window.get(index + 1) & 0xFF) << 8
+				| (window.get(index + 2) & 0xFF) << 16;
+		position += CHARACTER_SIZE;
+
+		int age = (bits >>> AGE_SHIFT) & AGE_ESCAPE;
+		if (age == AGE_ESCAPE) {
+			age = readVarint();
+		}
+		int species = (bits >>> SPECIES_SHIFT) & SPECIES_ESCAPE;
+		if (species == SPECIES_ESCAPE) {
+			species = readVarint();
+		}
+
+		int type = (bits >>> TYPE_SHIFT) & 1;
+		int profession = (bits >>> PROFESSION_SHIFT) & 0xF;
+		boolean isPregnant = (bits & PREGNANT_BIT) != 0;
+		boolean isYou = (bits & YOU_BIT) != 0;
+		boolean isPet = (bits & PET_BIT) != 0;
+		if (profession >= PROFESSIONS.length || (type != PERSON && species >= speciesNames.length)) {
+			throw new IOException("ERROR: scenario corpus is corrupted.");
+		}
+
+		batch.getTypeOfCharacterColumn()[character] = (byte) type;
+		batch.getSideColumn()[character] = side;
+		batch.getAgeColumn()[character] = age;
+		batch.getGenderColumn()[character] = (byte) ((bits >>> GENDER_SHIFT) & 0x3);
+		batch.getBodyTypeColumn()[character] = (byte) ((bits >>> BODY_TYPE_SHIFT) & 0x3);
+		batch.getProfessionColumn()[character] = (byte) profession;
+		batch.getPregnantColumn()[character] = isPregnant;
+		batch.getYouColumn()[character] = isYou;
+		batch.getPetColumn()[character] = isPet;
+		if (type == PERSON) {
+			batch.getSpeciesColumn()[character] = ScenarioBatch.NO_SPECIES;
+			batch.getImportanceCodeColumn()[character] = ImportanceTable
+					.personCode(Person.AgeCategoryUtil(age), PROFESSIONS[profession], isPregnant, isYou);
+		} else {
+			batch.getSpeciesColumn()[character] = species;
+			batch.getImportanceCodeColumn()[character] = ImportanceTable.animalCode(isPet);
+		}
+	}
+
+	/**
+	 * maps the window holding the next bytes
+	 *
+	 * @param bytes number of bytes to be read
+	 * @throws IOException
+	 */
+	private void ensure(int bytes) throws IOException {
+		if (position + bytes > size) {
+			throw new IOException("ERROR: scenario corpus is truncated.");
+		}
+		if (window == null || position < windowStart || position + bytes > windowStart + window.limit()) {
+			windowStart = position;
+			window = channel.map(FileChannel.MapMode.READ_ONLY, position,
+					Math.min(size - position, Math.max(WINDOW_SIZE, bytes)));
+			window.order(ByteOrder.LITTLE_ENDIAN);
+		}
+	}
+
+	/**
+	 * @return next byte
+	 * @throws IOException
+	 */
+	private int readByte() throws IOException {
+		ensure(1);
+		return window.get((int) (position++ - windowStart)) & 0xFF;
+	}
+
+	/**
+	 * @return next short
+	 * @throws IOException
+	 */
+	private short readShort() throws IOException {
+		ensure(Short.BYTES);
+		short value = window.getShort((int) (position - windowStart));
+		position += Short.BYTES;
+		return value;
+	}
+
+	/**
+	 * @return next int
+	 * @throws IOException
+	 */
+	private int readInt() throws IOException {
+		ensure(Integer.BYTES);
+		int value = window.getInt((int) (position - windowStart));
+		position += Integer.BYTES;
+		return value;
+	}
+
+	/**
+	 * @return next long
+	 * @throws IOException
+	 */
+	private long readLong() throws IOException {
+		ensure(Long.BYTES);
+		long value = window.getLong((int) (position - windowStart));
+		position += Long.BYTES;
+		return value;
+	}
+
+	/**
+	 * reads an int stored in groups of seven bits, lowest group first
+	 *
+	 * @return next variable length int
+	 * @throws IOException
+	 */
+	private int readVarint() throws IOException {
+		int value = 0;
+		for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+			int b = readByte();
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IOException("ERROR: scenario corpus is corrupted.");
+	}
+
+	/**
+	 * closes the corpus file
+	 *
+	 * @throws IOException
+	 */
+	@Override
+	public void close() throws IOException {
+		window = null;
+		file.close();
+	}
+
+	/**
+	 * writes a batch of scenarios to a corpus file
+	 *
+	 * @param batch     scenarios to be written
+	 * @param path      corpus file
+	 * @param withIndex if the offset index is written
+	 * @throws IOException
+	 */
+	public static void write(ScenarioBatch batch, File path, boolean withIndex) throws IOException {
+		try (RandomAccessFile file = new RandomAccessFile(path, "rw"); FileChannel channel = file.getChannel()) {
+			channel.truncate(0);
+			Writer writer = new Writer(channel);
+
+			writer.putInt(MAGIC);
+			writer.putShort(VERSION);
+			writer.putShort(withIndex ? FLAG_INDEX : 0);
+			writer.putLong(batch.getScenarioCount());
+			writer.putLong(batch.getCharacterCount());
+			writer.putLong(0);
+
+			int speciesCount = batch.getSpeciesCount();
+			writer.putVarint(speciesCount);
+			for (int i = 0; i < speciesCount; i++) {
+				byte[] name = batch.getSpeciesName(i).getBytes(StandardCharsets.UTF_8);
+				writer.putVarint(name.length);
+				writer.put(name);
+			}
+
+			long[] offsets = withIndex ? new long[batch.getScenarioCount()] : null;
+			for (int i = 0; i < batch.getScenarioCount(); i++) {
+				if (withIndex) {
+					offsets[i] = writer.getPosition();
+				}
+				writeScenario(writer, batch, i);
+			}
+
+			if (withIndex) {
+				long indexOffset = writer.getPosition();
+				for (long offset : offsets) {
+					writer.putLong(offset);
+				}
+				writer.flush();
+				ByteBuffer header = ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+				channel.write(header.putLong(0, indexOffset), HEADER_SIZE - Long.BYTES);
+			} else {
+				writer.flush();
+			}
+		}
+	}
+
+	/**
+	 * writes a scenario of a batch
+	 *
+	 * @param writer   output of the corpus
+	 * @param batch    batch of scenarios
+	 * @param scenario position of the scenario in the batch
+	 * @throws IOException
+	 */
+	private static void writeScenario(Writer writer, ScenarioBatch batch, int scenario) throws IOException {
+		int start = batch.getScenarioOffsets()[scenario];
+		int end = batch.getScenarioOffsets()[scenario + 1];
+		int pedestrianStart = batch.getPedestrianOffsets()[scenario];
+
+		int flags = (batch.getLegalCrossingColumn()[scenario] ? SCENARIO_LEGAL_CROSSING : 0)
+				| (batch.getYouInCarColumn()[scenario] ? SCENARIO_YOU_IN_CAR : 0)
+				| (batch.getYouInLaneColumn()[scenario] ? SCENARIO_YOU_IN_LANE : 0);
+		writer.putByte(flags);
+		writer.putVarint(pedestrianStart - start);
+		writer.putVarint(end - pedestrianStart);
+
+		for (int c = start; c < end; c++) {
+			int age = batch.getAgeColumn()[c];
+			int species = batch.getSpeciesColumn()[c];
+			int ageBits = age >= 0 && age < AGE_ESCAPE ? age : AGE_ESCAPE;
+			int speciesBits = species == ScenarioBatch.NO_SPECIES ? 0
+					: species < SPECIES_ESCAPE ? species : SPECIES_ESCAPE;
+			int bits = batch.getTypeOfCharacterColumn()[c] << TYPE_SHIFT
+					| batch.getGenderColumn()[c] << GENDER_SHIFT
+					| batch.getBodyTypeColumn()[c] << BODY_TYPE_SHIFT
+					| batch.getProfessionColumn()[c] << PROFESSION_SHIFT
+					| (batch.getPregnantColumn()[c] ? PREGNANT_BIT : 0)
+					| (batch.getYouColumn()[c] ? YOU_BIT : 0)
+					| (batch.getPetColumn()[c] ? PET_BIT : 0)
+					| ageBits << AGE_SHIFT
+					| speciesBits << SPECIES_SHIFT;
+			writer.putByte(bits);
+			writer.putByte(bits >>> 8);
+			writer.putByte(bits >>> 16);
+			if (ageBits == AGE_ESCAPE) {
+				writer.putVarint(age);
+			}
+			if (speciesBits == SPECIES_ESCAPE) {
+				writer.putVarint(species);
+			}
+		}
+	}
+
+	/**
+	 * Buffered little endian output of a corpus file
+	 */
+	private static class Writer {
+
+		private final FileChannel channel;
+		private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+		private long flushed = 0;
+
+		/**
+		 * creates an output at the start of a file
+		 *
+		 * @param channel corpus file
+		 */
+		Writer(FileChannel channel) {
+			this.channel = channel;
+		}
+
+		/**
+		 * @return position of the next byte in the file
+		 */
+		long getPosition() {
+			return flushed + buffer.position();
+		}
+
+		/**
+		 * makes room for the next bytes
+		 *
+		 * @param bytes number of bytes to be written
+		 * @throws IOException
+		 */
+		private void reserve(int bytes) throws IOException {
+			if (buffer.remaining() < bytes) {
+				flush();
+			}
+		}
+
+		/**
+		 * writes the buffered bytes to the file
+		 *
+		 * @throws IOException
+		 */
+		void flush() throws IOException {
+			buffer.flip();
+			while (buffer.hasRemaining()) {
+				flushed += channel.write(buffer);
+			}
+			buffer.clear();
+		}
+
+		/**
+		 * @param value lowest byte of an int to be written
+		 * @throws IOException
+		 */
+		void putByte(int value) throws IOException {
+			reserve(1);
+			buffer.put((byte) value);
+		}
+
+		/**
+		 * @param value short to be written
+		 * @throws IOException
+		 */
+		void putShort(short value) throws IOException {
+			reserve(Short.BYTES);
+			buffer.putShort(value);
+		}
+
+		/**
+		 * @param value int to be written
+		 * @throws IOException
+		 */
+		void putInt(int value) throws IOException {
+			reserve(Integer.BYTES);
+			buffer.putInt(value);
+		}
+
+		/**
+		 * @param value long to be written
+		 * @throws IOException
+		 */
+		void putLong(long value) throws IOException {
+			reserve(Long.BYTES);
+			buffer.putLong(value);
+		}
+
+		/**
+		 * @param bytes bytes to be written
+		 * @throws IOException
+		 */
+		void put(byte[] bytes) throws IOException {
+			for (byte b : bytes) {
+				putByte(b);
+			}
+		}
+
+		/**
+		 * writes an int in groups of seven bits, lowest group first
+		 *
+		 * @param value int to be written
+		 * @throws IOException
+		 */
+		void putVarint(int value) throws IOException {
+			reserve(MAX_VARINT_SIZE);
+			while ((value & ~0x7F) != 0) {
+				buffer.put((byte) ((value & 0x7F) | 0x80));
+				value >>>= 7;
+			}
+			buffer.put((byte) value);
+		}
+	}
+}
@@ -0,0 +1,190 @@
+package ethicalengine;
+
+/**
+ * Canonical fingerprint of a scenario, equal for scenarios that only differ in
+ * the order of their characters. Every side is reduced to the multiset of the
+ * importance codes of its characters, stored as pairs of code and count sorted
+ * by code, next to the legality and you flags and the scoring table the
+ * scenario is decided with. Two scenarios with the same fingerprint are
+ * decided the same way.
+ *
+ * A fingerprint can be reused for several scenarios with
+ * {@link #set(Scenario)}, which does not allocate once its buffers are large
+ * enough, so a cache can be probed without garbage. A fingerprint kept as a key
+ * must be a {@link #copy()} that is never set again
+ *
+ * @author Sharodh Keelamanakudi Ragupathi(1148618)
+ */
+
+import java.util.Arrays;
+
+public final class ScenarioFingerprint {
+
+	static final int LEGAL_CROSSING_FLAG = 1;
+	static final int YOU_IN_CAR_FLAG = 2;
+	static final int YOU_IN_LANE_FLAG = 4;
+
+	/**
+	 * sides with more characters than this are counted in a table of all the
+	 * codes instead of being sorted
+	 */
+	static final int MAX_SORTED_SIDE = 16;
+
+	private int[] key;
+	private int length;
+	private int hash;
+	private ScoringTable table;
+	private final int[] counts;
+
+	/**
+	 * creates an empty fingerprint, to be set to a scenario
+	 */
+	public ScenarioFingerprint() {
+		this.key = new int[2 + 4 * MAX_SORTED_SIDE];
+		this.counts = new int[ImportanceTable.CODE_COUNT];
+	}
+
+	/**
+	 * creates a fingerprint from its key
+	 *
+	 * @param key   flags, number of passenger pairs, then the code and count
+	 *              pairs of the passengers and of the pedestrians
+	 * @param hash  hash of the key and the table
+	 * @param table scoring table the scenario is decided with
+	 */
+	private ScenarioFingerprint(int[] key, int hash, ScoringTable table) {
+		this.key = key;
+		this.length = key.length;
+		this.hash = hash;
+		this.table = table;
+		this.counts = null;
+	}
+
+	/**
+	 * computes the fingerprint of a scenario
+	 *
+	 * @param scenario scenario to be fingerprinted
+	 * @return fingerprint of the scenario
+	 */
+	public static ScenarioFingerprint of(Scenario scenario) {
+		return new ScenarioFingerprint().set(scenario).copy();
+	}
+
+	/**
+	 * sets this fingerprint to the one of a scenario decided with the active
+	 * scoring table
+	 *
+	 * @param scenario scenario to be fingerprinted
+	 * @return this fingerprint
+	 * @throws IllegalStateException if this fingerprint is a copy
+	 */
+	public ScenarioFingerprint set(Scenario scenario) {
+		if (counts == null) {
+			throw new IllegalStateException("a copied fingerprint cannot be set");
+		}
+		Character[] passengers = scenario.getPassengers();
+		Character[] pedestrians = scenario.getPedestrians();
+		int capacity = 2 + 2 * (Math.min(passengers.length, ImportanceTable.CODE_COUNT)
+				+ Math.min(pedestrians.length, ImportanceTable.CODE_COUNT));
+		if (key.length < capacity) {
+			key = new int[capacity];
+		}
+		key[0] = (scenario.isLegalCrossing() ? LEGAL_CROSSING_FLAG : 0)
+				| (scenario.hasYouInCar() ? YOU_IN_CAR_FLAG : 0) | (scenario.hasYouInLane() ? YOU_IN_LANE_FLAG : 0);
+		length = writeSide(passengers, 2);
+		key[1] = (length - 2) / 2;
+		length = writeSide(pedestrians, length);
+
+		table = ScoringTable.getActive();
+		int keyHash = 1;
+		for (int i = 0; i < length; i++) {
+			keyHash = 31 * keyHash + key[i];
+		}
+		hash = 31 * keyHash + System.identityHashCode(table);
+		return this;
+	}
+
+	/**
+	 * copies this fingerprint into one that can be kept as a key
+	 *
+	 * @return copy of the fingerprint
+	 */
+	public ScenarioFingerprint copy() {
+		return new ScenarioFingerprint(Arrays.copyOf(key, length), hash, table);
+	}
+
+	/**
+	 * writes the code and count pairs of a side, sorted by code. The codes of a
+	 * large side are counted in the table of all the codes, which is cleared
+	 * again afterwards
+	 *
+	 * @param characters characters of the side
+	 * @param position   position of the first pair in the key
+	 * @return position after the last pair
+	 */
+	private int writeSide(Character[] characters, int position) {
+		if (characters.length > MAX_SORTED_SIDE) {
+			for (Character character : characters) {
+				counts[character.getImportanceCode()]++;
+			}
+			for (int code = 0; code < counts.length; code++) {
+				if (counts[code] > 0) {
+					key[position++] = code;
+					key[position++] = counts[code];
+					counts[code] = 0;
+				}
+			}
+			return position;
+		}
+
+		// the codes of a small side are insertion sorted in place, with a count of 1
+		int first = position;
+		for (Character character : characters) {
+			int code = character.getImportanceCode();
+			int i = position;
+			for (; i > first && key[i - 2] > code; i -= 2) {
+				key[i] = key[i - 2];
+			}
+			key[i] = code;
+			position += 2;
+		}
+		// equal codes are then merged into one pair
+		int end = position;
+		position = first;
+		for (int i = first; i < end; i += 2) {
+			if (position > first && key[position - 2] == key[i]) {
+				key[position - 1]++;
+			} else {
+				key[position] = key[i];
+				key[position + 1] = 1;
+				position += 2;
+			}
+		}
+		return position;
+	}
+
+	/**
+	 * gets the hash of the fingerprint, computed when it is set
+	 */
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+
+	/**
+	 * checks if two fingerprints hold the same multisets and flags and were set
+	 * with the same scoring table
+	 */
+	@Override
+	public boolean equals(Object other) {
+		if (this == other) {
+			return true;
+		}
+		if (!(other instanceof ScenarioFingerprint)) {
+			return false;
+		}
+		ScenarioFingerprint fingerprint = (ScenarioFingerprint) other;
+		return hash == fingerprint.hash && table == fingerprint.table
+				&& Arrays.equals(key, 0, length, fingerprint.key, 0, fingerprint.length);
+	}
+}
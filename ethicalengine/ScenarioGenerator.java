@@ -6,7 +6,7 @@ package ethicalengine;
  * @author Sharodh Keelamanakudi Ragupathi(1148618)
  */
 
-import java.util.Random;
+import java.util.SplittableRandom;
 
 import ethicalengine.Animal.Species;
 import ethicalengine.Character.BodyType;
@@ -29,7 +29,9 @@ public class ScenarioGenerator {
 
 	private int pedestrianCountMaximum;
 
-	private Random random = new Random();
+	private SplittableRandom random;
+
+	private SeedStream seeds;
 
 	/**
 	 * gets the minimum passenger count
@@ -103,6 +105,16 @@ public class ScenarioGenerator {
 		this.pedestrianCountMaximum = max;
 	}
 
+	/**
+	 * gets the bound of the random ages, which are drawn from 0 to the bound
+	 * (exclusive)
+	 * 
+	 * @return max age (exclusive)
+	 */
+	public int getMaxAge() {
+		return MAX_AGE;
+	}
+
 	/**
 	 * sets the default threshold values
 	 */
@@ -117,6 +129,7 @@ public class ScenarioGenerator {
 	 * create scenario generator object with default values
 	 */
 	public ScenarioGenerator() {
+		this.random = new SplittableRandom();
 		setDefaultThresholdValues();
 	}
 
@@ -126,7 +139,19 @@ public class ScenarioGenerator {
 	 * @param seed random generator seed
 	 */
 	public ScenarioGenerator(long seed) {
-		this.random.setSeed(seed);
+		this.random = new SplittableRandom(seed);
+		setDefaultThresholdValues();
+	}
+
+	/**
+	 * creates scenario generator object drawing the seed of every scenario from a
+	 * seed stream
+	 * 
+	 * @param seeds stream of scenario seeds
+	 */
+	public ScenarioGenerator(SeedStream seeds) {
+		this.seeds = seeds;
+		this.random = seeds.randomAt(0);
 		setDefaultThresholdValues();
 	}
 
@@ -142,7 +167,7 @@ public class ScenarioGenerator {
 	 */
 	public ScenarioGenerator(long seed, int passengerCountMinimum, int passengerCountMaximum,
 			int pedestrianCountMinimum, int pedestrianCountMaximum) {
-		this.random.setSeed(seed);
+		this.random = new SplittableRandom(seed);
 		this.setPassengerCountMax(passengerCountMaximum);
 		this.setPassengerCountMin(passengerCountMinimum);
 		this.setPedestrianCountMax(pedestrianCountMaximum);
@@ -225,7 +250,8 @@ public class ScenarioGenerator {
 	 */
 	private Character[] generateRandomCharacters(int min, int max, boolean isYou) {
 
-		int countOfCharacters = random.nextInt(max - min) + min;
+		// the max count is exclusive, a range without counts gives exactly min
+		int countOfCharacters = max > min ? random.nextInt(max - min) + min : min;
 		int randomPersonIndex = random.nextInt(countOfCharacters);
 
 		Character[] characters = new Character[countOfCharacters];
@@ -261,4 +287,20 @@ public class ScenarioGenerator {
 
 		return scene;
 	}
+
+	/**
+	 * generates the Scenario at a position of the seed stream. The result only
+	 * depends on the master seed and the index, not on the scenarios generated
+	 * before
+	 * 
+	 * @param index position of the scenario in the stream
+	 * @return random Scenario
+	 */
+	public Scenario generate(long index) {
+		if (seeds == null) {
+			seeds = new SeedStream(random.nextLong());
+		}
+		this.random = seeds.randomAt(index);
+		return generate();
+	}
 }
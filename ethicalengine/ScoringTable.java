@@ -0,0 +1,232 @@
+package ethicalengine;
+
+/**
+ * Weights of the decision compiled into a table of the importance of every
+ * importance code. The weights are the importance of each age category and
+ * profession, of being pregnant, of being you and of being a pet, and the
+ * penalty of every pedestrian crossing illegally. They default to the values
+ * the engine always used and can be overridden from a properties file or from
+ * a list of key=value pairs, with the keys age.baby, profession.doctor,
+ * pregnant, you, pet, illegalCrossing and so on. A table is immutable; the
+ * active table is read by every decision and should be set once at startup,
+ * as cached decisions and the totals of live scenarios are not recomputed
+ *
+ * @author Sharodh Keelamanakudi Ragupathi(1148618)
+ */
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import ethicalengine.Person.AgeCategory;
+import ethicalengine.Person.Profession;
+
+public final class ScoringTable {
+
+	public static final String AGE_PREFIX = "age.";
+	public static final String PROFESSION_PREFIX = "profession.";
+	public static final String PREGNANT_KEY = "pregnant";
+	public static final String YOU_KEY = "you";
+	public static final String PET_KEY = "pet";
+	public static final String ILLEGAL_CROSSING_KEY = "illegalCrossing";
+
+	static final int DEFAULT_ILLEGAL_CROSSING_PENALTY = -2;
+
+	/**
+	 * table of the default weights
+	 */
+	public static final ScoringTable DEFAULT = new ScoringTable(getDefaultWeights());
+
+	private static volatile ScoringTable active = DEFAULT;
+
+	private final Map<String, Integer> weights;
+	private final int[] importances;
+	private final int illegalCrossingPenalty;
+
+	/**
+	 * compiles the weights into a table
+	 *
+	 * @param weights value of every weight key
+	 */
+	private ScoringTable(Map<String, Integer> weights) {
+		this.weights = Collections.unmodifiableMap(weights);
+		this.importances = new int[ImportanceTable.CODE_COUNT];
+		for (AgeCategory ageCategory : AgeCategory.values()) {
+			int ageImportance = weights.get(AGE_PREFIX + ageCategory);
+			for (Profession profession : Profession.values()) {
+				int professionImportance = weights.get(PROFESSION_PREFIX + profession);
+				for (int pregnant = 0; pregnant < 2; pregnant++) {
+					for (int you = 0; you < 2; you++) {
+						importances[ImportanceTable.personCode(ageCategory, profession, pregnant == 1,
+								you == 1)] = ageImportance + professionImportance
+										+ (pregnant == 1 ? weights.get(PREGNANT_KEY) : 0)
+										+ (you == 1 ? weights.get(YOU_KEY) : 0);
+					}
+				}
+			}
+		}
+		importances[ImportanceTable.ANIMAL_CODE] = 0;
+		importances[ImportanceTable.PET_CODE] = weights.get(PET_KEY);
+		this.illegalCrossingPenalty = weights.get(ILLEGAL_CROSSING_KEY);
+	}
+
+	/**
+	 * gets the default weights, in the order of the keys
+	 *
+	 * @return value of every weight key
+	 */
+	public static Map<String, Integer> getDefaultWeights() {
+		Map<String, Integer> weights = new LinkedHashMap<String, Integer>();
+		for (AgeCategory ageCategory : AgeCategory.values()) {
+			weights.put(AGE_PREFIX + ageCategory, ageCategory.getImportance());
+		}
+		for (Profession profession : Profession.values()) {
+			weights.put(PROFESSION_PREFIX + profession, profession.getImportance());
+		}
+		weights.put(PREGNANT_KEY, Person.IS_PREGNANT_IMPORTANCE);
+		weights.put(YOU_KEY, Person.IS_YOU_IMPORTANCE);
+		weights.put(PET_KEY, Animal.IS_PET_IMPORTANCE);
+		weights.put(ILLEGAL_CROSSING_KEY, DEFAULT_ILLEGAL_CROSSING_PENALTY);
+		return weights;
+	}
+
+	/**
+	 * compiles the default weights with some of them overridden
+	 *
+	 * @param overrides value of the overridden weight keys
+	 * @return compiled table
+	 * @throws IllegalArgumentException if a key is not a weight
+	 */
+	public static ScoringTable of(Map<String, Integer> overrides) {
+		Map<String, Integer> weights = getDefaultWeights();
+		for (Map.Entry<String, Integer> override : overrides.entrySet()) {
+			if (!weights.containsKey(override.getKey())) {
+				throw new IllegalArgumentException(String.format("ERROR: unknown weight %s.", override.getKey()));
+			}
+			weights.put(override.getKey(), override.getValue());
+		}
+		return new ScoringTable(weights);
+	}
+
+	/**
+	 * compiles the weights of a properties file, the weights it does not set
+	 * keep their default
+	 *
+	 * @param file properties file of weights
+	 * @return compiled table
+	 * @throws IOException
+	 * @throws IllegalArgumentException if a key is not a weight or a value is
+	 *                                  not a number
+	 */
+	public static ScoringTable load(File file) throws IOException {
+		Properties properties = new Properties();
+		try (InputStream in = new FileInputStream(file)) {
+			properties.load(in);
+		}
+		Map<String, Integer> overrides = new LinkedHashMap<String, Integer>();
+		for (String key : properties.stringPropertyNames()) {
+			overrides.put(key, parseWeight(key, properties.getProperty(key)));
+		}
+		return of(overrides);
+	}
+
+	/**
+	 * compiles the weights of a comma separated list of key=value pairs, the
+	 * weights it does not set keep their default
+	 *
+	 * @param pairs list of weights like pregnant=4,illegalCrossing=-3
+	 * @return compiled table
+	 * @throws IllegalArgumentException if a pair is malformed, a key is not a
+	 *                                  weight or a value is not a number
+	 */
+	public static ScoringTable parse(String pairs) {
+		Map<String, Integer> overrides = new LinkedHashMap<String, Integer>();
+		for (String pair : pairs.split(",")) {
+			int separator = pair.indexOf('=');
+			if (separator < 0) {
+				throw new IllegalArgumentException(String.format("ERROR: weight %s must be key=value.", pair));
+			}
+			String key = pair.substring(0, separator).trim();
+			overrides.put(key, parseWeight(key, pair.substring(separator + 1)));
+		}
+		return of(overrides);
+	}
+
+	/**
+	 * parses the value of a weight
+	 *
+	 * @param key   key of the weight
+	 * @param value value as string
+	 * @return value of the weight
+	 */
+	private static int parseWeight(String key, String value) {
+		try {
+			return Integer.parseInt(value.trim());
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException(String.format("ERROR: weight %s must be a number.", key));
+		}
+	}
+
+	/**
+	 * gets the table read by the decisions
+	 *
+	 * @return active table
+	 */
+	public static ScoringTable getActive() {
+		return active;
+	}
+
+	/**
+	 * sets the table read by the decisions. The table is read by the workers of
+	 * a parallel audit, so it is volatile. Decisions cached with another table
+	 * are not reused and live scenarios sum their sides again with the new one
+	 *
+	 * @param table compiled table
+	 */
+	public static void setActive(ScoringTable table) {
+		active = table;
+	}
+
+	/**
+	 * gets the importance of a code
+	 *
+	 * @param code code of a character
+	 * @return importance of the character
+	 */
+	public int getImportance(int code) {
+		return importances[code];
+	}
+
+	/**
+	 * gets a copy of the table, indexed by code
+	 *
+	 * @return importance of every code
+	 */
+	public int[] getImportances() {
+		return importances.clone();
+	}
+
+	/**
+	 * gets the penalty added to the importance of the pedestrians for every
+	 * pedestrian crossing illegally
+	 *
+	 * @return penalty per pedestrian
+	 */
+	public int getIllegalCrossingPenalty() {
+		return illegalCrossingPenalty;
+	}
+
+	/**
+	 * gets the compiled weights
+	 *
+	 * @return value of every weight key, in the order of the keys
+	 */
+	public Map<String, Integer> getWeights() {
+		return weights;
+	}
+}
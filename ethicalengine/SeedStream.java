@@ -0,0 +1,75 @@
+package ethicalengine;
+
+/**
+ * Counter based stream of seeds derived from a single master seed. The seed of
+ * the n-th scenario only depends on the master seed and n, so any split of the
+ * scenarios across threads reproduces the same corpus
+ * 
+ * @author Sharodh Keelamanakudi Ragupathi(1148618)
+ */
+
+import java.util.SplittableRandom;
+
+public class SeedStream {
+
+	static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+	private final long masterSeed;
+
+	/**
+	 * creates a seed stream with a random master seed
+	 */
+	public SeedStream() {
+		this(new SplittableRandom().nextLong());
+	}
+
+	/**
+	 * creates a seed stream with a predefined master seed
+	 * 
+	 * @param masterSeed seed from which all the seeds are derived
+	 */
+	public SeedStream(long masterSeed) {
+		this.masterSeed = masterSeed;
+	}
+
+	/**
+	 * gets the master seed
+	 * 
+	 * @return master seed of the stream
+	 */
+	public long getMasterSeed() {
+		return masterSeed;
+	}
+
+	/**
+	 * gets the seed at a position of the stream
+	 * 
+	 * @param index position in the stream
+	 * @return seed for the position
+	 */
+	public long seedAt(long index) {
+		return mix64(masterSeed + (index + 1) * GOLDEN_GAMMA);
+	}
+
+	/**
+	 * gets a random generator for a position of the stream
+	 * 
+	 * @param index position in the stream
+	 * @return random generator seeded for the position
+	 */
+	public SplittableRandom randomAt(long index) {
+		return new SplittableRandom(seedAt(index));
+	}
+
+	/**
+	 * SplitMix64 finalizer
+	 * 
+	 * @param z value to be mixed
+	 * @return mixed value
+	 */
+	private static long mix64(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+}
@@ -0,0 +1,85 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import ethicalengine.Scenario;
+import ethicalengine.ScenarioGenerator;
+
+/**
+ * Statistics of the audits, which must not depend on how the scenarios are
+ * split across workers
+ *
+ * @author Sharodh Keelamanakudi Ragupathi(1148618)
+ */
+public class AuditTest {
+
+	static final long SEED = 90041L;
+	static final int SCENARIOS = 50000;
+	static final int PARALLELISM = 4;
+
+	@Test
+	public void runParallelMatchesRun() throws IOException {
+		ScenarioGenerator generator = new ScenarioGenerator(SEED, 1, 12, 1, 12);
+		Scenario[] scenarios = new Scenario[SCENARIOS];
+		for (int i = 0; i < SCENARIOS; i++) {
+			scenarios[i] = generator.generate();
+		}
+
+		Audit sequential = new Audit(scenarios);
+		sequential.run();
+		Audit parallel = new Audit(scenarios);
+		parallel.runParallel(PARALLELISM);
+
+		assertSameCounts(sequential.traits, parallel.traits);
+		assertEquals(sequential.getRuns(), parallel.getRuns());
+		assertEquals(sequential.toString(), parallel.toString());
+		assertEquals(report(sequential, ReportWriter.Format.JSON), report(parallel, ReportWriter.Format.JSON));
+	}
+
+	/**
+	 * checks that two accumulators hold the same counts for every trait, in any
+	 * order
+	 *
+	 * @param expected accumulator of the reference audit
+	 * @param actual   accumulator of the audit under test
+	 */
+	static void assertSameCounts(TraitAccumulator expected, TraitAccumulator actual) {
+		assertEquals(countsOf(expected), countsOf(actual));
+		assertEquals(expected.getTotalAgeOfSurvivors(), actual.getTotalAgeOfSurvivors());
+		assertEquals(expected.getTotalSurvivors(), actual.getTotalSurvivors());
+	}
+
+	/**
+	 * gets the saved and total counts of every trait of an accumulator
+	 *
+	 * @param traits accumulator
+	 * @return saved and total count by name of trait
+	 */
+	private static Map<String, String> countsOf(TraitAccumulator traits) {
+		Map<String, String> counts = new HashMap<String, String>();
+		for (int i = 0; i < traits.getTraitCount(); i++) {
+			int ordinal = traits.getTraitAt(i);
+			counts.put(traits.getName(ordinal),
+					traits.getCountOfSafeCharacters(ordinal) + "/" + traits.getCountOfAllCharacters(ordinal));
+		}
+		return counts;
+	}
+
+	/**
+	 * writes the report of an audit
+	 *
+	 * @param audit  audit to be reported
+	 * @param format format of the report
+	 * @return report
+	 * @throws IOException
+	 */
+	static String report(Audit audit, ReportWriter.Format format) throws IOException {
+		StringBuilder report = new StringBuilder();
+		new ReportWriter(report, format).write(audit);
+		return report.toString();
+	}
+}
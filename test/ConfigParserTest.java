@@ -0,0 +1,151 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import ethicalengine.Animal;
+import ethicalengine.Scenario;
+
+/**
+ * Scenarios and problems of parsed config files, which must not depend on the
+ * line endings, on the size of the mapped windows or on the chunks parsed in
+ * parallel
+ *
+ * @author Sharodh Keelamanakudi Ragupathi(1148618)
+ */
+public class ConfigParserTest {
+
+	static final String HEADER = "class,gender,age,bodyType,profession,pregnant,isYou,species,isPet,role";
+	static final String[] LINES = { "scenario:green,,,,,,,,,", // line 2
+			"person,female,24,average,doctor,false,false,,,passenger", // 3
+			"person,robot,30,average,doctor,false,false,,,passenger", // 4 invalid gender
+			"", // 5 invalid data format
+			"animal,male,4,,,,,dog,true,pedestrian", // 6
+			"person,male,abc,average,doctor,false,true,,,pedestrian", // 7 invalid age
+			"person,male,30,tall,astronaut,false,false,,,pedestrian", // 8 invalid body type and profession
+			"person,male,30,average,doctor,false,false,,,sideways", // 9 invalid role
+			"scenario:red", // 10
+			"person,female,5,average,,false,false,,,passenger,extra", // 11 invalid data format
+			"animal,female,3,,,,,axolotl,false,passenger" }; // 12
+	static final String[] LINE_ENDINGS = { "\r\n", "\n", "\r" };
+	static final int COPIES = 300;
+	static final int PARALLELISM = 4;
+	static final int TINY_WINDOW_SIZE = 32;
+
+	@TempDir
+	File directory;
+
+	@Test
+	public void problemsHaveLineColumnAndCode() throws IOException {
+		File file = write("small.csv", 1);
+		ConfigDiagnostics diagnostics = new ConfigDiagnostics();
+		Scenario[] scenarios = ConfigParser.parse(file, 1, diagnostics);
+
+		assertEquals(2, scenarios.length);
+		assertTrue(scenarios[0].isLegalCrossing());
+		assertEquals(3, scenarios[0].getPassengerCount());
+		assertEquals(3, scenarios[0].getPedestrianCount());
+		assertTrue(scenarios[0].hasYouInLane());
+		assertEquals(false, scenarios[1].isLegalCrossing());
+		assertEquals(1, scenarios[1].getPassengerCount());
+		assertEquals("axolotl", ((Animal) scenarios[1].getPassengers()[0]).getSpecies());
+
+		ConfigDiagnostics.Code characteristic = ConfigDiagnostics.Code.INVALID_CHARACTERISTIC;
+		ConfigDiagnostics.Code dataFormat = ConfigDiagnostics.Code.INVALID_DATA_FORMAT;
+		ConfigDiagnostics.Code numberFormat = ConfigDiagnostics.Code.INVALID_NUMBER_FORMAT;
+		long[] lines = { 4, 5, 7, 8, 8, 9, 11 };
+		int[] columns = { 2, ConfigDiagnostics.ROW, 3, 4, 5, 10, ConfigDiagnostics.ROW };
+		ConfigDiagnostics.Code[] codes = { characteristic, dataFormat, numberFormat, characteristic, characteristic,
+				characteristic, dataFormat };
+		assertEquals(lines.length, diagnostics.getCount());
+		StringBuilder warnings = new StringBuilder();
+		StringBuilder rows = new StringBuilder("line,column,code\n");
+		for (int i = 0; i < lines.length; i++) {
+			assertEquals(lines[i], diagnostics.getLine(i), "problem " + i);
+			assertEquals(columns[i], diagnostics.getColumn(i), "problem " + i);
+			assertEquals(codes[i], diagnostics.getCode(i), "problem " + i);
+			warnings.append(codes[i].getMessage(lines[i])).append(System.lineSeparator());
+			rows.append(lines[i]).append(',').append(ConfigDiagnostics.COLUMN_NAMES[columns[i]]).append(',')
+					.append(codes[i]).append('\n');
+		}
+		assertEquals(1, diagnostics.getCount(characteristic, 2));
+		assertEquals(1, diagnostics.getCount(characteristic, 4));
+		assertEquals(1, diagnostics.getCount(characteristic, 5));
+		assertEquals(1, diagnostics.getCount(characteristic, 10));
+		assertEquals(2, diagnostics.getCount(dataFormat, ConfigDiagnostics.ROW));
+		assertEquals(1, diagnostics.getCount(numberFormat, 3));
+
+		// the warnings are the ones printed line by line before diagnostics were collected
+		assertEquals("WARNING: invalid characteristic in config file in line 4", characteristic.getMessage(4));
+		ByteArrayOutputStream printed = new ByteArrayOutputStream();
+		diagnostics.printWarnings(new PrintStream(printed, true));
+		assertEquals(warnings.toString(), printed.toString(Charset.defaultCharset()));
+
+		File written = new File(directory, "diagnostics.csv");
+		diagnostics.write(written.getPath());
+		assertEquals(Arrays.asList(rows.toString().split("\n")), Files.readAllLines(written.toPath()));
+	}
+
+	@Test
+	public void chunkedParseMatchesParse() throws IOException {
+		File file = write("large.csv", COPIES);
+		ConfigDiagnostics expected = new ConfigDiagnostics();
+		Scenario[] expectedScenarios = ConfigParser.parse(file, 1, expected);
+		assertEquals(2 * COPIES, expectedScenarios.length);
+		assertEquals(7 * COPIES, expected.getCount());
+		// the line numbers go on across the copies
+		assertEquals(8 + (COPIES - 1) * LINES.length, expected.getLine(expected.getCount() - 4));
+
+		int[] parallelisms = { 1, PARALLELISM };
+		for (int parallelism : parallelisms) {
+			ConfigDiagnostics actual = new ConfigDiagnostics();
+			Scenario[] scenarios = ConfigParser.parse(file, parallelism, TINY_WINDOW_SIZE, 1, actual);
+
+			String name = "parallelism " + parallelism + ", ";
+			assertEquals(expectedScenarios.length, scenarios.length, name + "scenarios");
+			for (int i = 0; i < scenarios.length; i++) {
+				assertEquals(ScenarioGeneratorTest.describe(expectedScenarios[i]),
+						ScenarioGeneratorTest.describe(scenarios[i]), name + "scenario " + i);
+			}
+			assertEquals(expected.getCount(), actual.getCount(), name + "problems");
+			for (int i = 0; i < actual.getCount(); i++) {
+				assertEquals(expected.getLine(i), actual.getLine(i), name + "problem " + i);
+				assertEquals(expected.getColumn(i), actual.getColumn(i), name + "problem " + i);
+				assertEquals(expected.getCode(i), actual.getCode(i), name + "problem " + i);
+			}
+		}
+	}
+
+	/**
+	 * writes a config file holding copies of the lines, ended in turn by a
+	 * carriage return and line feed, a line feed and a carriage return. The last
+	 * line has no line ending
+	 *
+	 * @param name   name of the file
+	 * @param copies number of copies of the lines
+	 * @return config file
+	 * @throws IOException
+	 */
+	private File write(String name, int copies) throws IOException {
+		StringBuilder content = new StringBuilder(HEADER).append('\n');
+		int lineCount = copies * LINES.length;
+		for (int i = 0; i < lineCount; i++) {
+			content.append(LINES[i % LINES.length]);
+			if (i < lineCount - 1) {
+				content.append(LINE_ENDINGS[i % LINE_ENDINGS.length]);
+			}
+		}
+		File file = new File(directory, name);
+		Files.write(file.toPath(), content.toString().getBytes(Charset.defaultCharset()));
+		return file;
+	}
+}
@@ -0,0 +1,66 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Exact audits, whose expected survival ratios must be the values a seeded
+ * Monte Carlo audit of the same crowd size converges to
+ *
+ * @author Sharodh Keelamanakudi Ragupathi(1148618)
+ */
+public class ExactAuditTest {
+
+	static final long SEED = 90041L;
+	static final long RUNS = 3000000;
+	static final double STANDARD_ERRORS = 5;
+	static final double MAX_AGE_DIFFERENCE = 0.1;
+
+	@Test
+	public void exactMatchesMonteCarlo() {
+		Audit exact = new Audit();
+		exact.setSeed(SEED);
+		exact.runExact();
+		assertEquals(0, exact.getRuns());
+
+		// the intervals give the standard errors of the sampled ratios, their
+		// target half-width of 0 is never met so the audit goes through all runs
+		Audit sampled = new Audit();
+		sampled.setSeed(SEED);
+		sampled.runAdaptive(RUNS, 0, new HashMap<String, Double>());
+		assertEquals(RUNS, sampled.getRuns());
+
+		TraitAccumulator expected = exact.traits;
+		TraitAccumulator actual = sampled.traits;
+		for (int i = 0; i < expected.getTraitCount(); i++) {
+			int ordinal = expected.getTraitAt(i);
+			String name = expected.getName(ordinal);
+			assertTrue(actual.getCountOfAllCharacters(ordinal) > 0, name);
+			double ratio = ratio(expected.getCountOfSafeCharacters(ordinal),
+					expected.getCountOfAllCharacters(ordinal));
+			double sampledRatio = ratio(actual.getCountOfSafeCharacters(ordinal),
+					actual.getCountOfAllCharacters(ordinal));
+			double standardError = sampled.intervals.getHalfWidth(ordinal) / TraitIntervals.Z_95;
+			assertTrue(Math.abs(ratio - sampledRatio) <= STANDARD_ERRORS * standardError,
+					name + ": exact " + ratio + ", sampled " + sampledRatio + " +- " + standardError);
+		}
+		assertEquals(expected.getTraitCount(), actual.getTraitCount());
+
+		double age = ratio(expected.getTotalAgeOfSurvivors(), expected.getTotalSurvivors());
+		double sampledAge = ratio(actual.getTotalAgeOfSurvivors(), actual.getTotalSurvivors());
+		assertEquals(age, sampledAge, MAX_AGE_DIFFERENCE);
+	}
+
+	/**
+	 * divides two counts
+	 *
+	 * @param part  count of the part
+	 * @param whole count of the whole
+	 * @return ratio of the counts
+	 */
+	private static double ratio(double part, double whole) {
+		return part / whole;
+	}
+}
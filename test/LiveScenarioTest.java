@@ -0,0 +1,156 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import ethicalengine.Animal;
+import ethicalengine.Character;
+import ethicalengine.LiveScenario;
+import ethicalengine.Person;
+import ethicalengine.Scenario;
+import ethicalengine.ScenarioGenerator;
+import ethicalengine.ScoringTable;
+
+/**
+ * Live scenarios changed at random, whose totals and decisions must stay those
+ * of a scenario built again from their characters
+ *
+ * @author Sharodh Keelamanakudi Ragupathi(1148618)
+ */
+public class LiveScenarioTest {
+
+	static final long SEED = 90041L;
+	static final int OPERATIONS = 60000;
+	static final int TABLE_SWITCH_INTERVAL = 5000;
+	static final int MAX_SIDE = 24;
+	static final String CUSTOM_TABLE = "pregnant=7,you=-4,pet=3,illegalCrossing=-5,age.baby=9";
+
+	@Test
+	public void randomChangesMatchFreshDecisions() {
+		Random random = new Random(SEED);
+		ScenarioGenerator generator = new ScenarioGenerator(SEED);
+		ScoringTable[] tables = { ScoringTable.DEFAULT, ScoringTable.parse(CUSTOM_TABLE) };
+		ScoringTable previous = ScoringTable.getActive();
+
+		Scenario start = generator.generate();
+		LiveScenario live = new LiveScenario(start);
+		ArrayList<Character> passengers = listOf(start.getPassengers());
+		ArrayList<Character> pedestrians = listOf(start.getPedestrians());
+		try {
+			for (int operation = 0; operation < OPERATIONS; operation++) {
+				if (operation % TABLE_SWITCH_INTERVAL == 0) {
+					ScoringTable.setActive(tables[(operation / TABLE_SWITCH_INTERVAL) % tables.length]);
+				}
+				boolean isPassenger = random.nextBoolean();
+				ArrayList<Character> side = isPassenger ? passengers : pedestrians;
+				int kind = random.nextInt(9);
+				if (side.isEmpty() || (kind < 2 && side.size() < MAX_SIDE)) {
+					Character character = random.nextBoolean() ? generator.getRandomPerson()
+							: generator.getRandomAnimal();
+					side.add(character);
+					if (isPassenger) {
+						live.addPassenger(character);
+					} else {
+						live.addPedestrian(character);
+					}
+				} else if (kind < 4) {
+					int index = random.nextInt(side.size());
+					Character removed = isPassenger ? live.removePassenger(index) : live.removePedestrian(index);
+					assertEquals(side.remove(index), removed, "operation " + operation);
+				} else if (kind < 6) {
+					int index = random.nextInt(side.size());
+					Character character = random.nextBoolean() ? generator.getRandomPerson()
+							: generator.getRandomAnimal();
+					side.set(index, character);
+					if (isPassenger) {
+						live.setPassenger(index, character);
+					} else {
+						live.setPedestrian(index, character);
+					}
+				} else if (kind < 8) {
+					int index = random.nextInt(side.size());
+					change(side.get(index), random);
+					if (isPassenger) {
+						live.updatePassenger(index);
+					} else {
+						live.updatePedestrian(index);
+					}
+				} else {
+					live.setLegalCrossing(!live.isLegalCrossing());
+				}
+				assertMatches(live, passengers, pedestrians, operation);
+			}
+		} finally {
+			ScoringTable.setActive(previous);
+		}
+	}
+
+	/**
+	 * checks a live scenario against a scenario built from the expected
+	 * characters
+	 *
+	 * @param live        live scenario
+	 * @param passengers  expected passengers
+	 * @param pedestrians expected pedestrians
+	 * @param operation   number of the last operation
+	 */
+	private static void assertMatches(LiveScenario live, ArrayList<Character> passengers,
+			ArrayList<Character> pedestrians, int operation) {
+		String name = "operation " + operation;
+		Scenario fresh = new Scenario(passengers.toArray(new Character[passengers.size()]),
+				pedestrians.toArray(new Character[pedestrians.size()]), live.isLegalCrossing());
+		Scenario copy = new Scenario(live.getPassengers(), live.getPedestrians(), live.isLegalCrossing());
+		assertEquals(ScenarioGeneratorTest.describe(fresh), ScenarioGeneratorTest.describe(copy), name);
+		assertEquals(sumImportance(passengers), live.getPassengerImportance(), name);
+		assertEquals(sumImportance(pedestrians), live.getPedestrianImportance(), name);
+		assertEquals(EthicalEngine.decide(fresh), EthicalEngine.decide(live), name);
+	}
+
+	/**
+	 * changes a trait of a character in place
+	 *
+	 * @param character character to be changed
+	 * @param random    source of the changes
+	 */
+	private static void change(Character character, Random random) {
+		if (random.nextBoolean()) {
+			character.setAge(1 + random.nextInt(100));
+		} else if (character instanceof Person) {
+			Person person = (Person) character;
+			person.setAsYou(!person.isYou());
+		} else {
+			Animal animal = (Animal) character;
+			animal.setPet(!animal.isPet());
+		}
+	}
+
+	/**
+	 * sums the importance of characters with the active scoring table
+	 *
+	 * @param characters characters
+	 * @return total importance
+	 */
+	private static int sumImportance(ArrayList<Character> characters) {
+		int total = 0;
+		for (Character character : characters) {
+			total += ScoringTable.getActive().getImportance(character.getImportanceCode());
+		}
+		return total;
+	}
+
+	/**
+	 * copies characters into a list
+	 *
+	 * @param characters characters
+	 * @return list of the characters
+	 */
+	private static ArrayList<Character> listOf(Character[] characters) {
+		ArrayList<Character> list = new ArrayList<Character>();
+		for (Character character : characters) {
+			list.add(character);
+		}
+		return list;
+	}
+}
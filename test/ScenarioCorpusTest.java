@@ -0,0 +1,103 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import ethicalengine.Animal;
+import ethicalengine.Character;
+import ethicalengine.Scenario;
+import ethicalengine.ScenarioBatch;
+import ethicalengine.ScenarioCorpus;
+import ethicalengine.ScenarioGenerator;
+
+/**
+ * Config files converted to a binary scenario corpus and back, which must give
+ * the config file converted, with or without the offset index
+ *
+ * @author Sharodh Keelamanakudi Ragupathi(1148618)
+ */
+public class ScenarioCorpusTest {
+
+	static final long SEED = 90041L;
+	static final int SCENARIOS = 3000;
+	static final int SPECIES_COUNT = 48;
+	static final int[] LARGE_AGES = { 126, 127, 128, 300, 70000, Integer.MAX_VALUE };
+
+	@TempDir
+	File directory;
+
+	@Test
+	public void convertedCorpusGivesBackConfig() throws IOException {
+		// a generated person keeps the profession of its first age, which a config
+		// file of an older person drops, so the config is written from parsed ones
+		File generated = new File(directory, "generated.csv");
+		ConfigWriter.write(scenarios(), generated);
+		File config = new File(directory, "config.csv");
+		ConfigWriter.write(ConfigParser.parse(generated, 1, new ConfigDiagnostics()), config);
+		Scenario[] parsed = ConfigParser.parse(config, 1, new ConfigDiagnostics());
+
+		boolean[] indexes = { true, false };
+		for (boolean withIndex : indexes) {
+			String name = withIndex ? "with index, " : "without index, ";
+			File corpusFile = new File(directory, "corpus-" + withIndex + ".bin");
+			ScenarioCorpus.write(ScenarioBatch.of(parsed), corpusFile, withIndex);
+			assertEquals(true, ScenarioCorpus.isCorpus(corpusFile), name + "magic");
+
+			Scenario[] read;
+			try (ScenarioCorpus corpus = ScenarioCorpus.open(corpusFile)) {
+				assertEquals(withIndex, corpus.hasIndex(), name + "index");
+				assertEquals(parsed.length, corpus.getScenarioCount(), name + "scenarios");
+				read = corpus.readAll().toScenarios();
+				if (withIndex) {
+					// from the last scenario back, so every one is found through the index
+					for (int i = parsed.length - 1; i >= 0; i--) {
+						assertEquals(ScenarioGeneratorTest.describe(parsed[i]),
+								ScenarioGeneratorTest.describe(corpus.getScenario(i)), name + "scenario " + i);
+					}
+				}
+			}
+			for (int i = 0; i < parsed.length; i++) {
+				assertEquals(ScenarioGeneratorTest.describe(parsed[i]), ScenarioGeneratorTest.describe(read[i]),
+						name + "scenario " + i);
+			}
+
+			File converted = new File(directory, "converted-" + withIndex + ".csv");
+			ConfigWriter.write(read, converted);
+			assertEquals(Files.readAllLines(config.toPath()), Files.readAllLines(converted.toPath()), name + "config");
+		}
+	}
+
+	/**
+	 * generates scenarios whose animals are of more species than fit in the
+	 * packed bits, most of them free text, and whose characters are sometimes
+	 * older than the packed ages
+	 *
+	 * @return scenarios
+	 */
+	private static Scenario[] scenarios() {
+		ScenarioGenerator generator = new ScenarioGenerator(SEED);
+		Scenario[] scenarios = new Scenario[SCENARIOS];
+		int animals = 0;
+		int renamed = 0;
+		int characters = 0;
+		for (int i = 0; i < SCENARIOS; i++) {
+			scenarios[i] = generator.generate();
+			Character[][] sides = { scenarios[i].getPassengers(), scenarios[i].getPedestrians() };
+			for (Character[] side : sides) {
+				for (Character character : side) {
+					if (characters++ % 7 == 0) {
+						character.setAge(LARGE_AGES[(characters / 7) % LARGE_AGES.length]);
+					}
+					if (character instanceof Animal && animals++ % 3 == 0) {
+						((Animal) character).setSpecies("species " + (renamed++ % SPECIES_COUNT));
+					}
+				}
+			}
+		}
+		return scenarios;
+	}
+}
@@ -0,0 +1,83 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import ethicalengine.Animal;
+import ethicalengine.Character;
+import ethicalengine.Person;
+import ethicalengine.Scenario;
+import ethicalengine.ScenarioGenerator;
+import ethicalengine.SeedStream;
+
+/**
+ * Scenarios generated from a seed stream, which must only depend on the seed
+ * and their position in the stream
+ *
+ * @author Sharodh Keelamanakudi Ragupathi(1148618)
+ */
+public class ScenarioGeneratorTest {
+
+	static final long SEED = 90041L;
+	static final int SCENARIOS = 2000;
+
+	@Test
+	public void generateAtIndexDoesNotDependOnEarlierCalls() {
+		ScenarioGenerator sequential = new ScenarioGenerator(new SeedStream(SEED));
+		String[] expected = new String[SCENARIOS];
+		for (int i = 0; i < SCENARIOS; i++) {
+			expected[i] = describe(sequential.generate(i));
+		}
+
+		// the same positions in another order, with unrelated draws in between
+		ScenarioGenerator shuffled = new ScenarioGenerator(new SeedStream(SEED));
+		for (int step = 0; step < SCENARIOS; step++) {
+			int i = (int) ((step * 7919L) % SCENARIOS);
+			shuffled.generate();
+			assertEquals(expected[i], describe(shuffled.generate(i)), "scenario " + i);
+		}
+	}
+
+	@Test
+	public void generatedAuditDoesNotDependOnParallelism() {
+		Audit sequential = new Audit();
+		sequential.setSeed(SEED);
+		sequential.run(AuditTest.SCENARIOS);
+		Audit parallel = new Audit();
+		parallel.setSeed(SEED);
+		parallel.setParallelism(AuditTest.PARALLELISM);
+		parallel.run(AuditTest.SCENARIOS);
+
+		AuditTest.assertSameCounts(sequential.traits, parallel.traits);
+		assertEquals(sequential.toString(), parallel.toString());
+	}
+
+	/**
+	 * describes every attribute of the characters of a scenario
+	 *
+	 * @param scenario scenario to be described
+	 * @return description of the scenario
+	 */
+	static String describe(Scenario scenario) {
+		StringBuilder description = new StringBuilder();
+		description.append(scenario.isLegalCrossing()).append(' ').append(scenario.hasYouInCar()).append(' ')
+				.append(scenario.hasYouInLane());
+		describe(scenario.getPassengers(), description.append("\npassengers"));
+		describe(scenario.getPedestrians(), description.append("\npedestrians"));
+		return description.toString();
+	}
+
+	private static void describe(Character[] characters, StringBuilder description) {
+		for (Character character : characters) {
+			description.append('\n').append(character.getAge()).append(' ').append(character.getGender())
+					.append(' ').append(character.getBodyType());
+			if (character instanceof Person) {
+				Person person = (Person) character;
+				description.append(' ').append(person.getProfession()).append(' ').append(person.isPregnant())
+						.append(' ').append(person.isYou());
+			} else {
+				Animal animal = (Animal) character;
+				description.append(' ').append(animal.getSpecies()).append(' ').append(animal.isPet());
+			}
+		}
+	}
+}
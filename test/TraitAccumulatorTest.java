@@ -0,0 +1,66 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.jupiter.api.Test;
+
+import com.sun.management.ThreadMXBean;
+
+import ethicalengine.Scenario;
+import ethicalengine.ScenarioGenerator;
+
+/**
+ * Allocation of the trait extraction of an audit. Once every trait has been
+ * seen, adding a scenario must not allocate
+ *
+ * @author Sharodh Keelamanakudi Ragupathi(1148618)
+ */
+public class TraitAccumulatorTest {
+
+	static final long SEED = 90041L;
+	static final int SCENARIOS = 10000;
+	static final int WARMUP_PASSES = 20;
+
+	@Test
+	public void addScenarioDoesNotAllocate() {
+		ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+		assumeTrue(threads.isThreadAllocatedMemorySupported(), "thread allocation counters are not supported");
+		threads.setThreadAllocatedMemoryEnabled(true);
+
+		ScenarioGenerator generator = new ScenarioGenerator(SEED);
+		Scenario[] scenarios = new Scenario[SCENARIOS];
+		EthicalEngine.Decision[] decisions = new EthicalEngine.Decision[SCENARIOS];
+		for (int i = 0; i < SCENARIOS; i++) {
+			scenarios[i] = generator.generate();
+			decisions[i] = EthicalEngine.decide(scenarios[i]);
+		}
+
+		// the warm-up registers every trait of the corpus and lets the JIT compile
+		TraitAccumulator traits = new TraitAccumulator();
+		for (int pass = 0; pass < WARMUP_PASSES; pass++) {
+			addScenarios(traits, scenarios, decisions);
+		}
+
+		long threadId = Thread.currentThread().getId();
+		long before = threads.getThreadAllocatedBytes(threadId);
+		addScenarios(traits, scenarios, decisions);
+		long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+		assertEquals(0, allocated / SCENARIOS, "bytes allocated per scenario, " + allocated + " in total");
+	}
+
+	/**
+	 * adds every decided scenario of a corpus
+	 *
+	 * @param traits    accumulator of the audit
+	 * @param scenarios scenarios of the corpus
+	 * @param decisions decision of every scenario
+	 */
+	private static void addScenarios(TraitAccumulator traits, Scenario[] scenarios,
+			EthicalEngine.Decision[] decisions) {
+		for (int i = 0; i < scenarios.length; i++) {
+			traits.addScenario(scenarios[i], decisions[i]);
+		}
+	}
+}
@@ -0,0 +1,81 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import org.junit.jupiter.api.Test;
+
+import ethicalengine.Scenario;
+import ethicalengine.ScenarioBatch;
+import ethicalengine.ScenarioGenerator;
+import ethicalengine.ScoringTable;
+
+/**
+ * Decisions of the Vector API kernel, which must equal the ones of the scalar
+ * kernel and of {@link EthicalEngine#decide(Scenario)}. Only run when the
+ * jdk.incubator.vector module is present, with mvn test -Pvector
+ *
+ * @author Sharodh Keelamanakudi Ragupathi(1148618)
+ */
+public class VectorDecideKernelTest {
+
+	static final long SEED = 90041L;
+	static final int SCENARIOS = 5000;
+	static final int MAX_SIDE = 40;
+	static final int CROWD = 300;
+
+	@Test
+	public void vectorKernelMatchesScalarKernel() {
+		assertVectorKernelMatches(scenarios());
+	}
+
+	@Test
+	public void vectorKernelMatchesScalarKernelWithCustomTable() {
+		ScoringTable previous = ScoringTable.getActive();
+		ScoringTable.setActive(ScoringTable.parse("pregnant=7,you=-4,pet=3,illegalCrossing=-5,age.baby=9"));
+		try {
+			assertVectorKernelMatches(scenarios());
+		} finally {
+			ScoringTable.setActive(previous);
+		}
+	}
+
+	/**
+	 * decides scenarios with both kernels and one by one
+	 *
+	 * @param scenarios scenarios to be decided
+	 */
+	private static void assertVectorKernelMatches(Scenario[] scenarios) {
+		assumeTrue(EthicalEngine.isVectorKernelAvailable(), "the jdk.incubator.vector module is not present");
+		ScenarioBatch batch = ScenarioBatch.of(scenarios);
+		EthicalEngine.setVectorKernelEnabled(false);
+		byte[] scalar = EthicalEngine.decideAll(batch);
+		byte[] vector;
+		try {
+			assertEquals(true, EthicalEngine.setVectorKernelEnabled(true));
+			vector = EthicalEngine.decideAll(batch);
+		} finally {
+			EthicalEngine.setVectorKernelEnabled(false);
+		}
+
+		assertArrayEquals(scalar, vector);
+		for (int i = 0; i < scenarios.length; i++) {
+			assertEquals(EthicalEngine.decide(scenarios[i]).ordinal(), vector[i], "scenario " + i);
+		}
+	}
+
+	/**
+	 * generates scenarios of 1 to {@link #MAX_SIDE} characters per side, so
+	 * every length of the tail after the full vectors is met, and a few crowds
+	 *
+	 * @return scenarios of mixed sizes
+	 */
+	private static Scenario[] scenarios() {
+		ScenarioGenerator generator = new ScenarioGenerator(SEED, 1, MAX_SIDE + 1, 1, MAX_SIDE + 1);
+		ScenarioGenerator crowds = new ScenarioGenerator(SEED, 1, CROWD, 1, CROWD);
+		Scenario[] scenarios = new Scenario[SCENARIOS];
+		for (int i = 0; i < SCENARIOS; i++) {
+			scenarios[i] = i % 100 == 0 ? crowds.generate() : generator.generate();
+		}
+		return scenarios;
+	}
+}